@@ -0,0 +1,61 @@
+package benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import logic.GameLogic;
+import logic.GameState;
+import logic.MoveBuffer;
+import solver.structure.LongOpenHashSet;
+import util.ConfigParser;
+
+/**
+ * Puzzles shared by the solver benchmarks. They are read from the project's
+ * test/config directory, which holds the hand-written examples and the
+ * generated hard suite (09_hard to 11_hard, 14 to 19 moves optimal). The
+ * directory defaults to ../test/config, the right path when running from
+ * benchmarks/, and can be moved with -Dpuzzle.dir=...
+ */
+final class BenchmarkPuzzles {
+
+    private BenchmarkPuzzles() {
+    }
+
+    /**
+     * Loads a puzzle by its file name without the .txt extension.
+     */
+    static GameState load(String name) {
+        Path file = Paths.get(System.getProperty("puzzle.dir", "../test/config"), name + ".txt");
+        try {
+            return ConfigParser.parseConfig(file.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load benchmark puzzle " + file.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Collects up to count distinct states reachable from the initial state,
+     * in breadth-first order, so samples mix shallow and deeper positions.
+     */
+    static GameState[] reachableStates(GameState initialState, int count) {
+        List<GameState> states = new ArrayList<>();
+        LongOpenHashSet seen = new LongOpenHashSet();
+        MoveBuffer moves = new MoveBuffer();
+        states.add(initialState);
+        seen.add(initialState.getStateKey());
+        for (int head = 0; head < states.size() && states.size() < count; head++) {
+            GameState state = states.get(head);
+            GameLogic.expandSuccessors(state, moves);
+            for (int i = 0; i < moves.size() && states.size() < count; i++) {
+                if (seen.add(state.getStateKeyAfterMove(moves.getPieceIndex(i), moves.getPosition(i)))) {
+                    states.add(state.withPiecePosition(moves.getPieceIndex(i), moves.getPosition(i)));
+                }
+            }
+        }
+        return states.toArray(new GameState[0]);
+    }
+}
@@ -0,0 +1,109 @@
+package benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import logic.GameLogic;
+import logic.GameState;
+import logic.MoveBuffer;
+import solver.heuristic.BlockingChainHeuristic;
+import util.PuzzleGenerator;
+
+/**
+ * Throughput of the state engine by board size. Boards up to 8x8 use the
+ * single-long bitboards, larger ones the row-major long[] bitboard. Each
+ * operation builds one child state from a sample taken along a random walk
+ * and expands it, the way a search pops a node, so the numbers are states
+ * expanded per microsecond including building the child's bitboard.
+ *
+ * Pieces cover about 30% of the board, capped by the number of labels the
+ * generator has, so the biggest boards are sparser.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardSizeBenchmark {
+
+    @Param({"6", "8", "10", "12", "16", "24", "32"})
+    public int boardSize;
+
+    private static final int SAMPLE_SIZE = 256;
+
+    // Parent states and the move that produces each sampled child
+    private GameState[] parents;
+    private int[] movedPieces;
+    private int[] newPositions;
+    private final MoveBuffer moves = new MoveBuffer();
+    private final BlockingChainHeuristic heuristic = new BlockingChainHeuristic();
+    private int next;
+
+    @Setup(Level.Trial)
+    public void createSamples() {
+        Random random = new Random(42);
+        // Average piece covers 2.25 cells
+        int pieces = Math.min(PuzzleGenerator.LABELS.length(), boardSize * boardSize * 30 / 225);
+        GameState state = PuzzleGenerator.generate(boardSize, boardSize, pieces, random);
+
+        parents = new GameState[SAMPLE_SIZE];
+        movedPieces = new int[SAMPLE_SIZE];
+        newPositions = new int[SAMPLE_SIZE];
+        MoveBuffer walk = new MoveBuffer();
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            GameLogic.expandSuccessors(state, walk);
+            int k = random.nextInt(walk.size());
+            parents[i] = state;
+            movedPieces[i] = walk.getPieceIndex(k);
+            newPositions[i] = walk.getPosition(k);
+            state = state.withPiecePosition(movedPieces[i], newPositions[i]);
+        }
+    }
+
+    private GameState nextChild() {
+        GameState child = parents[next].withPiecePosition(movedPieces[next], newPositions[next]);
+        next = (next + 1) % SAMPLE_SIZE;
+        return child;
+    }
+
+    /** Move generation plus the allocation-free child keys, as the closed-set check does. */
+    @Benchmark
+    public void expandKeys(Blackhole blackhole) {
+        GameState state = nextChild();
+        GameLogic.expandSuccessors(state, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            blackhole.consume(state.getStateKeyAfterMove(moves.getPieceIndex(i), moves.getPosition(i)));
+        }
+    }
+
+    /** Move generation plus building every child state, as the frontier insert does. */
+    @Benchmark
+    public void expandStates(Blackhole blackhole) {
+        GameState state = nextChild();
+        GameLogic.expandSuccessors(state, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            blackhole.consume(state.withPiecePosition(moves.getPieceIndex(i), moves.getPosition(i)));
+        }
+    }
+
+    /** Cell lookups through a heuristic that queries pieces by cell. */
+    @Benchmark
+    public int heuristic() {
+        return heuristic.calculate(nextChild());
+    }
+}
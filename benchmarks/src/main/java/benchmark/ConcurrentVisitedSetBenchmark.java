@@ -0,0 +1,85 @@
+package benchmark;
+
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import solver.structure.ConcurrentLongHashSet;
+
+/**
+ * Contention benchmark for the shared visited set used by parallel solvers.
+ * Every thread inserts keys drawn from one shared key space, so with a small
+ * key space most inserts hit keys that are already present (like BFS
+ * re-discovering states) and with a large one most inserts are new.
+ *
+ * Run a single thread count with -t, or use {@link ContentionSweep} to sweep
+ * 1 to 64 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentVisitedSetBenchmark {
+
+    @Param({"striped", "concurrentHashMap"})
+    public String implementation;
+
+    /** Number of distinct keys the threads draw from. */
+    @Param({"65536", "16777216"})
+    public int keySpace;
+
+    private ConcurrentLongHashSet striped;
+    private Set<Long> boxed;
+
+    @Setup(Level.Iteration)
+    public void createSet() {
+        striped = new ConcurrentLongHashSet(1 << 16, 4 * Runtime.getRuntime().availableProcessors());
+        boxed = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Per-thread key generator, so threads do not contend on the random source.
+     */
+    @State(Scope.Thread)
+    public static class Keys {
+        private SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void seed() {
+            random = new SplittableRandom(System.identityHashCode(this));
+        }
+
+        long next(int keySpace) {
+            // Spread the keys like packed states: small integers with structure in the low bits
+            return 1L + random.nextInt(keySpace);
+        }
+    }
+
+    @Benchmark
+    public boolean insertIfAbsent(Keys keys) {
+        long key = keys.next(keySpace);
+        return "striped".equals(implementation) ? striped.add(key) : boxed.add(key);
+    }
+
+    @Benchmark
+    public boolean lookup(Keys keys) {
+        long key = keys.next(keySpace);
+        return "striped".equals(implementation) ? striped.contains(key) : boxed.contains(key);
+    }
+}
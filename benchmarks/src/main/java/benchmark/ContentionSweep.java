@@ -0,0 +1,27 @@
+package benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs {@link ConcurrentVisitedSetBenchmark} at 1, 2, 4, ..., 64 threads.
+ *
+ * Usage: java -cp target/benchmarks.jar benchmark.ContentionSweep [maxThreads]
+ */
+public class ContentionSweep {
+    public static void main(String[] args) throws RunnerException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            Options options = new OptionsBuilder()
+                .include(ConcurrentVisitedSetBenchmark.class.getSimpleName())
+                .threads(threads)
+                .result("visited-set-" + threads + "t.json")
+                .resultFormat(ResultFormatType.JSON)
+                .build();
+            new Runner(options).run();
+        }
+    }
+}
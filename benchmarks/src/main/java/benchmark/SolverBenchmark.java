@@ -0,0 +1,107 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import logic.GameState;
+import logic.Node;
+import solver.algorithm.SearchBudget;
+import solver.algorithm.Solver;
+import solver.heuristic.Heuristic;
+import util.BatchSolver;
+
+/**
+ * Whole solve runs for every algorithm and heuristic on the test/config
+ * puzzles. The primary score is solves per second; the expandedStates
+ * counter is the search speed in states per second, so 1e9 divided by it
+ * is the cost of one expansion in nanoseconds. Run with -prof gc for the
+ * allocation rate. The peak frontier size and solution length of each
+ * configuration are printed at the end of its trial.
+ *
+ * Algorithms without a heuristic (ucs, bidirectional, portfolio) give the
+ * same result for every heuristic value; narrow the matrix with -p, e.g.
+ * -p algorithm=astar,ida -p heuristic=chain,pdb.
+ *
+ * The heuristic is created once per trial, so tables such as the pattern
+ * database are built before measuring, like a solver reusing it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+
+    @Param({"01_test", "03_test", "04_test", "09_hard", "10_hard", "11_hard"})
+    public String puzzle;
+
+    @Param({"ucs", "bidirectional", "gbfs", "astar", "hda", "ida", "ara", "bnb", "portfolio"})
+    public String algorithm;
+
+    @Param({"blocking", "chain", "pdb", "combined", "density", "distance", "manhattan"})
+    public String heuristic;
+
+    // Keeps a slow configuration from running one invocation for minutes
+    private static final SearchBudget BUDGET = SearchBudget.UNLIMITED.withMaxNodes(5_000_000);
+
+    private GameState initialState;
+    private Heuristic heuristicInstance;
+    private int peakFrontier;
+    private int solutionMoves;
+
+    /**
+     * Search work done during an iteration, reported per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long expandedStates;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            expandedStates = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void loadPuzzle() {
+        initialState = BenchmarkPuzzles.load(puzzle);
+        heuristicInstance = BatchSolver.createHeuristic(heuristic);
+        // Warm tables that are built lazily on the first state of a layout
+        if (heuristicInstance != null) {
+            heuristicInstance.calculate(initialState);
+        }
+    }
+
+    @Benchmark
+    public Node solve(Counters counters) {
+        Solver solver = BatchSolver.createSolver(algorithm, heuristicInstance);
+        solver.setBudget(BUDGET);
+        Node goal = solver.solve(initialState);
+        counters.expandedStates += solver.getNodesExplored();
+        peakFrontier = Math.max(peakFrontier, solver.getMaxQueueSize());
+        solutionMoves = goal != null ? goal.getCost() : -1;
+        return goal;
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.printf("%n%s %s/%s: peak frontier %d, %d moves%n",
+            puzzle, algorithm, heuristic, peakFrontier, solutionMoves);
+    }
+}
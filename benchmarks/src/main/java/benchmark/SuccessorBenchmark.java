@@ -0,0 +1,91 @@
+package benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import logic.GameLogic;
+import logic.GameState;
+import logic.MoveBuffer;
+import logic.Node;
+import solver.heuristic.Heuristic;
+import util.BatchSolver;
+
+/**
+ * Cost of a single expansion and a single heuristic evaluation in
+ * nanoseconds, over states sampled breadth-first from each test/config
+ * puzzle. The expansion benchmarks ignore the heuristic parameter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SuccessorBenchmark {
+
+    @Param({"01_test", "03_test", "04_test", "09_hard", "10_hard", "11_hard"})
+    public String puzzle;
+
+    @Param({"blocking", "chain", "pdb", "combined", "density", "distance", "manhattan"})
+    public String heuristic;
+
+    private static final int SAMPLE_SIZE = 1024;
+
+    private GameState[] states;
+    private Node[] nodes;
+    private Heuristic heuristicInstance;
+    private final MoveBuffer moves = new MoveBuffer();
+    private int next;
+
+    @Setup(Level.Trial)
+    public void sampleStates() {
+        states = BenchmarkPuzzles.reachableStates(BenchmarkPuzzles.load(puzzle), SAMPLE_SIZE);
+        nodes = new Node[states.length];
+        for (int i = 0; i < states.length; i++) {
+            nodes[i] = new Node(states[i]);
+        }
+        heuristicInstance = BatchSolver.createHeuristic(heuristic);
+        heuristicInstance.calculate(states[0]);
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = next + 1 == states.length ? 0 : next + 1;
+        return index;
+    }
+
+    /** The list-based API: a Node with a fresh GameState for every successor. */
+    @Benchmark
+    public List<Node> generateSuccessors() {
+        return GameLogic.generateSuccessors(nodes[nextIndex()]);
+    }
+
+    /** The solvers' path: moves into a reused buffer plus each child's key. */
+    @Benchmark
+    public void expandSuccessors(Blackhole blackhole) {
+        GameState state = states[nextIndex()];
+        GameLogic.expandSuccessors(state, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            blackhole.consume(state.getStateKeyAfterMove(moves.getPieceIndex(i), moves.getPosition(i)));
+        }
+    }
+
+    @Benchmark
+    public int heuristic() {
+        return heuristicInstance.calculate(states[nextIndex()]);
+    }
+}
@@ -0,0 +1,119 @@
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import solver.algorithm.SearchBudget;
+import util.BatchSolver;
+
+/**
+ * Headless entry point (the "cli" Maven profile). Solves every puzzle file
+ * matched by the given directories, globs or paths in parallel and prints
+ * one machine-readable result per puzzle followed by a summary line.
+ */
+public class Main {
+    private static final String USAGE =
+        "Pemakaian: java Main [opsi] direktori|glob|file...\n"
+        + "  --algorithm nama   ucs, bidirectional, gbfs, astar, hda, ida, ara, bnb, portfolio (default astar)\n"
+        + "  --heuristic nama   manhattan, blocking, combined, distance, density, pdb, chain, none (default blocking)\n"
+        + "  --threads n        jumlah puzzle yang dikerjain barengan (default jumlah core)\n"
+        + "  --timeout ms       batas waktu per puzzle\n"
+        + "  --max-nodes n      batas simpul per puzzle\n"
+        + "  --format f         jsonl atau csv (default jsonl)\n"
+        + "  --output file      tulis hasil ke file, bukan ke stdout\n"
+        + "  --save-dir dir     simpan solusi tiap puzzle ke dir dalam format biner .rhs";
+
+    public static void main(String[] args) {
+        String algorithm = "astar";
+        String heuristic = "blocking";
+        int threads = Runtime.getRuntime().availableProcessors();
+        // Same heap share the GUI gives a single search, split between the threads
+        SearchBudget budget = SearchBudget.UNLIMITED
+            .withMaxMemoryBytes(Runtime.getRuntime().maxMemory() / 2);
+        BatchSolver.Format format = BatchSolver.Format.JSONL;
+        String output = null;
+        String saveDir = null;
+        List<String> inputs = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (!arg.startsWith("--")) {
+                    inputs.add(arg);
+                    continue;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + arg);
+                }
+                String value = args[++i];
+                switch (arg) {
+                    case "--algorithm":
+                        algorithm = value;
+                        break;
+                    case "--heuristic":
+                        heuristic = value;
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "--timeout":
+                        budget = budget.withTimeLimitMs(Long.parseLong(value));
+                        break;
+                    case "--max-nodes":
+                        budget = budget.withMaxNodes(Integer.parseInt(value));
+                        break;
+                    case "--format":
+                        format = BatchSolver.Format.valueOf(value.toUpperCase(Locale.ROOT));
+                        break;
+                    case "--output":
+                        output = value;
+                        break;
+                    case "--save-dir":
+                        saveDir = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            if (inputs.isEmpty()) {
+                throw new IllegalArgumentException("No input given");
+            }
+
+            BatchSolver batch = new BatchSolver(algorithm, heuristic, threads, budget, format);
+            if (saveDir != null) {
+                Path directory = Paths.get(saveDir);
+                Files.createDirectories(directory);
+                batch.setSolutionDirectory(directory);
+            }
+            List<Path> files = new ArrayList<>();
+            for (String input : inputs) {
+                files.addAll(BatchSolver.findFiles(input));
+            }
+
+            int errors;
+            if (output == null) {
+                errors = batch.run(files, System.out);
+            } else {
+                try (PrintStream out = new PrintStream(new FileOutputStream(output), false, "UTF-8")) {
+                    errors = batch.run(files, out);
+                }
+            }
+            System.exit(errors == 0 ? 0 : 1);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(130);
+        }
+    }
+}
@@ -67,6 +67,7 @@ public class RushHourSolverApp extends JFrame {
     private JComboBox<String> heuristicCombo;
     private JButton loadConfigButton;
     private JButton solveButton;
+    private JButton stopButton;
     private JButton restartButton;
     private JButton playButton;
     private JButton prevStepButton;
@@ -91,7 +92,7 @@ public class RushHourSolverApp extends JFrame {
     // Game state and solution data
     private GameState initialGameState;
     private File currentConfigFile;
-    private List<List<String>> solutionSteps;
+    private Solution solution;
     private int currentStepIndex = 0;
     
     public RushHourSolverApp() {
@@ -166,12 +167,12 @@ public class RushHourSolverApp extends JFrame {
         animationTimer = new Timer(500, new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                if (currentStepIndex < solutionSteps.size() - 1) {
+                if (currentStepIndex < solution.getMoveCount()) {
                     currentStepIndex++;
                     updateVisualization();
                     
                     // If we've reached the end, stop the animation
-                    if (currentStepIndex >= solutionSteps.size() - 1) {
+                    if (currentStepIndex >= solution.getMoveCount()) {
                         stopAnimation();
                     }
                 }
@@ -207,7 +208,12 @@ public class RushHourSolverApp extends JFrame {
             "Uniform Cost Search (UCS)",
             "Greedy Best-First Search (GBFS)",
             "A* Search",
-            "Branch and Bound"
+            "Branch and Bound",
+            "Iterative Deepening A* (IDA*)",
+            "Bidirectional BFS",
+            "Parallel A* (HDA*)",
+            "Anytime A* (ARA*)",
+            "Portfolio (first solution)"
         });
         algorithmCombo.setSelectedIndex(0); // Default to UCS
 
@@ -217,17 +223,21 @@ public class RushHourSolverApp extends JFrame {
             "Blocking Pieces",
             "Distance To Exit",
             "Piece Density",
-            "Combined"
+            "Combined",
+            "Pattern Database",
+            "Blocking Chain"
         };
 
         // Add listener to handle algorithm changes
         algorithmCombo.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                boolean isUCS = algorithmCombo.getSelectedItem().toString().contains("UCS");
+                String selected = algorithmCombo.getSelectedItem().toString();
+                boolean isUninformed = selected.contains("UCS") || selected.contains("Bidirectional")
+                    || selected.contains("Portfolio");
                 
-                if (isUCS) {
-                    // For UCS: Disable heuristic selection entirely
+                if (isUninformed) {
+                    // For UCS, bidirectional BFS and the portfolio: Disable heuristic selection entirely
                     heuristicCombo.setEnabled(false);
                     
                     // Create a custom disabled model showing "N/A"
@@ -278,6 +288,19 @@ public class RushHourSolverApp extends JFrame {
         solveButton.setEnabled(false);
         buttonPanel.add(solveButton);
         
+        stopButton = new JButton("Stop");
+        stopButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (currentSolver != null) {
+                    currentSolver.cancel();
+                    statusLabel.setText("Stopping search...");
+                }
+            }
+        });
+        stopButton.setEnabled(false);
+        buttonPanel.add(stopButton);
+        
         playButton = new JButton("Play This Puzzle");
         playButton.addActionListener(new ActionListener() {
             @Override
@@ -395,7 +418,7 @@ public class RushHourSolverApp extends JFrame {
         animationTimer = new Timer(500, new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                if (currentStepIndex < solutionSteps.size() - 1) {
+                if (currentStepIndex < solution.getMoveCount()) {
                     showNextStep();
                 } else {
                     // Stop when we reach the end
@@ -438,8 +461,7 @@ public class RushHourSolverApp extends JFrame {
      * Starts automatic playback of solution steps
      */
     private void startAnimation() {
-        if (solutionSteps == null || solutionSteps.isEmpty() || 
-            currentStepIndex >= solutionSteps.size() - 1) {
+        if (solution == null || currentStepIndex >= solution.getMoveCount()) {
             return;
         }
         
@@ -467,7 +489,7 @@ public class RushHourSolverApp extends JFrame {
         
         // Re-enable navigation buttons as appropriate
         prevStepButton.setEnabled(currentStepIndex > 0);
-        nextStepButton.setEnabled(currentStepIndex < solutionSteps.size() - 1);
+        nextStepButton.setEnabled(currentStepIndex < solution.getMoveCount());
     }
 
     /**
@@ -501,7 +523,7 @@ public class RushHourSolverApp extends JFrame {
                 playButton.setEnabled(true);
                 
                 // Reset solution data
-                solutionSteps = null;
+                solution = null;
                 currentStepIndex = 0;
                 stepLabel.setText("Step 0 of 0");
                 prevStepButton.setEnabled(false);
@@ -551,17 +573,38 @@ public class RushHourSolverApp extends JFrame {
                 case "Piece Density":
                     heuristic = new PieceDensityHeuristic();
                     break;
+                case "Pattern Database":
+                    heuristic = new PatternDatabaseHeuristic();
+                    break;
+                case "Blocking Chain":
+                    heuristic = new BlockingChainHeuristic();
+                    break;
             }
         }
         
         // Create appropriate solver
         if (algorithm.contains("UCS")) {
             solver = new UCSolver();
+        } else if (algorithm.contains("Bidirectional")) {
+            solver = new BidirectionalBFSSolver();
+        } else if (algorithm.contains("Portfolio")) {
+            solver = PortfolioSolver.withDefaultConfigurations();
         } else if (algorithm.contains("GBFS")) {
             // Placeholder until implemented
             solver = new BestFSolver(heuristic);
         } else if (algorithm.contains("A* Search")) {
             solver = new AStarSolver(heuristic);
+        } else if (algorithm.contains("HDA*")) {
+            solver = new ParallelAStarSolver(heuristic);
+        } else if (algorithm.contains("IDA*")) {
+            solver = new IDAStarSolver(heuristic);
+        } else if (algorithm.contains("ARA*")) {
+            AnytimeAStarSolver anytime = new AnytimeAStarSolver(heuristic);
+            // Show each improved solution while the search keeps tightening it
+            anytime.setSolutionListener((goal, bound) -> SwingUtilities.invokeLater(() ->
+                statusLabel.setText(String.format("Found %d moves (at most %.2fx optimal), improving...",
+                    goal.getCost(), bound))));
+            solver = anytime;
         } else {
             solver = new BranchAndBoundSolver(heuristic);
         }
@@ -572,8 +615,13 @@ public class RushHourSolverApp extends JFrame {
             statusLabel.setText("Solving puzzle with " + algorithm);
         }
 
+        // Stop before the search fills the heap instead of running into OutOfMemoryError
+        solver.setBudget(SearchBudget.UNLIMITED
+            .withMaxMemoryBytes(Runtime.getRuntime().maxMemory() / 2));
+
         // Disable UI during solving
         solveButton.setEnabled(false);
+        stopButton.setEnabled(true);
 
         this.currentSolver = solver;
         
@@ -602,26 +650,46 @@ public class RushHourSolverApp extends JFrame {
                 } finally {
                     // Re-enable UI
                     solveButton.setEnabled(true);
+                    stopButton.setEnabled(false);
                 }
             }
         }.execute();
     }
 
+    /**
+     * Describes why a search ended without a solution, or why a best-so-far
+     * solution was not proven optimal
+     * @param status The status of the finished search, or its stop reason
+     * @return A short message for the user
+     */
+    private String describeStopReason(SearchStatus status) {
+        switch (status) {
+            case CANCELLED: return "Search stopped by user.";
+            case NODE_LIMIT: return "Search stopped: node limit reached.";
+            case MEMORY_LIMIT: return "Search stopped: memory limit reached.";
+            case TIMEOUT: return "Search stopped: time limit reached.";
+            default: return "No solution found!";
+        }
+    }
+
     /**
      * Visualize results directly from the solver
      * @param solver The solver with solution results
      */
     private void visualizeSolverResults(Solver solver) {
         // Check if we have a solution
-        List<Node> path = solver.getSolutionPath();
-        boolean hasSolution = path != null && !path.isEmpty();
+        Solution solved = solver.getSolution();
+        boolean hasSolution = solved != null;
         
         // Update statistics display even if no solution found
         algorithmLabel.setText("Algorithm: " + solver.getAlgorithmName());
         
         // Heuristic info
-        if (solver instanceof UCSolver) {
+        if (solver instanceof UCSolver || solver instanceof BidirectionalBFSSolver) {
             heuristicLabel.setText("Heuristic: None");
+        } else if (solver instanceof PortfolioSolver) {
+            PortfolioSolver.MemberResult winner = ((PortfolioSolver)solver).getWinner();
+            heuristicLabel.setText("Winner: " + (winner != null ? winner.getName() : "None"));
         } else if (solver instanceof InformedSolver) {
             heuristicLabel.setText("Heuristic: " + ((InformedSolver)solver).getHeuristic().getName());
         } else {
@@ -634,16 +702,19 @@ public class RushHourSolverApp extends JFrame {
         searchTimeLabel.setText("Search time: " + solver.getExecutionTimeMs() + "ms");
         
         // Solution length only shown if solution exists
-        solutionLengthLabel.setText("Solution length: " + (hasSolution ? (path.size() - 1) + " moves" : "No solution"));
+        solutionLengthLabel.setText("Solution length: " + (hasSolution ? solved.getMoveCount() + " moves" : "No solution"));
         
         if (!hasSolution) {
+            // A partial search says why it stopped; otherwise the puzzle has no solution
+            String outcome = describeStopReason(solver.getStatus());
+            
             // Show message dialog
             JOptionPane.showMessageDialog(this,
-                "No solution found! Explored " + solver.getNodesExplored() + " nodes.",
+                outcome + " Explored " + solver.getNodesExplored() + " nodes.",
                 "No Solution", JOptionPane.INFORMATION_MESSAGE);
             
             // Set status and disable controls
-            statusLabel.setText("No solution found. Explored " + solver.getNodesExplored() + " nodes.");
+            statusLabel.setText(outcome + " Explored " + solver.getNodesExplored() + " nodes.");
             prevStepButton.setEnabled(false);
             nextStepButton.setEnabled(false);
             playPauseButton.setEnabled(false);
@@ -652,16 +723,9 @@ public class RushHourSolverApp extends JFrame {
             saveButton.setEnabled(true);
             
             // Show at least the initial state
-            solutionSteps = new ArrayList<>();
-            GameState initialState = initialGameState;
-            if (initialState != null) {
-                GameLogic.updateBoardGrid(initialState);
-                char[][] grid = initialState.getBoard().getGrid();
-                List<String> boardLines = new ArrayList<>();
-                for (char[] row : grid) {
-                    boardLines.add(new String(row));
-                }
-                solutionSteps.add(boardLines);
+            solution = null;
+            if (initialGameState != null) {
+                solution = new Solution(initialGameState, new int[0], new int[0]);
                 currentStepIndex = 0;
                 updateVisualization();
             }
@@ -670,26 +734,8 @@ public class RushHourSolverApp extends JFrame {
         }
         
         try {
-            // Initialize solution steps list
-            solutionSteps = new ArrayList<>();
-            
-            // Convert each node in path to board representation
-            for (Node node : path) {
-                GameState state = node.getState();
-                
-                // Update game state for board rendering
-                GameLogic.updateBoardGrid(state);
-                
-                // Get text representation of board
-                char[][] grid = state.getBoard().getGrid();
-                List<String> boardLines = new ArrayList<>();
-                for (char[] row : grid) {
-                    boardLines.add(new String(row));
-                }
-                
-                // Add to solution steps
-                solutionSteps.add(boardLines);
-            }
+            // Keep only the moves; each step's board is rebuilt when it is shown
+            solution = solved;
             
             // Show first step
             currentStepIndex = 0;
@@ -697,12 +743,18 @@ public class RushHourSolverApp extends JFrame {
             
             // Enable navigation buttons - only if we have steps
             prevStepButton.setEnabled(false);
-            nextStepButton.setEnabled(solutionSteps.size() > 1);
-            playPauseButton.setEnabled(solutionSteps.size() > 1);
+            nextStepButton.setEnabled(solution.getMoveCount() > 0);
+            playPauseButton.setEnabled(solution.getMoveCount() > 0);
             restartButton.setEnabled(false);
             saveButton.setEnabled(true);
             
-            statusLabel.setText("Solution found: " + solutionSteps.size() + " steps");
+            if (solver.getStatus() == SearchStatus.BEST_SO_FAR) {
+                // The search was cut short, so this is only the best solution it had
+                statusLabel.setText("Best solution so far: " + (solution.getMoveCount() + 1) + " steps, may not be optimal. "
+                    + describeStopReason(solver.getStopReason()));
+            } else {
+                statusLabel.setText("Solution found: " + (solution.getMoveCount() + 1) + " steps");
+            }
             
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this, 
@@ -719,7 +771,7 @@ public class RushHourSolverApp extends JFrame {
             stopAnimation();
         }
         
-        if (solutionSteps != null && currentStepIndex > 0) {
+        if (solution != null && currentStepIndex > 0) {
             currentStepIndex--;
             updateVisualization();
         }
@@ -731,7 +783,7 @@ public class RushHourSolverApp extends JFrame {
             stopAnimation();
         }
         
-        if (solutionSteps != null && currentStepIndex < solutionSteps.size() - 1) {
+        if (solution != null && currentStepIndex < solution.getMoveCount()) {
             currentStepIndex++;
             updateVisualization();
         }
@@ -739,20 +791,18 @@ public class RushHourSolverApp extends JFrame {
     
     private void updateVisualization() {
         // Update the board visualizer with the current step
-        if (solutionSteps != null && !solutionSteps.isEmpty() && 
-            currentStepIndex < solutionSteps.size()) {
+        if (solution != null && currentStepIndex <= solution.getMoveCount()) {
             
-            List<String> currentBoard = solutionSteps.get(currentStepIndex);
-            boardVisualizer.setBoardFromText(currentBoard);
+            boardVisualizer.setGameState(solution.getState(currentStepIndex));
             
             // Update step label
-            stepLabel.setText("Step " + currentStepIndex + " of " + (solutionSteps.size() - 1));
+            stepLabel.setText("Step " + currentStepIndex + " of " + solution.getMoveCount());
             
             // Update navigation buttons
             restartButton.setEnabled(currentStepIndex > 0);  // Only enable if not at start
             prevStepButton.setEnabled(currentStepIndex > 0);
-            nextStepButton.setEnabled(currentStepIndex < solutionSteps.size() - 1);
-            playPauseButton.setEnabled(currentStepIndex < solutionSteps.size() - 1);
+            nextStepButton.setEnabled(currentStepIndex < solution.getMoveCount());
+            playPauseButton.setEnabled(currentStepIndex < solution.getMoveCount());
         }
     }
     
@@ -926,7 +976,7 @@ public class RushHourSolverApp extends JFrame {
         }
         
         // Additional check to make sure we have at least the initial state
-        if (solutionSteps == null || solutionSteps.isEmpty()) {
+        if (solution == null) {
             JOptionPane.showMessageDialog(this,
                 "No board state available to save.",
                 "Save Error", JOptionPane.WARNING_MESSAGE);
@@ -936,12 +986,20 @@ public class RushHourSolverApp extends JFrame {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("Save Solution Report");
         fileChooser.setSelectedFile(new File("rush_hour_solution.txt"));
-        fileChooser.setFileFilter(new FileNameExtensionFilter("Text Files", "txt"));
+        FileNameExtensionFilter textFilter = new FileNameExtensionFilter("Text Files", "txt");
+        FileNameExtensionFilter binaryFilter = new FileNameExtensionFilter("Binary Solution (compact)", "rhs");
+        fileChooser.addChoosableFileFilter(binaryFilter);
+        fileChooser.setFileFilter(textFilter);
         
         int result = fileChooser.showSaveDialog(this);
         if (result == JFileChooser.APPROVE_OPTION) {
             File file = fileChooser.getSelectedFile();
             
+            if (fileChooser.getFileFilter() == binaryFilter || file.getName().toLowerCase().endsWith(".rhs")) {
+                saveBinarySolution(file);
+                return;
+            }
+            
             // Add .txt extension if missing
             if (!file.getName().toLowerCase().endsWith(".txt")) {
                 file = new File(file.getAbsolutePath() + ".txt");
@@ -964,6 +1022,26 @@ public class RushHourSolverApp extends JFrame {
         }
     }
 
+    /**
+     * Saves the puzzle and its moves in the compact binary format.
+     * Without a solution only the puzzle is written (zero moves).
+     */
+    private void saveBinarySolution(File file) {
+        if (!file.getName().toLowerCase().endsWith(".rhs")) {
+            file = new File(file.getAbsolutePath() + ".rhs");
+        }
+        try {
+            SolutionCodec.writeFile(solution, file.toPath());
+            JOptionPane.showMessageDialog(this,
+                "Solution saved to: " + file.getAbsolutePath(),
+                "Save Successful", JOptionPane.INFORMATION_MESSAGE);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this,
+                "Error saving solution: " + e.getMessage(),
+                "Save Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     /**
      * Generates the complete solution report text
      */
@@ -1003,8 +1081,13 @@ public class RushHourSolverApp extends JFrame {
         ).append("\n");
         
         // Heuristic info
-        if (currentSolver instanceof UCSolver) {
+        if (currentSolver instanceof UCSolver || currentSolver instanceof BidirectionalBFSSolver) {
             report.append("Heuristic: None\n");
+        } else if (currentSolver instanceof PortfolioSolver) {
+            PortfolioSolver.MemberResult winner = ((PortfolioSolver)currentSolver).getWinner();
+            report.append("Winning configuration: ")
+                .append(winner != null ? winner.getName() : "None")
+                .append("\n");
         } else if (currentSolver instanceof InformedSolver) {
             report.append("Heuristic: ")
                 .append(((InformedSolver)currentSolver).getHeuristic().getName())
@@ -1012,12 +1095,16 @@ public class RushHourSolverApp extends JFrame {
         }
         
         // Statistics
-        List<Node> path = currentSolver.getSolutionPath();
-        boolean hasSolution = path != null && !path.isEmpty();
+        boolean hasSolution = currentSolver.getSolution() != null;
         
         report.append("Solution: ").append(hasSolution ? "Found" : "Not found").append("\n");
+        report.append("Status: ").append(currentSolver.getStatus()).append("\n");
+        if (currentSolver.getStatus() == SearchStatus.BEST_SO_FAR) {
+            report.append("Stopped early (").append(currentSolver.getStopReason())
+                .append("), the solution may not be optimal\n");
+        }
         if (hasSolution) {
-            report.append("Solution length: ").append(path.size() - 1).append(" moves\n");
+            report.append("Solution length: ").append(solution.getMoveCount()).append(" moves\n");
         }
         report.append("Nodes visited: ").append(currentSolver.getNodesExplored()).append("\n");
         report.append("Maximum frontier size: ").append(currentSolver.getMaxQueueSize()).append("\n");
@@ -1033,101 +1120,95 @@ public class RushHourSolverApp extends JFrame {
             report.append("=============\n\n");
             
             // Get move descriptions and board states
-            for (int i = 0; i < path.size(); i++) {
-                Node node = path.get(i);
+            for (int i = 0; i <= solution.getMoveCount(); i++) {
                 report.append("Step ").append(i).append(": ");
                 
                 // Add move description
-                if (i > 0 && node.getMoveMade() != null) {
-                    report.append(node.getMoveMade());
-                } else if (i == 0) {
+                if (i == 0) {
                     report.append("Initial state");
                 } else {
-                    report.append("Move to next state");
+                    report.append(solution.describeMove(i - 1));
                 }
                 report.append("\n\n");
                 
                 // Add board representation with exit marker
-                if (i < solutionSteps.size()) {
-                    List<String> boardLines = new ArrayList<>();
-                    int rows = solutionSteps.get(i).size();
-                    int cols = 0;
-                    
-                    // Determine max column width and copy board lines
-                    for (String line : solutionSteps.get(i)) {
-                        cols = Math.max(cols, line.length());
-                        boardLines.add(line);
-                    }
-                    
-                    // Pad all lines to the same length
-                    for (int lineIdx = 0; lineIdx < boardLines.size(); lineIdx++) {
-                        String line = boardLines.get(lineIdx);
-                        if (line.length() < cols) {
-                            boardLines.set(lineIdx, line + " ".repeat(cols - line.length()));
-                        }
+                List<String> boardLines = toBoardLines(solution.getState(i));
+                int rows = boardLines.size();
+                int cols = 0;
+                
+                // Determine max column width
+                for (String line : boardLines) {
+                    cols = Math.max(cols, line.length());
+                }
+                
+                // Pad all lines to the same length
+                for (int lineIdx = 0; lineIdx < boardLines.size(); lineIdx++) {
+                    String line = boardLines.get(lineIdx);
+                    if (line.length() < cols) {
+                        boardLines.set(lineIdx, line + " ".repeat(cols - line.length()));
                     }
-                    
-                    // Create a new board with exit marker
-                    List<String> finalBoard = new ArrayList<>();
-                    
-                    // Handle top exit
-                    if (exitSide == 0) {
-                        // Add a row with the exit marker
-                        StringBuilder topExitLine = new StringBuilder(" ".repeat(cols));
-                        if (exitX >= 0 && exitX < cols) {
-                            topExitLine.setCharAt(exitX, exitMarker);
-                        }
-                        finalBoard.add(topExitLine.toString());
+                }
+                
+                // Create a new board with exit marker
+                List<String> finalBoard = new ArrayList<>();
+                
+                // Handle top exit
+                if (exitSide == 0) {
+                    // Add a row with the exit marker
+                    StringBuilder topExitLine = new StringBuilder(" ".repeat(cols));
+                    if (exitX >= 0 && exitX < cols) {
+                        topExitLine.setCharAt(exitX, exitMarker);
                     }
+                    finalBoard.add(topExitLine.toString());
+                }
+                
+                // Add main board rows with side exits if needed
+                for (int row = 0; row < rows; row++) {
+                    StringBuilder newLine = new StringBuilder();
                     
-                    // Add main board rows with side exits if needed
-                    for (int row = 0; row < rows; row++) {
-                        StringBuilder newLine = new StringBuilder();
-                        
-                        // Add left exit if needed or space for alignment
-                        if (exitSide == 3) {
-                            if (row == exitY) {
-                                newLine.append(exitMarker);
-                            } else {
-                                newLine.append(" "); // Add space for rows without exit
-                            }
-                        }
-                        
-                        // Add the board line
-                        newLine.append(boardLines.get(row));
-                        
-                        // Add right exit if needed
-                        if (exitSide == 1 && row == exitY) {
+                    // Add left exit if needed or space for alignment
+                    if (exitSide == 3) {
+                        if (row == exitY) {
                             newLine.append(exitMarker);
+                        } else {
+                            newLine.append(" "); // Add space for rows without exit
                         }
-                        
-                        finalBoard.add(newLine.toString());
                     }
                     
-                    // Handle bottom exit
-                    if (exitSide == 2) {
-                        // Add a row with the exit marker
-                        StringBuilder bottomExitLine = new StringBuilder(" ".repeat(cols));
-                        if (exitX >= 0 && exitX < cols) {
-                            bottomExitLine.setCharAt(exitX, exitMarker);
-                        }
-                        finalBoard.add(bottomExitLine.toString());
+                    // Add the board line
+                    newLine.append(boardLines.get(row));
+                    
+                    // Add right exit if needed
+                    if (exitSide == 1 && row == exitY) {
+                        newLine.append(exitMarker);
                     }
                     
-                    // Print the final board
-                    for (String line : finalBoard) {
-                        report.append(line).append("\n");
+                    finalBoard.add(newLine.toString());
+                }
+                
+                // Handle bottom exit
+                if (exitSide == 2) {
+                    // Add a row with the exit marker
+                    StringBuilder bottomExitLine = new StringBuilder(" ".repeat(cols));
+                    if (exitX >= 0 && exitX < cols) {
+                        bottomExitLine.setCharAt(exitX, exitMarker);
                     }
-                    report.append("\n");
+                    finalBoard.add(bottomExitLine.toString());
+                }
+                
+                // Print the final board
+                for (String line : finalBoard) {
+                    report.append(line).append("\n");
                 }
+                report.append("\n");
             }
         } else {
             report.append("No solution found.\n");
-            if (!solutionSteps.isEmpty()) {
+            if (solution != null) {
                 report.append("Initial state:\n\n");
                 
                 // Use the same formatting for the initial state when no solution
-                List<String> boardLines = new ArrayList<>(solutionSteps.get(0));
+                List<String> boardLines = toBoardLines(solution.getInitialState());
                 int rows = boardLines.size();
                 int cols = 0;
                 
@@ -1199,6 +1280,23 @@ public class RushHourSolverApp extends JFrame {
         return report.toString();
     }
     
+    /**
+     * Text rows of a state's board, read straight from the piece positions
+     * so the state does not cache a Board grid.
+     */
+    private static List<String> toBoardLines(GameState state) {
+        PuzzleLayout layout = state.getLayout();
+        List<String> lines = new ArrayList<>(layout.getRows());
+        char[] row = new char[layout.getCols()];
+        for (int y = 0; y < layout.getRows(); y++) {
+            for (int x = 0; x < layout.getCols(); x++) {
+                row[x] = state.getCellLabel(x, y);
+            }
+            lines.add(new String(row));
+        }
+        return lines;
+    }
+    
     public static void main(String[] args) {
         SwingUtilities.invokeLater(new Runnable() {
             @Override
@@ -1,9 +1,7 @@
 package logic;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Kelas GameLogic buat mengatur operasi logika permainan.
@@ -17,25 +15,13 @@ public class GameLogic {
      * @return Salinan GameState baru
      */
     public static GameState copyGameState(GameState gameState) {
-        Board boardCopy = gameState.getBoard(); // Board is immutable
-
-        // Copy pieces
-        Map<Character, GameState.PieceState> piecesCopy = new HashMap<>();
-        for (Map.Entry<Character, GameState.PieceState> entry :
-            gameState.getPieces().entrySet()) {
-            GameState.PieceState ps = entry.getValue();
-            piecesCopy.put(entry.getKey(),
-                new GameState.PieceState(
-                    ps.getPiece().copy(), ps.getX(), ps.getY()));
+        // Layout dishare, posisi Block disalin
+        PuzzleLayout layout = gameState.getLayout();
+        short[] positions = new short[layout.getPieceCount()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = (short) gameState.getPosition(i);
         }
-
-        // Copy primary piece
-        GameState.PieceState primaryPS = gameState.getPrimaryPieceState();
-        GameState.PieceState primaryPSCopy = new GameState.PieceState(
-            ((PrimaryPiece) primaryPS.getPiece()).copy(), primaryPS.getX(),
-            primaryPS.getY());
-
-        return new GameState(boardCopy, piecesCopy, primaryPSCopy);
+        return new GameState(layout, positions);
     }
 
     /**
@@ -48,24 +34,16 @@ public class GameLogic {
      */
     public static GameState movePiece(
         GameState gameState, char pieceLabel, int direction) {
-        GameState.PieceState pieceState;
-        boolean isPrimary = false;
-
-        // Check if it's the primary piece
-        if (gameState.getPrimaryPieceState().getPiece().getLabel()
-            == pieceLabel) {
-            pieceState = gameState.getPrimaryPieceState();
-            isPrimary = true;
-        } else {
-            pieceState = gameState.getPieces().get(pieceLabel);
-            if (pieceState == null) {
-                return null; // Piece not found
-            }
+        PuzzleLayout layout = gameState.getLayout();
+        int pieceIndex = layout.indexOf(pieceLabel);
+        if (pieceIndex < 0) {
+            return null; // Piece not found
         }
+        boolean isPrimary = pieceIndex == PuzzleLayout.PRIMARY_INDEX;
 
-        Piece piece = pieceState.getPiece();
-        int currentX = pieceState.getX();
-        int currentY = pieceState.getY();
+        Piece piece = layout.getPiece(pieceIndex);
+        int currentX = gameState.getPieceX(pieceIndex);
+        int currentY = gameState.getPieceY(pieceIndex);
         int newX = currentX;
         int newY = currentY;
 
@@ -91,12 +69,11 @@ public class GameLogic {
         }
     
         // Get board information
-        Board board = gameState.getBoard();
-        int boardWidth = board.getGrid()[0].length;
-        int boardHeight = board.getGrid().length;
-        int exitSide = board.getExitSide();
-        int exitX = board.getOutCoordX();
-        int exitY = board.getOutCoordY();
+        int boardWidth = layout.getCols();
+        int boardHeight = layout.getRows();
+        int exitSide = layout.getExitSide();
+        int exitX = layout.getExitX();
+        int exitY = layout.getExitY();
         
         // Check if the primary piece can exit through any side
         boolean canExit = false;
@@ -153,7 +130,8 @@ public class GameLogic {
         }
 
         // Create a new game state with the updated position
-        return createNewStateWithMovedPiece(gameState, pieceLabel, newX, newY);
+        return gameState.withPiecePosition(pieceIndex,
+            piece.isHorizontal() ? newX : newY);
     }
 
     /**
@@ -215,90 +193,6 @@ public class GameLogic {
         return gameState.wouldCollide(pieceLabel, newX, newY);
     }
 
-    /**
-     * Create a new GameState with an updated piece position.
-     *
-     * @param gameState Current game state
-     * @param pieceLabel Label of the piece to move
-     * @param newX New X coordinate
-     * @param newY New Y coordinate
-     * @return New GameState with the piece moved
-     */
-    private static GameState createNewStateWithMovedPiece(
-        GameState gameState, char pieceLabel, int newX, int newY) {
-        Board originalBoard = gameState.getBoard();
-        char[][] originalGrid = originalBoard.getGrid();
-
-        // Create a new grid with the same dimensions
-        int rows = originalGrid.length;
-        int cols = originalGrid[0].length;
-        char[][] newGrid = new char[rows][cols];
-
-        // Copy grid values
-        for (int i = 0; i < rows; i++) {
-            System.arraycopy(originalGrid[i], 0, newGrid[i], 0, cols);
-        }
-
-        // Create a new board with the copied grid
-        Board boardCopy = new Board(rows, cols, originalBoard.getOutCoordX(),
-            originalBoard.getOutCoordY(), originalBoard.getExitSide());
-
-        // Copy all pieces
-        Map<Character, GameState.PieceState> piecesCopy = new HashMap<>();
-        for (Map.Entry<Character, GameState.PieceState> entry :
-            gameState.getPieces().entrySet()) {
-            GameState.PieceState ps = entry.getValue();
-            if (ps.getPiece().getLabel() == pieceLabel) {
-                // Update this piece's position
-                piecesCopy.put(entry.getKey(),
-                    new GameState.PieceState(ps.getPiece().copy(), newX, newY));
-            } else {
-                // Copy unchanged
-                piecesCopy.put(entry.getKey(),
-                    new GameState.PieceState(
-                        ps.getPiece().copy(), ps.getX(), ps.getY()));
-            }
-        }
-
-        // Handle primary piece separately
-        GameState.PieceState primaryPS = gameState.getPrimaryPieceState();
-        GameState.PieceState primaryPSCopy;
-
-        if (primaryPS.getPiece().getLabel() == pieceLabel) {
-            // Update primary piece position - correctly handle the PrimaryPiece
-            // casting
-            Piece originalPiece = primaryPS.getPiece();
-            // Check if it's actually a PrimaryPiece before casting
-            if (originalPiece instanceof PrimaryPiece) {
-                primaryPSCopy = new GameState.PieceState(
-                    ((PrimaryPiece) originalPiece).copy(), newX, newY);
-            } else {
-                // Fallback if it's not a PrimaryPiece for some reason
-                primaryPSCopy =
-                    new GameState.PieceState(originalPiece.copy(), newX, newY);
-            }
-        } else {
-            // Copy unchanged - correctly handle the PrimaryPiece casting
-            Piece originalPiece = primaryPS.getPiece();
-            // Check if it's actually a PrimaryPiece before casting
-            if (originalPiece instanceof PrimaryPiece) {
-                primaryPSCopy =
-                    new GameState.PieceState(((PrimaryPiece) originalPiece).copy(),
-                        primaryPS.getX(), primaryPS.getY());
-            } else {
-                // Fallback if it's not a PrimaryPiece for some reason
-                primaryPSCopy = new GameState.PieceState(
-                    originalPiece.copy(), primaryPS.getX(), primaryPS.getY());
-            }
-        }
-        GameState newState = new GameState(boardCopy, piecesCopy, primaryPSCopy);
-
-        // Update the board grid to reflect the new piece positions
-        updateBoardGrid(newState);
-
-        return newState;
-    }
-
     private static void placePieceOnGrid(
         char[][] grid, GameState.PieceState pieceState) {
         Piece piece = pieceState.getPiece();
@@ -357,129 +251,84 @@ public class GameLogic {
      */
     public static List<Node> generateSuccessors(
         Node currentNode, solver.heuristic.Heuristic heuristic) {
-        List<Node> successors = new ArrayList<>();
         GameState currentState = currentNode.getState();
+        MoveBuffer moves = new MoveBuffer();
+        expandSuccessors(currentState, moves);
+
+        List<Node> successors = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            int pieceIndex = moves.getPieceIndex(i);
+            GameState newState =
+                currentState.withPiecePosition(pieceIndex, moves.getPosition(i));
+
+            // Calculate heuristic if provided
+            int heuristicValue = 0;
+            if (heuristic != null) {
+                heuristicValue = heuristic.calculate(newState);
+            }
 
-        // Get all pieces including the primary piece
-        Map<Character, GameState.PieceState> allPieces =
-            new HashMap<>(currentState.getPieces());
-        GameState.PieceState primaryState = currentState.getPrimaryPieceState();
-        char primaryLabel = primaryState.getPiece().getLabel();
-        allPieces.put(primaryLabel, primaryState);
-
-        // For each piece, try all possible sliding moves
-        for (Map.Entry<Character, GameState.PieceState> entry :
-            allPieces.entrySet()) {
-            char label = entry.getKey();
-            GameState.PieceState pieceState = entry.getValue();
-            Piece piece = pieceState.getPiece();
-            int currentX = pieceState.getX();
-            int currentY = pieceState.getY();
+            // Create new node with updated cost and heuristic
+            successors.add(new Node(newState, currentNode,
+                currentNode.getCost() + 1, // Increment cost by 1
+                heuristicValue, pieceIndex));
+        }
 
-            if (piece.isHorizontal()) {
-                // Try all horizontal positions
-                // Move left until blocked
-                for (int x = currentX - 1; x >= 0; x--) {
-                    if (wouldCollide(currentState, label, x, currentY)) {
-                        break; // Stop if collision detected
-                    }
-                    GameState newState = createNewStateWithMovedPiece(
-                        currentState, label, x, currentY);
-                    String moveDesc =
-                        "Move " + label + " left to (" + x + "," + currentY + ")";
-
-                    // Calculate heuristic if provided
-                    int heuristicValue = 0;
-                    if (heuristic != null) {
-                        heuristicValue = heuristic.calculate(newState);
-                    }
-
-                    // Create new node with updated cost and heuristic
-                    Node successor = new Node(newState, currentNode,
-                        currentNode.getCost() + 1, // Increment cost by 1
-                        heuristicValue, moveDesc);
-                    successors.add(successor);
-                }
+        return successors;
+    }
 
-                // Move right until blocked
-                Board board = currentState.getBoard();
-                int boardWidth = board.getGrid()[0].length;
-                int maxX = boardWidth - piece.getSize();
-                for (int x = currentX + 1; x <= maxX; x++) {
-                    if (wouldCollide(currentState, label, x, currentY)) {
-                        break; // Stop if collision detected
-                    }
-                    GameState newState = createNewStateWithMovedPiece(
-                        currentState, label, x, currentY);
-                    String moveDesc =
-                        "Move " + label + " right to (" + x + "," + currentY + ")";
-
-                    // Calculate heuristic if provided
-                    int heuristicValue = 0;
-                    if (heuristic != null) {
-                        heuristicValue = heuristic.calculate(newState);
-                    }
-
-                    // Create new node with updated cost and heuristic
-                    Node successor = new Node(newState, currentNode,
-                        currentNode.getCost() + 1, // Increment cost by 1
-                        heuristicValue, moveDesc);
-                    successors.add(successor);
-                }
-            } else {
-                // Try all vertical positions
-                // Move up until blocked
-                for (int y = currentY - 1; y >= 0; y--) {
-                    if (wouldCollide(currentState, label, currentX, y)) {
-                        break; // Stop if collision detected
-                    }
-                    GameState newState = createNewStateWithMovedPiece(
-                        currentState, label, currentX, y);
-                    String moveDesc =
-                        "Move " + label + " up to (" + currentX + "," + y + ")";
-
-                    // Calculate heuristic if provided
-                    int heuristicValue = 0;
-                    if (heuristic != null) {
-                        heuristicValue = heuristic.calculate(newState);
-                    }
-
-                    // Create new node with updated cost and heuristic
-                    Node successor = new Node(newState, currentNode,
-                        currentNode.getCost() + 1, // Increment cost by 1
-                        heuristicValue, moveDesc);
-                    successors.add(successor);
-                }
+    /**
+     * Ngisi buffer dengan semua gerakan geser yang valid dari sebuah state.
+     * Tiap gerakan (geser sejauh berapa pun) dihitung satu langkah.
+     * Urutannya: per Block (Block utama dulu), geser kiri/atas dari yang
+     * terdekat, lalu kanan/bawah dari yang terdekat.
+     *
+     * Nggak ada Node, GameState, atau String yang dibikin di sini. Jarak geser
+     * maksimal tiap Block diambil langsung dari bitboard occupancy state.
+     *
+     * @param state State yang mau diekspansi
+     * @param moves Buffer milik pemanggil, isinya dihapus dulu sebelum diisi
+     */
+    public static void expandSuccessors(GameState state, MoveBuffer moves) {
+        moves.clear();
+        int pieceCount = state.getLayout().getPieceCount();
 
-                // Move down until blocked
-                Board board = currentState.getBoard();
-                int boardHeight = board.getGrid().length;
-                int maxY = boardHeight - piece.getSize();
-                for (int y = currentY + 1; y <= maxY; y++) {
-                    if (wouldCollide(currentState, label, currentX, y)) {
-                        break; // Stop if collision detected
-                    }
-                    GameState newState = createNewStateWithMovedPiece(
-                        currentState, label, currentX, y);
-                    String moveDesc =
-                        "Move " + label + " down to (" + currentX + "," + y + ")";
-
-                    // Calculate heuristic if provided
-                    int heuristicValue = 0;
-                    if (heuristic != null) {
-                        heuristicValue = heuristic.calculate(newState);
-                    }
-
-                    // Create new node with updated cost and heuristic
-                    Node successor = new Node(newState, currentNode,
-                        currentNode.getCost() + 1, // Increment cost by 1
-                        heuristicValue, moveDesc);
-                    successors.add(successor);
-                }
+        for (int index = 0; index < pieceCount; index++) {
+            int position = state.getPosition(index);
+
+            // Geser ke kiri/atas sampai nabrak
+            int minPosition = state.getMinSlidePosition(index);
+            for (int p = position - 1; p >= minPosition; p--) {
+                moves.add(index, p);
+            }
+
+            // Geser ke kanan/bawah sampai nabrak
+            int maxPosition = state.getMaxSlidePosition(index);
+            for (int p = position + 1; p <= maxPosition; p++) {
+                moves.add(index, p);
             }
         }
+    }
 
-        return successors;
+    /**
+     * Bikin deskripsi gerakan dari dua state yang beda satu Block.
+     * Dipanggil lazy, cuma buat Node yang ada di jalur solusi.
+     *
+     * @param from State sebelum gerakan
+     * @param to State sesudah gerakan
+     * @param pieceIndex Index Block yang digerakkan
+     * @return Deskripsi gerakan, misalnya "Move C up to (3,0)"
+     */
+    public static String describeMove(GameState from, GameState to, int pieceIndex) {
+        Piece piece = to.getLayout().getPiece(pieceIndex);
+        boolean forward = to.getPosition(pieceIndex) > from.getPosition(pieceIndex);
+        String direction;
+        if (piece.isHorizontal()) {
+            direction = forward ? "right" : "left";
+        } else {
+            direction = forward ? "down" : "up";
+        }
+        return "Move " + piece.getLabel() + " " + direction + " to ("
+            + to.getPieceX(pieceIndex) + "," + to.getPieceY(pieceIndex) + ")";
     }
 
     /**
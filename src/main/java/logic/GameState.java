@@ -1,5 +1,7 @@
 package logic;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -8,11 +10,33 @@ import java.util.Objects;
 /**
  * Kelas GameState ini buat nampung keadaan permainan.
  * Menyimpan papan dan semua Block yang ada dalam permainan.
+ *
+ * State disimpan secara compact: metadata Block dishare lewat PuzzleLayout,
+ * dan tiap state cuma nyimpen posisi tiap Block di sumbu geraknya.
+ * Board dan Map PieceState baru dibikin kalau diminta.
  */
 public class GameState {
-    private final Board board;
-    private final Map<Character, PieceState> pieces;
-    private final PieceState primaryPieceState;
+    private final PuzzleLayout layout;
+    private final short[] positions;
+
+    // Bitboard occupancy. Papan <= 64 sel pakai dua long: baris-major buat
+    // geser horizontal dan kolom-major buat geser vertikal. Papan yang lebih
+    // besar pakai array long baris-major (bit y * cols + x), jadi sel satu
+    // baris bersebelahan dan geser horizontal bisa discan per word.
+    // Nggak final biar MutableGameState bisa mindahin Block di tempat.
+    private long rowOccupancy;
+    private long columnOccupancy;
+    private final long[] occupancyWords;
+
+    // Hash Zobrist dan kunci pack, dua-duanya diupdate O(1) tiap kali satu
+    // Block dipindah. Kunci pack 0 kalau layout nggak muat dipack.
+    private long zobristHash;
+    private long packedKey;
+
+    // Representasi lama, dibikin lazy buat GUI dan pemanggil lain
+    private Board board;
+    private Map<Character, PieceState> pieces;
+    private PieceState primaryPieceState;
 
     /**
      * Class representing a piece's state including its position
@@ -112,6 +136,24 @@ public class GameState {
      * @param primaryPieceState PieceState dari Block utama
      */
     public GameState(Board board, Map<Character, PieceState> pieces, PieceState primaryPieceState) {
+        this(createLayout(board, pieces.values(), primaryPieceState), board, pieces, primaryPieceState);
+    }
+
+    private GameState(PuzzleLayout layout, Board board, Map<Character, PieceState> pieces,
+                      PieceState primaryPieceState) {
+        this.layout = layout;
+        this.positions = new short[layout.getPieceCount()];
+        for (int i = 0; i < positions.length; i++) {
+            PieceState ps = i == PuzzleLayout.PRIMARY_INDEX
+                ? primaryPieceState
+                : pieces.get(layout.getPiece(i).getLabel());
+            positions[i] = (short) (layout.getPiece(i).isHorizontal() ? ps.getX() : ps.getY());
+        }
+        this.rowOccupancy = computeOccupancy(layout, positions, false);
+        this.columnOccupancy = computeOccupancy(layout, positions, true);
+        this.occupancyWords = computeOccupancyWords(layout, positions);
+        this.zobristHash = layout.zobristHash(positions);
+        this.packedKey = layout.isPackable() ? layout.pack(positions) : 0L;
         this.board = board;
         this.pieces = pieces;
         this.primaryPieceState = primaryPieceState;
@@ -131,24 +173,435 @@ public class GameState {
     public GameState(Board board, List<Piece> pieces, List<Integer> positionsX, 
                     List<Integer> positionsY, PrimaryPiece primaryPiece, 
                     int primaryX, int primaryY) {
-        this.board = board;
-        
-        // Convert lists to map with positions
-        this.pieces = new HashMap<>();
+        this(board, toPieceStateMap(pieces, positionsX, positionsY),
+             new PieceState(primaryPiece, primaryX, primaryY));
+    }
+
+    /**
+     * Bikin GameState compact langsung dari layout dan posisi.
+     * Array posisi dipake langsung, jadi jangan diubah lagi setelah ini.
+     * 
+     * @param layout Metadata puzzle yang dishare
+     * @param positions Posisi tiap Block di sumbu geraknya
+     */
+    GameState(PuzzleLayout layout, short[] positions) {
+        this(layout, positions, computeOccupancy(layout, positions, false),
+             computeOccupancy(layout, positions, true), computeOccupancyWords(layout, positions),
+             layout.zobristHash(positions), layout.isPackable() ? layout.pack(positions) : 0L);
+    }
+
+    private GameState(PuzzleLayout layout, short[] positions, long rowOccupancy,
+                      long columnOccupancy, long[] occupancyWords, long zobristHash,
+                      long packedKey) {
+        this.layout = layout;
+        this.positions = positions;
+        this.rowOccupancy = rowOccupancy;
+        this.columnOccupancy = columnOccupancy;
+        this.occupancyWords = occupancyWords;
+        this.zobristHash = zobristHash;
+        this.packedKey = packedKey;
+    }
+
+    private static long computeOccupancy(PuzzleLayout layout, short[] positions, boolean columnMajor) {
+        if (!layout.isSingleWord()) {
+            return 0L;
+        }
+        long occupancy = 0L;
+        for (int i = 0; i < positions.length; i++) {
+            occupancy |= columnMajor
+                ? layout.getColumnMask(i, positions[i])
+                : layout.getRowMask(i, positions[i]);
+        }
+        return occupancy;
+    }
+
+    private static long[] computeOccupancyWords(PuzzleLayout layout, short[] positions) {
+        if (layout.isSingleWord()) {
+            return null;
+        }
+        long[] words = new long[layout.getBoardWords()];
+        for (int i = 0; i < positions.length; i++) {
+            setPieceCells(layout, words, i, positions[i], true);
+        }
+        return words;
+    }
+
+    /**
+     * Nyalain atau matiin bit sel-sel Block di bitboard multi-word.
+     */
+    private static void setPieceCells(PuzzleLayout layout, long[] words, int index,
+                                      int position, boolean occupied) {
+        Piece piece = layout.getPiece(index);
+        int fixed = layout.getFixedCoord(index);
+        int cols = layout.getCols();
+        for (int c = 0; c < piece.getSize(); c++) {
+            int x = piece.isHorizontal() ? position + c : fixed;
+            int y = piece.isHorizontal() ? fixed : position + c;
+            if (x >= 0 && x < cols && y >= 0 && y < layout.getRows()) {
+                int cell = y * cols + x;
+                if (occupied) {
+                    words[cell >>> 6] |= 1L << cell;
+                } else {
+                    words[cell >>> 6] &= ~(1L << cell);
+                }
+            }
+        }
+    }
+
+    private static Map<Character, PieceState> toPieceStateMap(List<Piece> pieces,
+            List<Integer> positionsX, List<Integer> positionsY) {
+        Map<Character, PieceState> map = new HashMap<>();
         for (int i = 0; i < pieces.size(); i++) {
             Piece piece = pieces.get(i);
-            this.pieces.put(piece.getLabel(), new PieceState(piece, positionsX.get(i), positionsY.get(i)));
+            map.put(piece.getLabel(), new PieceState(piece, positionsX.get(i), positionsY.get(i)));
         }
-        
-        this.primaryPieceState = new PieceState(primaryPiece, primaryX, primaryY);
+        return map;
     }
-    
+
+    /**
+     * Bikin PuzzleLayout dari representasi lama. Block utama ditaruh di index 0,
+     * sisanya diurutkan berdasarkan label biar urutannya deterministik.
+     */
+    private static PuzzleLayout createLayout(Board board, Collection<PieceState> others,
+                                             PieceState primary) {
+        PieceState[] sorted = others.toArray(new PieceState[0]);
+        Arrays.sort(sorted, (a, b) -> Character.compare(a.getPiece().getLabel(), b.getPiece().getLabel()));
+
+        Piece[] layoutPieces = new Piece[sorted.length + 1];
+        int[] fixedCoords = new int[sorted.length + 1];
+        layoutPieces[PuzzleLayout.PRIMARY_INDEX] = primary.getPiece();
+        fixedCoords[PuzzleLayout.PRIMARY_INDEX] =
+            primary.getPiece().isHorizontal() ? primary.getY() : primary.getX();
+        for (int i = 0; i < sorted.length; i++) {
+            layoutPieces[i + 1] = sorted[i].getPiece();
+            fixedCoords[i + 1] = sorted[i].getPiece().isHorizontal() ? sorted[i].getY() : sorted[i].getX();
+        }
+
+        char[][] grid = board.getGrid();
+        return new PuzzleLayout(grid.length, grid[0].length, board.getOutCoordX(),
+            board.getOutCoordY(), board.getExitSide(), layoutPieces, fixedCoords);
+    }
+
+    /**
+     * Mengambil metadata puzzle yang dishare semua state.
+     * 
+     * @return Layout puzzle
+     */
+    public PuzzleLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Mengambil posisi Block di sumbu geraknya (X buat horizontal, Y buat vertikal).
+     * 
+     * @param index Index Block di layout
+     * @return Posisi Block
+     */
+    public int getPosition(int index) {
+        return positions[index];
+    }
+
+    /**
+     * Mengambil koordinat X ujung kiri atas Block.
+     * 
+     * @param index Index Block di layout
+     * @return Koordinat X
+     */
+    public int getPieceX(int index) {
+        return layout.getPiece(index).isHorizontal() ? positions[index] : layout.getFixedCoord(index);
+    }
+
+    /**
+     * Mengambil koordinat Y ujung kiri atas Block.
+     * 
+     * @param index Index Block di layout
+     * @return Koordinat Y
+     */
+    public int getPieceY(int index) {
+        return layout.getPiece(index).isHorizontal() ? layout.getFixedCoord(index) : positions[index];
+    }
+
+    /**
+     * Bikin state baru dengan satu Block dipindah. Layout dishare, cuma array
+     * posisi yang disalin, dan bitboard serta hash Zobrist diupdate dari
+     * nilai state ini.
+     * 
+     * @param index Index Block yang dipindah
+     * @param newPosition Posisi baru di sumbu geraknya
+     * @return GameState baru
+     */
+    public GameState withPiecePosition(int index, int newPosition) {
+        int oldPosition = positions[index];
+        short[] newPositions = positions.clone();
+        newPositions[index] = (short) newPosition;
+        long hash = getZobristHashAfterMove(index, newPosition);
+        long packed = layout.isPackable()
+            ? packedKey + layout.packDelta(index, oldPosition, newPosition)
+            : 0L;
+
+        if (layout.isSingleWord()) {
+            long rows = rowOccupancy ^ layout.getRowMask(index, oldPosition)
+                | layout.getRowMask(index, newPosition);
+            long columns = columnOccupancy ^ layout.getColumnMask(index, oldPosition)
+                | layout.getColumnMask(index, newPosition);
+            return new GameState(layout, newPositions, rows, columns, null, hash, packed);
+        }
+
+        long[] words = occupancyWords.clone();
+        setPieceCells(layout, words, index, oldPosition, false);
+        setPieceCells(layout, words, index, newPosition, true);
+        return new GameState(layout, newPositions, 0L, 0L, words, hash, packed);
+    }
+
+    /**
+     * Bikin state baru di layout yang sama dengan posisi semua Block diganti.
+     * Bitboard dan hash dihitung ulang dari nol, jadi posisinya boleh beda
+     * jauh dari state ini. Tabrakan antar Block nggak dicek.
+     * 
+     * @param newPositions Posisi tiap Block di sumbu geraknya, urut index layout
+     * @return GameState baru
+     */
+    public GameState withPiecePositions(int[] newPositions) {
+        if (newPositions.length != positions.length) {
+            throw new IllegalArgumentException("Expected " + positions.length
+                + " positions, got " + newPositions.length);
+        }
+        short[] copy = new short[newPositions.length];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = (short) newPositions[i];
+        }
+        return new GameState(layout, copy);
+    }
+
+    /**
+     * Mindahin satu Block langsung di state ini, tanpa bikin objek baru.
+     * Cuma buat MutableGameState; GameState biasa tetap dianggap immutable.
+     * 
+     * @param index Index Block yang dipindah
+     * @param newPosition Posisi baru di sumbu geraknya
+     */
+    void movePieceInPlace(int index, int newPosition) {
+        int oldPosition = positions[index];
+        zobristHash = getZobristHashAfterMove(index, newPosition);
+        if (layout.isPackable()) {
+            packedKey += layout.packDelta(index, oldPosition, newPosition);
+        }
+        if (layout.isSingleWord()) {
+            rowOccupancy = rowOccupancy ^ layout.getRowMask(index, oldPosition)
+                | layout.getRowMask(index, newPosition);
+            columnOccupancy = columnOccupancy ^ layout.getColumnMask(index, oldPosition)
+                | layout.getColumnMask(index, newPosition);
+        } else {
+            setPieceCells(layout, occupancyWords, index, oldPosition, false);
+            setPieceCells(layout, occupancyWords, index, newPosition, true);
+        }
+        positions[index] = (short) newPosition;
+
+        // Representasi lama udah basi, dibikin ulang kalau diminta lagi
+        board = null;
+        pieces = null;
+        primaryPieceState = null;
+    }
+
+    /**
+     * Mengambil hash Zobrist 64-bit state ini. Dua state yang sama selalu punya
+     * hash yang sama, dan peluang dua state berbeda punya hash sama sekitar 2^-64,
+     * jadi hash ini bisa langsung dipake sebagai kunci closed set.
+     * 
+     * @return Hash Zobrist
+     */
+    public long getZobristHash() {
+        return zobristHash;
+    }
+
+    /**
+     * Ngitung hash Zobrist state yang bakal dihasilkan kalau satu Block
+     * dipindah, tanpa bikin GameState baru.
+     * 
+     * @param index Index Block yang dipindah
+     * @param newPosition Posisi baru di sumbu geraknya
+     * @return Hash Zobrist state anak
+     */
+    public long getZobristHashAfterMove(int index, int newPosition) {
+        return zobristHash ^ layout.getZobristKey(index, positions[index])
+            ^ layout.getZobristKey(index, newPosition);
+    }
+
+    /**
+     * Nyari posisi paling kecil yang bisa dicapai Block dengan satu geseran
+     * ke kiri/atas tanpa nabrak Block lain.
+     * 
+     * @param index Index Block
+     * @return Posisi minimal, sama dengan posisi sekarang kalau nggak bisa geser
+     */
+    public int getMinSlidePosition(int index) {
+        int position = positions[index];
+        if (position <= 0) {
+            return position;
+        }
+        if (layout.isSingleWord()) {
+            long below = lineOccupancy(index) & ((1L << position) - 1);
+            return below == 0 ? 0 : 64 - Long.numberOfLeadingZeros(below);
+        }
+
+        if (layout.getPiece(index).isHorizontal()) {
+            int rowStart = layout.getFixedCoord(index) * layout.getCols();
+            int blocked = previousSetBit(occupancyWords, rowStart + position - 1, rowStart);
+            return blocked < 0 ? 0 : blocked - rowStart + 1;
+        }
+        int p = position - 1;
+        while (p >= 0 && !isColumnCellOccupied(index, p)) {
+            p--;
+        }
+        return p + 1;
+    }
+
+    /**
+     * Nyari posisi paling besar yang bisa dicapai Block dengan satu geseran
+     * ke kanan/bawah tanpa nabrak Block lain.
+     * 
+     * @param index Index Block
+     * @return Posisi maksimal, sama dengan posisi sekarang kalau nggak bisa geser
+     */
+    public int getMaxSlidePosition(int index) {
+        int position = positions[index];
+        int maxPosition = layout.getMaxPosition(index);
+        if (position >= maxPosition) {
+            return position;
+        }
+        int end = position + layout.getPiece(index).getSize();
+        if (layout.isSingleWord()) {
+            int free = Long.numberOfTrailingZeros(lineOccupancy(index) >>> end);
+            return Math.min(position + free, maxPosition);
+        }
+
+        int size = layout.getPiece(index).getSize();
+        if (layout.getPiece(index).isHorizontal()) {
+            int rowStart = layout.getFixedCoord(index) * layout.getCols();
+            int blocked = nextSetBit(occupancyWords, rowStart + end, rowStart + maxPosition + size);
+            return blocked < 0 ? maxPosition : blocked - rowStart - size;
+        }
+        int p = position;
+        while (p < maxPosition && !isColumnCellOccupied(index, p + size)) {
+            p++;
+        }
+        return p;
+    }
+
+    /**
+     * Ngambil bit occupancy satu baris (Block horizontal) atau satu kolom
+     * (Block vertikal) yang dilewati Block, dengan bit 0 di ujung kiri/atas.
+     */
+    private long lineOccupancy(int index) {
+        int fixed = layout.getFixedCoord(index);
+        if (layout.getPiece(index).isHorizontal()) {
+            int cols = layout.getCols();
+            return (rowOccupancy >>> (fixed * cols)) & ((1L << cols) - 1);
+        }
+        int rows = layout.getRows();
+        return (columnOccupancy >>> (fixed * rows)) & ((1L << rows) - 1);
+    }
+
+    /**
+     * Ngecek sel ke-p di kolom Block vertikal di bitboard multi-word.
+     */
+    private boolean isColumnCellOccupied(int index, int p) {
+        int cell = p * layout.getCols() + layout.getFixedCoord(index);
+        return (occupancyWords[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Nyari bit nyala paling besar di antara lowest dan from (inklusif).
+     *
+     * @return Index bit, -1 kalau nggak ada
+     */
+    private static int previousSetBit(long[] words, int from, int lowest) {
+        int w = from >>> 6;
+        long bits = words[w] & (-1L >>> (63 - (from & 63)));
+        while (bits == 0) {
+            if (--w < (lowest >>> 6)) {
+                return -1;
+            }
+            bits = words[w];
+        }
+        int bit = (w << 6) + 63 - Long.numberOfLeadingZeros(bits);
+        return bit >= lowest ? bit : -1;
+    }
+
+    /**
+     * Nyari bit nyala paling kecil di antara from (inklusif) dan limit (eksklusif).
+     *
+     * @return Index bit, -1 kalau nggak ada
+     */
+    private static int nextSetBit(long[] words, int from, int limit) {
+        int w = from >>> 6;
+        int last = (limit - 1) >>> 6;
+        long bits = words[w] & (-1L << from);
+        while (bits == 0) {
+            if (++w > last) {
+                return -1;
+            }
+            bits = words[w];
+        }
+        int bit = (w << 6) + Long.numberOfTrailingZeros(bits);
+        return bit < limit ? bit : -1;
+    }
+
+    /**
+     * Ngepack state ini jadi satu long kalau layout-nya muat.
+     * 
+     * @return Kunci state yang unik di puzzle ini
+     * @throws IllegalStateException Kalau posisi nggak muat di satu long
+     */
+    public long pack() {
+        if (!layout.isPackable()) {
+            throw new IllegalStateException("Puzzle has too many pieces to pack into a long");
+        }
+        return packedKey;
+    }
+
+    /**
+     * Mengambil kunci 64-bit state ini buat visited set. Kalau layout muat
+     * dipack, kuncinya hasil pack yang unik; kalau nggak, pakai hash Zobrist.
+     * 
+     * @return Kunci state
+     */
+    public long getStateKey() {
+        return layout.isPackable() ? packedKey : zobristHash;
+    }
+
+    /**
+     * Ngitung kunci state anak kalau satu Block dipindah, tanpa bikin
+     * GameState baru.
+     * 
+     * @param index Index Block yang dipindah
+     * @param newPosition Posisi baru di sumbu geraknya
+     * @return Kunci state anak
+     */
+    public long getStateKeyAfterMove(int index, int newPosition) {
+        if (layout.isPackable()) {
+            return packedKey + layout.packDelta(index, positions[index], newPosition);
+        }
+        return getZobristHashAfterMove(index, newPosition);
+    }
+
     /**
      * Mengambil papan permainan.
      * 
      * @return Papan permainan
      */
     public Board getBoard() {
+        if (board == null) {
+            Board newBoard = new Board(layout.getRows(), layout.getCols(), layout.getExitX(),
+                layout.getExitY(), layout.getExitSide());
+            char[][] grid = newBoard.getGrid();
+            for (int y = 0; y < layout.getRows(); y++) {
+                for (int x = 0; x < layout.getCols(); x++) {
+                    grid[y][x] = getCellLabel(x, y);
+                }
+            }
+            board = newBoard;
+        }
         return board;
     }
     
@@ -158,6 +611,16 @@ public class GameState {
      * @return Map dari label Block ke PieceState-nya
      */
     public Map<Character, PieceState> getPieces() {
+        if (pieces == null) {
+            Map<Character, PieceState> map = new HashMap<>();
+            for (int i = 0; i < positions.length; i++) {
+                if (i != PuzzleLayout.PRIMARY_INDEX) {
+                    Piece piece = layout.getPiece(i);
+                    map.put(piece.getLabel(), new PieceState(piece, getPieceX(i), getPieceY(i)));
+                }
+            }
+            pieces = map;
+        }
         return pieces;
     }
     
@@ -168,7 +631,7 @@ public class GameState {
      * @return PieceState dari Block tersebut, null jika tidak ditemukan
      */
     public PieceState getPieceState(char label) {
-        return pieces.get(label);
+        return getPieces().get(label);
     }
     
     /**
@@ -177,9 +640,58 @@ public class GameState {
      * @return PieceState dari Block utama
      */
     public PieceState getPrimaryPieceState() {
+        if (primaryPieceState == null) {
+            primaryPieceState = new PieceState(layout.getPrimaryPiece(),
+                getPieceX(PuzzleLayout.PRIMARY_INDEX), getPieceY(PuzzleLayout.PRIMARY_INDEX));
+        }
         return primaryPieceState;
     }
     
+    /**
+     * Nyari index Block yang menempati sel tertentu.
+     * 
+     * @param x Koordinat X yang diperiksa
+     * @param y Koordinat Y yang diperiksa
+     * @return Index Block, -1 kalau sel kosong
+     */
+    public int getPieceIndexAt(int x, int y) {
+        if (isInside(x, y)) {
+            if (!isCellOccupied(x, y)) {
+                return -1;
+            }
+            // Cuma Block horizontal di baris ini atau vertikal di kolom ini yang mungkin
+            for (int i : layout.getRowPieces(y)) {
+                if (occupies(i, x, y)) {
+                    return i;
+                }
+            }
+            for (int i : layout.getColumnPieces(x)) {
+                if (occupies(i, x, y)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        for (int i = 0; i < positions.length; i++) {
+            if (occupies(i, x, y)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Mengambil label Block di sel tertentu.
+     * 
+     * @param x Koordinat X
+     * @param y Koordinat Y
+     * @return Label Block, atau '.' kalau sel kosong
+     */
+    public char getCellLabel(int x, int y) {
+        int index = getPieceIndexAt(x, y);
+        return index < 0 ? '.' : layout.getPiece(index).getLabel();
+    }
+
     /**
      * Cek apakah ada Block yang menempati sel tertentu
      * 
@@ -188,19 +700,30 @@ public class GameState {
      * @return true jika ada Block yang menempati sel tersebut, false jika tidak
      */
     public boolean isCellOccupied(int x, int y) {
-        // Check if primary piece occupies this cell
-        if (primaryPieceState.occupies(x, y)) {
-            return true;
+        if (!isInside(x, y)) {
+            // Cuma Block utama yang bisa keluar papan
+            return occupies(PuzzleLayout.PRIMARY_INDEX, x, y);
         }
-        
-        // Check if any other piece occupies this cell
-        for (PieceState pieceState : pieces.values()) {
-            if (pieceState.occupies(x, y)) {
-                return true;
-            }
+        int cell = y * layout.getCols() + x;
+        if (layout.isSingleWord()) {
+            return (rowOccupancy & (1L << cell)) != 0;
+        }
+        return (occupancyWords[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    private boolean isInside(int x, int y) {
+        return x >= 0 && x < layout.getCols() && y >= 0 && y < layout.getRows();
+    }
+
+    private boolean occupies(int index, int x, int y) {
+        int start = positions[index];
+        int fixed = layout.getFixedCoord(index);
+        int size = layout.getPiece(index).getSize();
+        if (layout.getPiece(index).isHorizontal()) {
+            return y == fixed && x >= start && x < start + size;
+        } else {
+            return x == fixed && y >= start && y < start + size;
         }
-        
-        return false;
     }
     
     /**
@@ -212,30 +735,18 @@ public class GameState {
      * @return true jika akan terjadi tabrakan, false jika tidak
      */
     public boolean wouldCollide(char pieceLabel, int newX, int newY) {
-        // Get the piece that's moving
-        PieceState pieceToMove = null;
-        if (primaryPieceState.getPiece().getLabel() == pieceLabel) {
-            pieceToMove = primaryPieceState;
-        } else {
-            pieceToMove = pieces.get(pieceLabel);
-        }
+        int index = layout.indexOf(pieceLabel);
+        if (index < 0) return true; // Piece not found
         
-        if (pieceToMove == null) return true; // Piece not found
-        
-        Piece piece = pieceToMove.getPiece();
+        Piece piece = layout.getPiece(index);
         
         // Check each cell the piece would occupy in the new position
         for (int i = 0; i < piece.getSize(); i++) {
             int checkX = piece.isHorizontal() ? newX + i : newX;
             int checkY = piece.isHorizontal() ? newY : newY + i;
             
-            // Skip cells that the piece already occupies in its current position
-            if (pieceToMove.occupies(checkX, checkY)) {
-                continue;
-            }
-            
             // Check if any other piece occupies this cell
-            if (isCellOccupied(checkX, checkY)) {
+            if (isCellOccupied(checkX, checkY) && !occupies(index, checkX, checkY)) {
                 return true;
             }
         }
@@ -250,14 +761,14 @@ public class GameState {
      * @return true jika Block utama sudah mencapai pintu keluar, false jika belum
      */
     public boolean isPrimaryPieceAtExit() {
-        int exitX = board.getOutCoordX();
-        int exitY = board.getOutCoordY();
-        int exitSide = board.getExitSide(); // Get exit side: 0=top, 1=right, 2=bottom, 3=left
+        int exitX = layout.getExitX();
+        int exitY = layout.getExitY();
+        int exitSide = layout.getExitSide(); // Get exit side: 0=top, 1=right, 2=bottom, 3=left
         
         // Use Piece instead of PrimaryPiece to avoid ClassCastException
-        Piece primaryPiece = primaryPieceState.getPiece();
-        int primaryX = primaryPieceState.getX();
-        int primaryY = primaryPieceState.getY();
+        Piece primaryPiece = layout.getPrimaryPiece();
+        int primaryX = getPieceX(PuzzleLayout.PRIMARY_INDEX);
+        int primaryY = getPieceY(PuzzleLayout.PRIMARY_INDEX);
         
         // // Debug output when checking goal state
         // System.out.println("Checking goal: Primary at (" + primaryX + "," + primaryY + 
@@ -281,7 +792,7 @@ public class GameState {
                 // Primary piece must be horizontal and its right edge reaching the exit
                 if (primaryPiece.isHorizontal()) {
                     int rightEdgeX = primaryX + primaryPiece.getSize() - 1;
-                    boolean isGoal = (rightEdgeX >= board.getGrid()[0].length - 1) && (primaryY == exitY);
+                    boolean isGoal = (rightEdgeX >= layout.getCols() - 1) && (primaryY == exitY);
                     return isGoal;
                 }
                 return false;
@@ -290,7 +801,7 @@ public class GameState {
                 // Primary piece must be vertical and its bottom edge reaching the exit
                 if (!primaryPiece.isHorizontal()) {
                     int bottomEdgeY = primaryY + primaryPiece.getSize() - 1;
-                    boolean isGoal = (primaryX == exitX) && (bottomEdgeY >= board.getGrid().length - 1);
+                    boolean isGoal = (primaryX == exitX) && (bottomEdgeY >= layout.getRows() - 1);
                     return isGoal;
                 }
                 return false;
@@ -319,8 +830,9 @@ public class GameState {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         GameState that = (GameState) o;
-        return Objects.equals(primaryPieceState, that.primaryPieceState) && 
-               Objects.equals(pieces, that.pieces);
+        if (zobristHash != that.zobristHash) return false;
+        return Arrays.equals(positions, that.positions) &&
+               layout.equals(that.layout);
     }
 
     /**
@@ -330,6 +842,6 @@ public class GameState {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(primaryPieceState, pieces);
+        return Long.hashCode(zobristHash);
     }
 }
\ No newline at end of file
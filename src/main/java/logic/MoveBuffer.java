@@ -0,0 +1,84 @@
+package logic;
+
+import java.util.Arrays;
+
+/**
+ * Kelas MoveBuffer ini buat nampung gerakan hasil ekspansi satu state.
+ * Buffer-nya dipunya sama pemanggil dan dipake ulang di tiap ekspansi,
+ * jadi generate successor nggak perlu alokasi Node, GameState, atau String.
+ * Tiap gerakan disimpan sebagai pasangan (index Block, posisi baru).
+ */
+public final class MoveBuffer {
+    private int[] pieceIndices;
+    private int[] positions;
+    private int size;
+
+    /**
+     * Bikin buffer kosong dengan kapasitas awal default.
+     */
+    public MoveBuffer() {
+        this(32);
+    }
+
+    /**
+     * Bikin buffer kosong dengan kapasitas awal tertentu.
+     *
+     * @param initialCapacity Jumlah gerakan yang muat sebelum buffer diperbesar
+     */
+    public MoveBuffer(int initialCapacity) {
+        pieceIndices = new int[Math.max(1, initialCapacity)];
+        positions = new int[pieceIndices.length];
+    }
+
+    /**
+     * Ngosongin buffer tanpa ngebuang array-nya.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Nambahin satu gerakan ke buffer.
+     *
+     * @param pieceIndex Index Block yang digerakkan
+     * @param newPosition Posisi baru Block di sumbu geraknya
+     */
+    public void add(int pieceIndex, int newPosition) {
+        if (size == pieceIndices.length) {
+            pieceIndices = Arrays.copyOf(pieceIndices, size * 2);
+            positions = Arrays.copyOf(positions, size * 2);
+        }
+        pieceIndices[size] = pieceIndex;
+        positions[size] = newPosition;
+        size++;
+    }
+
+    /**
+     * Ngambil jumlah gerakan di buffer.
+     *
+     * @return Jumlah gerakan
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Ngambil index Block dari gerakan ke-i.
+     *
+     * @param i Urutan gerakan
+     * @return Index Block di layout
+     */
+    public int getPieceIndex(int i) {
+        return pieceIndices[i];
+    }
+
+    /**
+     * Ngambil posisi baru dari gerakan ke-i.
+     *
+     * @param i Urutan gerakan
+     * @return Posisi baru di sumbu gerak Block
+     */
+    public int getPosition(int i) {
+        return positions[i];
+    }
+}
@@ -0,0 +1,64 @@
+package logic;
+
+/**
+ * Kelas MutableGameState ini GameState yang Block-nya bisa dipindah langsung
+ * di tempat. Dipake buat pencarian depth-first (kayak IDA*) yang cukup
+ * nyimpen satu state dan ngebalikin gerakan pas backtrack, jadi nggak ada
+ * alokasi state baru per simpul.
+ *
+ * Karena isinya berubah, hash dan equals-nya juga ikut berubah. Jangan
+ * dimasukin ke HashSet/HashMap; pakai {@link #toGameState()} kalau perlu
+ * nyimpen snapshot.
+ */
+public final class MutableGameState extends GameState {
+
+    /**
+     * Bikin salinan mutable dari sebuah state.
+     *
+     * @param source State awal
+     */
+    public MutableGameState(GameState source) {
+        super(source.getLayout(), copyPositions(source));
+    }
+
+    /**
+     * Mindahin satu Block ke posisi baru. Gerakannya nggak dicek lagi,
+     * jadi harus hasil dari GameLogic.expandSuccessors.
+     *
+     * @param index Index Block yang dipindah
+     * @param newPosition Posisi baru di sumbu geraknya
+     * @return Posisi lama, buat dikasih ke {@link #undo(int, int)}
+     */
+    public int move(int index, int newPosition) {
+        int oldPosition = getPosition(index);
+        movePieceInPlace(index, newPosition);
+        return oldPosition;
+    }
+
+    /**
+     * Ngebalikin gerakan yang tadi dilakuin lewat {@link #move(int, int)}.
+     *
+     * @param index Index Block yang dipindah
+     * @param oldPosition Posisi lama yang dikembalikan move
+     */
+    public void undo(int index, int oldPosition) {
+        movePieceInPlace(index, oldPosition);
+    }
+
+    /**
+     * Bikin snapshot immutable dari keadaan sekarang.
+     *
+     * @return GameState biasa dengan posisi yang sama
+     */
+    public GameState toGameState() {
+        return new GameState(getLayout(), copyPositions(this));
+    }
+
+    private static short[] copyPositions(GameState state) {
+        short[] positions = new short[state.getLayout().getPieceCount()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = (short) state.getPosition(i);
+        }
+        return positions;
+    }
+}
@@ -13,6 +13,7 @@ public class Node implements Comparable<Node> {
   private int heuristicValue;            // Heuristic value (h value)
   private int totalCost;                 // f = g + h for A*
   private String moveMade;               // Description of the move that led to this state
+  private final int movedPiece;          // Layout index of the moved piece, -1 if unknown
 
   /**
    * Creates a new node with all properties.
@@ -28,8 +29,28 @@ public class Node implements Comparable<Node> {
     this.parent = parent;
     this.cost = cost;
     this.heuristicValue = heuristicValue;
-    this.totalCost = cost + heuristicValue;
+    this.totalCost = saturatedSum(cost, heuristicValue);
     this.moveMade = moveMade;
+    this.movedPiece = -1;
+  }
+
+  /**
+   * Creates a new node whose move description is built lazily.
+   * Only nodes that end up on the solution path ever build the string.
+   * 
+   * @param state The game state for this node
+   * @param parent The parent node
+   * @param cost The cost to reach this node
+   * @param heuristicValue The heuristic value for this node
+   * @param movedPiece Layout index of the piece moved from the parent state
+   */
+  public Node(GameState state, Node parent, int cost, int heuristicValue, int movedPiece) {
+    this.state = state;
+    this.parent = parent;
+    this.cost = cost;
+    this.heuristicValue = heuristicValue;
+    this.totalCost = saturatedSum(cost, heuristicValue);
+    this.movedPiece = movedPiece;
   }
 
   /**
@@ -92,9 +113,21 @@ public class Node implements Comparable<Node> {
    * @return The move description
    */
   public String getMoveMade() {
+    if (moveMade == null && parent != null && movedPiece >= 0) {
+      moveMade = GameLogic.describeMove(parent.getState(), state, movedPiece);
+    }
     return moveMade;
   }
 
+  /**
+   * Gets the layout index of the piece moved to reach this node.
+   * 
+   * @return The piece index, or -1 for the root or when unknown
+   */
+  public int getMovedPiece() {
+    return movedPiece;
+  }
+
   /**
    * Updates the heuristic value and recalculates total cost.
    * 
@@ -102,7 +135,7 @@ public class Node implements Comparable<Node> {
    */
   public void setHeuristicValue(int heuristicValue) {
     this.heuristicValue = heuristicValue;
-    this.totalCost = this.cost + heuristicValue;
+    this.totalCost = saturatedSum(this.cost, heuristicValue);
   }
 
   /**
@@ -153,4 +186,9 @@ public class Node implements Comparable<Node> {
   public int hashCode() {
     return Objects.hash(state);
   }
+
+  // Heuristics report unsolvable states as Integer.MAX_VALUE; g + h must not wrap to a negative f
+  private static int saturatedSum(int cost, int heuristicValue) {
+    return (int) Math.min(Integer.MAX_VALUE, (long) cost + heuristicValue);
+  }
 }
\ No newline at end of file
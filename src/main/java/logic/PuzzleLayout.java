@@ -0,0 +1,380 @@
+package logic;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Kelas PuzzleLayout ini buat nampung metadata puzzle yang nggak pernah berubah.
+ * Ukuran papan, pintu keluar, label, ukuran, orientasi, dan baris/kolom tetap
+ * tiap Block disimpan sekali per puzzle, jadi GameState cukup nyimpen posisi
+ * tiap Block di sumbu geraknya aja.
+ */
+public final class PuzzleLayout {
+    /** Index Block utama di semua array layout dan posisi. */
+    public static final int PRIMARY_INDEX = 0;
+
+    /** Panjang sisi papan maksimal, posisi Block disimpan sebagai short. */
+    public static final int MAX_DIMENSION = Short.MAX_VALUE - 1;
+
+    // Block utama boleh keluar satu sel dari papan, jadi posisi minimal -1
+    private static final int POSITION_OFFSET = 1;
+
+    // Seed tetap biar hash Zobrist puzzle yang sama selalu sama di tiap run
+    private static final long ZOBRIST_SEED = 0x5DEECE66DL;
+
+    private final int rows, cols;
+    private final int exitX, exitY, exitSide;
+    private final Piece[] pieces;       // index 0 selalu Block utama
+    private final int[] fixedCoords;    // baris buat Block horizontal, kolom buat vertikal
+    private final int[] labelIndex;     // label ASCII -> index Block, -1 kalau nggak ada
+    private final int[] packShifts;     // posisi bit tiap Block di kunci long
+    private final boolean packable;
+
+    // Bitboard tiap Block di tiap posisi (index posisi + 1), cuma buat papan <= 64 sel.
+    // rowMasks pakai index sel y * cols + x, columnMasks pakai x * rows + y.
+    private final boolean singleWord;
+    private final long[][] rowMasks;
+    private final long[][] columnMasks;
+
+    // Jumlah long satu bitboard papan > 64 sel
+    private final int boardWords;
+
+    // Block horizontal per baris dan Block vertikal per kolom, buat nyari
+    // Block di satu sel tanpa ngecek semua Block
+    private final int[][] rowPieces;
+    private final int[][] columnPieces;
+
+    // Kunci acak 64-bit per (Block, posisi + 1) buat hash Zobrist
+    private final long[][] zobristKeys;
+
+    /**
+     * Bikin layout baru. Array yang dikasih nggak boleh diubah lagi sama pemanggil.
+     *
+     * @param rows Jumlah baris papan
+     * @param cols Jumlah kolom papan
+     * @param exitX Koordinat X pintu keluar
+     * @param exitY Koordinat Y pintu keluar
+     * @param exitSide Sisi pintu keluar (0=atas, 1=kanan, 2=bawah, 3=kiri)
+     * @param pieces Semua Block, index 0 harus Block utama
+     * @param fixedCoords Baris (horizontal) atau kolom (vertikal) tetap tiap Block
+     */
+    public PuzzleLayout(int rows, int cols, int exitX, int exitY, int exitSide,
+                        Piece[] pieces, int[] fixedCoords) {
+        if (rows > MAX_DIMENSION || cols > MAX_DIMENSION) {
+            throw new IllegalArgumentException("Board " + rows + "x" + cols
+                + " is larger than the supported " + MAX_DIMENSION + " cells per side");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.exitX = exitX;
+        this.exitY = exitY;
+        this.exitSide = exitSide;
+        this.pieces = pieces;
+        this.fixedCoords = fixedCoords;
+
+        this.labelIndex = new int[128];
+        Arrays.fill(labelIndex, -1);
+        for (int i = 0; i < pieces.length; i++) {
+            char label = pieces[i].getLabel();
+            if (label < labelIndex.length) {
+                labelIndex[label] = i;
+            }
+        }
+
+        // Hitung berapa bit yang dibutuhin tiap Block buat dipack ke satu long
+        this.packShifts = new int[pieces.length];
+        int totalBits = 0;
+        for (int i = 0; i < pieces.length; i++) {
+            packShifts[i] = totalBits;
+            int values = getMaxPosition(i) + POSITION_OFFSET + 2;
+            totalBits += 32 - Integer.numberOfLeadingZeros(values - 1);
+        }
+        this.packable = totalBits <= 64;
+
+        SplittableRandom random = new SplittableRandom(ZOBRIST_SEED);
+        this.zobristKeys = new long[pieces.length][];
+        for (int i = 0; i < pieces.length; i++) {
+            zobristKeys[i] = new long[getMaxPosition(i) + POSITION_OFFSET + 2];
+            for (int p = 0; p < zobristKeys[i].length; p++) {
+                zobristKeys[i][p] = random.nextLong();
+            }
+        }
+
+        this.boardWords = (rows * cols + 63) >>> 6;
+        this.rowPieces = groupByLine(pieces, fixedCoords, rows, true);
+        this.columnPieces = groupByLine(pieces, fixedCoords, cols, false);
+
+        this.singleWord = rows * cols <= 64;
+        this.rowMasks = new long[pieces.length][];
+        this.columnMasks = new long[pieces.length][];
+        if (singleWord) {
+            for (int i = 0; i < pieces.length; i++) {
+                int positionCount = getMaxPosition(i) + POSITION_OFFSET + 2;
+                rowMasks[i] = new long[positionCount];
+                columnMasks[i] = new long[positionCount];
+                for (int p = 0; p < positionCount; p++) {
+                    int position = p - POSITION_OFFSET;
+                    for (int c = 0; c < pieces[i].getSize(); c++) {
+                        int x = pieces[i].isHorizontal() ? position + c : fixedCoords[i];
+                        int y = pieces[i].isHorizontal() ? fixedCoords[i] : position + c;
+                        if (x >= 0 && x < cols && y >= 0 && y < rows) {
+                            rowMasks[i][p] |= 1L << (y * cols + x);
+                            columnMasks[i][p] |= 1L << (x * rows + y);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static int[][] groupByLine(Piece[] pieces, int[] fixedCoords, int lines, boolean horizontal) {
+        int[] counts = new int[lines];
+        for (int i = 0; i < pieces.length; i++) {
+            if (pieces[i].isHorizontal() == horizontal && fixedCoords[i] >= 0 && fixedCoords[i] < lines) {
+                counts[fixedCoords[i]]++;
+            }
+        }
+        int[][] grouped = new int[lines][];
+        for (int line = 0; line < lines; line++) {
+            grouped[line] = new int[counts[line]];
+            counts[line] = 0;
+        }
+        for (int i = 0; i < pieces.length; i++) {
+            if (pieces[i].isHorizontal() == horizontal && fixedCoords[i] >= 0 && fixedCoords[i] < lines) {
+                grouped[fixedCoords[i]][counts[fixedCoords[i]]++] = i;
+            }
+        }
+        return grouped;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getExitX() {
+        return exitX;
+    }
+
+    public int getExitY() {
+        return exitY;
+    }
+
+    public int getExitSide() {
+        return exitSide;
+    }
+
+    /**
+     * Ngambil jumlah Block di puzzle, termasuk Block utama.
+     *
+     * @return Jumlah Block
+     */
+    public int getPieceCount() {
+        return pieces.length;
+    }
+
+    /**
+     * Ngambil Block berdasarkan index-nya.
+     *
+     * @param index Index Block
+     * @return Block yang dishare oleh semua state di puzzle ini
+     */
+    public Piece getPiece(int index) {
+        return pieces[index];
+    }
+
+    public Piece getPrimaryPiece() {
+        return pieces[PRIMARY_INDEX];
+    }
+
+    /**
+     * Ngambil koordinat tetap Block: baris buat Block horizontal,
+     * kolom buat Block vertikal.
+     *
+     * @param index Index Block
+     * @return Koordinat yang nggak pernah berubah
+     */
+    public int getFixedCoord(int index) {
+        return fixedCoords[index];
+    }
+
+    /**
+     * Ngambil posisi maksimal Block di sumbu geraknya tanpa keluar papan.
+     *
+     * @param index Index Block
+     * @return Posisi maksimal
+     */
+    public int getMaxPosition(int index) {
+        Piece piece = pieces[index];
+        int axisLength = piece.isHorizontal() ? cols : rows;
+        return axisLength - piece.getSize();
+    }
+
+    /**
+     * Nyari index Block berdasarkan labelnya.
+     *
+     * @param label Label Block
+     * @return Index Block, -1 kalau nggak ketemu
+     */
+    public int indexOf(char label) {
+        if (label < labelIndex.length) {
+            return labelIndex[label];
+        }
+        for (int i = 0; i < pieces.length; i++) {
+            if (pieces[i].getLabel() == label) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Ngecek apakah semua sel papan muat di satu bitboard long.
+     *
+     * @return true kalau papan punya paling banyak 64 sel
+     */
+    public boolean isSingleWord() {
+        return singleWord;
+    }
+
+    /**
+     * Ngambil jumlah long buat satu bitboard papan besar.
+     *
+     * @return ceil(rows * cols / 64)
+     */
+    public int getBoardWords() {
+        return boardWords;
+    }
+
+    /**
+     * Ngambil index Block horizontal yang ada di satu baris.
+     * Array-nya dishare, jangan diubah.
+     *
+     * @param row Baris papan
+     * @return Index Block horizontal di baris itu
+     */
+    public int[] getRowPieces(int row) {
+        return rowPieces[row];
+    }
+
+    /**
+     * Ngambil index Block vertikal yang ada di satu kolom.
+     * Array-nya dishare, jangan diubah.
+     *
+     * @param column Kolom papan
+     * @return Index Block vertikal di kolom itu
+     */
+    public int[] getColumnPieces(int column) {
+        return columnPieces[column];
+    }
+
+    /**
+     * Ngambil bitboard baris-major (bit y * cols + x) sel yang ditempati
+     * Block di posisi tertentu. Sel di luar papan nggak ikut dihitung.
+     * Cuma valid kalau {@link #isSingleWord()}.
+     *
+     * @param index Index Block
+     * @param position Posisi Block, boleh -1 sampai posisi maksimal + 1
+     * @return Bitboard sel Block
+     */
+    public long getRowMask(int index, int position) {
+        return rowMasks[index][position + POSITION_OFFSET];
+    }
+
+    /**
+     * Sama kayak {@link #getRowMask(int, int)}, tapi bitboard-nya kolom-major
+     * (bit x * rows + y), jadi sel satu kolom bersebelahan.
+     *
+     * @param index Index Block
+     * @param position Posisi Block, boleh -1 sampai posisi maksimal + 1
+     * @return Bitboard sel Block
+     */
+    public long getColumnMask(int index, int position) {
+        return columnMasks[index][position + POSITION_OFFSET];
+    }
+
+    /**
+     * Ngambil kunci Zobrist buat Block di posisi tertentu. Hash sebuah state
+     * adalah XOR kunci semua Block di posisinya masing-masing.
+     *
+     * @param index Index Block
+     * @param position Posisi Block, boleh -1 sampai posisi maksimal + 1
+     * @return Kunci acak 64-bit
+     */
+    public long getZobristKey(int index, int position) {
+        return zobristKeys[index][position + POSITION_OFFSET];
+    }
+
+    /**
+     * Ngitung hash Zobrist dari posisi semua Block.
+     *
+     * @param positions Posisi tiap Block di sumbu geraknya
+     * @return Hash 64-bit
+     */
+    public long zobristHash(short[] positions) {
+        long hash = 0L;
+        for (int i = 0; i < positions.length; i++) {
+            hash ^= getZobristKey(i, positions[i]);
+        }
+        return hash;
+    }
+
+    /**
+     * Ngecek apakah semua posisi muat dipack ke satu long.
+     *
+     * @return true kalau {@link #pack(short[])} bisa dipake
+     */
+    public boolean isPackable() {
+        return packable;
+    }
+
+    /**
+     * Ngepack posisi semua Block ke satu long. Dua state di puzzle yang sama
+     * punya hasil pack yang sama kalau dan hanya kalau posisinya sama.
+     *
+     * @param positions Posisi tiap Block di sumbu geraknya
+     * @return Kunci state yang unik
+     */
+    public long pack(short[] positions) {
+        long key = 0;
+        for (int i = 0; i < positions.length; i++) {
+            key |= (long) (positions[i] + POSITION_OFFSET) << packShifts[i];
+        }
+        return key;
+    }
+
+    /**
+     * Ngitung perubahan kunci pack kalau satu Block pindah posisi, jadi kunci
+     * state anak bisa diupdate O(1) dari kunci parent.
+     *
+     * @param index Index Block yang dipindah
+     * @param oldPosition Posisi lama
+     * @param newPosition Posisi baru
+     * @return Selisih yang ditambahin ke kunci pack parent
+     */
+    public long packDelta(int index, int oldPosition, int newPosition) {
+        return (long) (newPosition - oldPosition) << packShifts[index];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PuzzleLayout that = (PuzzleLayout) o;
+        return rows == that.rows &&
+               cols == that.cols &&
+               exitX == that.exitX &&
+               exitY == that.exitY &&
+               exitSide == that.exitSide &&
+               Arrays.equals(pieces, that.pieces) &&
+               Arrays.equals(fixedCoords, that.fixedCoords);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(pieces) + Arrays.hashCode(fixedCoords);
+    }
+}
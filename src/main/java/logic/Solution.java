@@ -0,0 +1,174 @@
+package logic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kelas Solution nyimpen solusi sebagai state awal plus daftar gerakan
+ * (index Block dan posisi barunya), bukan state lengkap tiap langkah.
+ * State di langkah mana pun dibikin ulang dengan ngejalanin gerakannya
+ * dari checkpoint terdekat, jadi akses acak paling banyak ngejalanin
+ * CHECKPOINT_INTERVAL - 1 gerakan.
+ */
+public final class Solution {
+    // Tiap sekian gerakan state-nya disimpen sebagai checkpoint
+    static final int CHECKPOINT_INTERVAL = 32;
+
+    private final GameState initialState;
+    // Disimpen sebagai short; index Block dibaca balik unsigned, posisi
+    // paling gede PuzzleLayout.MAX_DIMENSION jadi selalu muat
+    private final short[] movedPieces;
+    private final short[] newPositions;
+    // checkpoints[i] = state setelah i * CHECKPOINT_INTERVAL gerakan
+    private final GameState[] checkpoints;
+
+    /**
+     * Bikin solusi dari state awal dan gerakannya. Tiap gerakan dicek harus
+     * geseran yang sah dari state sebelumnya.
+     *
+     * @param initialState State awal puzzle
+     * @param movedPieces Index Block yang digeser tiap langkah
+     * @param newPositions Posisi Block itu setelah digeser
+     * @throws IllegalArgumentException Kalau ada gerakan yang nggak sah
+     */
+    public Solution(GameState initialState, int[] movedPieces, int[] newPositions) {
+        if (movedPieces.length != newPositions.length) {
+            throw new IllegalArgumentException("Moved pieces and positions differ in length: "
+                + movedPieces.length + " vs " + newPositions.length);
+        }
+        this.initialState = initialState;
+        this.movedPieces = new short[movedPieces.length];
+        this.newPositions = new short[newPositions.length];
+        this.checkpoints = new GameState[movedPieces.length / CHECKPOINT_INTERVAL + 1];
+        this.checkpoints[0] = initialState;
+
+        MutableGameState state = new MutableGameState(initialState);
+        int pieceCount = initialState.getLayout().getPieceCount();
+        for (int i = 0; i < movedPieces.length; i++) {
+            int piece = movedPieces[i];
+            int position = newPositions[i];
+            if (piece < 0 || piece >= pieceCount) {
+                throw new IllegalArgumentException("Move " + (i + 1) + ": no piece with index " + piece);
+            }
+            if (position == state.getPosition(piece)
+                    || position < state.getMinSlidePosition(piece)
+                    || position > state.getMaxSlidePosition(piece)) {
+                throw new IllegalArgumentException("Move " + (i + 1) + ": piece "
+                    + initialState.getLayout().getPiece(piece).getLabel()
+                    + " cannot slide from " + state.getPosition(piece) + " to " + position);
+            }
+            state.move(piece, position);
+            this.movedPieces[i] = (short) piece;
+            this.newPositions[i] = (short) position;
+            if ((i + 1) % CHECKPOINT_INTERVAL == 0) {
+                checkpoints[(i + 1) / CHECKPOINT_INTERVAL] = state.toGameState();
+            }
+        }
+    }
+
+    /**
+     * Ngambil gerakan dari jalur solusi hasil solver. Block yang digeser
+     * dicari dari beda posisi antar state, jadi nggak bergantung ke
+     * informasi gerakan di Node.
+     *
+     * @param goal Node goal, parent-nya sampai ke state awal
+     * @return Solusinya
+     */
+    public static Solution fromPath(Node goal) {
+        List<Node> path = new ArrayList<>();
+        for (Node node = goal; node != null; node = node.getParent()) {
+            path.add(node);
+        }
+        int moveCount = path.size() - 1;
+        int[] pieces = new int[moveCount];
+        int[] positions = new int[moveCount];
+        for (int i = 0; i < moveCount; i++) {
+            GameState from = path.get(moveCount - i).getState();
+            GameState to = path.get(moveCount - i - 1).getState();
+            pieces[i] = changedPiece(from, to);
+            positions[i] = to.getPosition(pieces[i]);
+        }
+        return new Solution(path.get(moveCount).getState(), pieces, positions);
+    }
+
+    private static int changedPiece(GameState from, GameState to) {
+        for (int i = 0; i < from.getLayout().getPieceCount(); i++) {
+            if (from.getPosition(i) != to.getPosition(i)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Consecutive states on the path are equal");
+    }
+
+    /**
+     * Mengambil state awal puzzle.
+     *
+     * @return State sebelum gerakan pertama
+     */
+    public GameState getInitialState() {
+        return initialState;
+    }
+
+    /**
+     * Mengambil jumlah gerakan.
+     *
+     * @return Jumlah langkah solusi
+     */
+    public int getMoveCount() {
+        return movedPieces.length;
+    }
+
+    /**
+     * Mengambil index Block yang digeser di satu gerakan.
+     *
+     * @param move Gerakan ke-berapa, mulai dari 0
+     * @return Index Block di layout
+     */
+    public int getMovedPiece(int move) {
+        return movedPieces[move] & 0xFFFF;
+    }
+
+    /**
+     * Mengambil posisi Block setelah satu gerakan.
+     *
+     * @param move Gerakan ke-berapa, mulai dari 0
+     * @return Posisi baru di sumbu geraknya
+     */
+    public int getNewPosition(int move) {
+        return newPositions[move];
+    }
+
+    /**
+     * Bikin deskripsi satu gerakan, formatnya sama kayak Node.getMoveMade().
+     *
+     * @param move Gerakan ke-berapa, mulai dari 0
+     * @return Deskripsi gerakannya
+     */
+    public String describeMove(int move) {
+        return GameLogic.describeMove(getState(move), getState(move + 1), getMovedPiece(move));
+    }
+
+    /**
+     * Bikin ulang state setelah sejumlah langkah. Gerakannya dijalanin di
+     * tempat mulai dari checkpoint terdekat, jadi cuma satu state yang
+     * dialokasi.
+     *
+     * @param step Jumlah gerakan yang udah dijalanin, 0 sampai getMoveCount()
+     * @return State di langkah itu
+     */
+    public GameState getState(int step) {
+        if (step < 0 || step > movedPieces.length) {
+            throw new IndexOutOfBoundsException("Step " + step + " of " + movedPieces.length);
+        }
+        int checkpoint = step / CHECKPOINT_INTERVAL;
+        int start = checkpoint * CHECKPOINT_INTERVAL;
+        if (step == start) {
+            return checkpoints[checkpoint];
+        }
+        MutableGameState state = new MutableGameState(checkpoints[checkpoint]);
+        for (int i = start; i < step; i++) {
+            state.move(movedPieces[i] & 0xFFFF, newPositions[i]);
+        }
+        return state.toGameState();
+    }
+}
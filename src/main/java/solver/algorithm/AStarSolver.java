@@ -1,15 +1,14 @@
 package solver.algorithm;
 
-import java.util.HashSet;
-import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Set;
-
 import logic.GameLogic;
 import logic.GameState;
+import logic.MoveBuffer;
 import logic.Node;
 import solver.heuristic.BlockingPiecesHeuristic;
 import solver.heuristic.Heuristic;
+import solver.structure.Frontier;
+import solver.structure.LongIntOpenHashMap;
+import solver.structure.VisitedSet;
 
 public class AStarSolver extends InformedSolver {
   
@@ -34,53 +33,81 @@ public class AStarSolver extends InformedSolver {
    */
   public Node solve(GameState initialState) {
     long startTime = System.currentTimeMillis();
+    startBudget();
+    if (!prepareHeuristic(initialState)) {
+      return stoppedBeforeSearch(startTime);
+    }
 
-    // Initialize priority queue with starting node
-    PriorityQueue<Node> openSet = new PriorityQueue<>();
-    Set<GameState> closedSet = new HashSet<>();
+    // Open set ordered by f, ties broken toward lower h
+    Frontier openSet = createFrontier(Node::getTotalCost, Node::getHeuristicValue);
+    VisitedSet closedSet = createVisitedSet();
+    // Best known g of every generated state, open or closed. Kept for closed
+    // states too, so a closed state reached more cheaply is reopened; with an
+    // admissible but inconsistent heuristic (like Blocking Chain) a state can
+    // be closed before its cheapest path is found.
+    LongIntOpenHashMap bestG = new LongIntOpenHashMap();
+    MoveBuffer moves = new MoveBuffer();
 
     // Create start node with heuristic evaluation
     Node startNode = new Node(initialState);
     int startHeuristic = heuristic.calculate(initialState);
     startNode.setHeuristicValue(startHeuristic);
     openSet.add(startNode);
+    bestG.put(initialState.getStateKey(), 0);
 
     int nodesExplored = 0;
     int maxQueueSize = 1;
+    int duplicatesPruned = 0;
+    int stalePops = 0;
 
-    while (!openSet.isEmpty()) {
+    while (!openSet.isEmpty() && !shouldStop(nodesExplored, estimateMemory(closedSet, bestG, openSet))) {
       // Get node with lowest f value
       Node current = openSet.poll();
       nodesExplored++;
 
       // Goal test
       if (current.isGoalState()) {
-        this.solutionPath = buildPath(current);
+        setSolution(current);
         this.nodesExplored = nodesExplored;
         this.executionTimeMs = System.currentTimeMillis() - startTime;
         this.maxQueueSize = maxQueueSize;
+        this.visitedSetBytes = closedSet.memoryUsageBytes();
+        this.duplicatesPruned = duplicatesPruned;
+        this.stalePops = stalePops;
+        finishStatus(current);
         return current;
       }
 
-      // Skip if already visited
-      if (closedSet.contains(current.getState())) {
+      // Skip if a cheaper copy of this state was queued later. Only one copy
+      // per g is ever queued, so a copy at the best g is expanded once
+      long key = current.getState().getStateKey();
+      if (current.getCost() > bestG.get(key, Integer.MAX_VALUE)) {
+        stalePops++;
         continue;
       }
-
-      // Add to visited set
-      closedSet.add(current.getState());
+      closedSet.add(key);
 
       // Generate successors
-      List<Node> successors = GameLogic.generateSuccessors(current, heuristic);
+      GameLogic.expandSuccessors(current.getState(), moves);
 
       // Process each successor
-      for (Node successor : successors) {
-        // Skip if already visited
-        if (!closedSet.contains(successor.getState())) {
-          // Note: The heuristic has already been applied by generateSuccessors
-          // The Node compareTo method will use totalCost for priority queue ordering
-          openSet.add(successor);
+      for (int i = 0; i < moves.size(); i++) {
+        // Skip if the state was already reached with an equal or lower g; a
+        // lower g is queued again (reopening it if it was closed) and the old
+        // copy is dropped when it is polled
+        long nextKey = childKey(current, moves, i);
+        int g = current.getCost() + 1;
+        if (g >= bestG.get(nextKey, Integer.MAX_VALUE)) {
+          if (!closedSet.contains(nextKey)) {
+            duplicatesPruned++;
+          }
+          continue;
         }
+        bestG.put(nextKey, g);
+
+        GameState next = applyMove(current, moves, i);
+        int h = childHeuristic(current, moves, i, next);
+        openSet.add(new Node(next, current, g, h, moves.getPieceIndex(i)));
       }
 
       // Track maximum queue size for statistics
@@ -91,6 +118,10 @@ public class AStarSolver extends InformedSolver {
     this.nodesExplored = nodesExplored;
     this.executionTimeMs = System.currentTimeMillis() - startTime;
     this.maxQueueSize = maxQueueSize;
+    this.visitedSetBytes = closedSet.memoryUsageBytes();
+    this.duplicatesPruned = duplicatesPruned;
+    this.stalePops = stalePops;
+    finishStatus(null);
     return null;
   }
 
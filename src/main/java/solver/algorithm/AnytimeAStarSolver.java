@@ -0,0 +1,297 @@
+package solver.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import logic.GameLogic;
+import logic.GameState;
+import logic.MoveBuffer;
+import logic.Node;
+import solver.heuristic.BlockingPiecesHeuristic;
+import solver.heuristic.Heuristic;
+import solver.structure.Frontier;
+import solver.structure.LongIntOpenHashMap;
+import solver.structure.VisitedSet;
+
+/**
+ * Implementation of Anytime Repairing A* (ARA*).
+ * The first iteration orders the open list by g + w * h with a large weight
+ * w, which behaves much like greedy best-first search and finds a solution
+ * quickly. Each later iteration lowers w toward 1.0 and continues from the
+ * previous open list instead of starting over: g values are kept, and
+ * states whose g improved after they were expanded are set aside as
+ * inconsistent and re-queued for the next iteration.
+ *
+ * Every iteration that finds a shorter solution or proves a tighter bound
+ * publishes it to the listener. The bound is the solution cost divided by
+ * the smallest g + h still open, capped by the weight of the last
+ * completed iteration. With an admissible heuristic the last solution is
+ * optimal once the bound reaches 1.0. When stopped early by its budget,
+ * the solver returns the best solution so far.
+ */
+public class AnytimeAStarSolver extends InformedSolver {
+  /** Default weight of the first iteration. */
+  public static final double DEFAULT_INITIAL_WEIGHT = 5.0;
+
+  /** Default amount the weight is lowered after each iteration. */
+  public static final double DEFAULT_WEIGHT_STEP = 1.0;
+
+  // Weighted f values are scaled to integers for the frontier
+  private static final int PRIORITY_SCALE = 100;
+
+  private double initialWeight = DEFAULT_INITIAL_WEIGHT;
+  private double weightStep = DEFAULT_WEIGHT_STEP;
+  private SolutionListener listener;
+  private double suboptimalityBound = Double.POSITIVE_INFINITY;
+  private int iterations;
+
+  /**
+   * Constructor with specified heuristic.
+   *
+   * @param heuristic The heuristic to use for search
+   */
+  public AnytimeAStarSolver(Heuristic heuristic) {
+    super(heuristic);
+  }
+
+  /**
+   * Default constructor using BlockingPiecesHeuristic.
+   */
+  public AnytimeAStarSolver() {
+    this(new BlockingPiecesHeuristic());
+  }
+
+  /**
+   * Sets the weight schedule: the first iteration uses initialWeight, and
+   * every following one lowers it by step until it reaches 1.0.
+   *
+   * @param initialWeight Weight of the first iteration, at least 1.0
+   * @param step Amount subtracted after each iteration, greater than 0
+   */
+  public void setWeightSchedule(double initialWeight, double step) {
+    if (initialWeight < 1.0 || step <= 0) {
+      throw new IllegalArgumentException("Invalid weight schedule: " + initialWeight + ", " + step);
+    }
+    this.initialWeight = initialWeight;
+    this.weightStep = step;
+  }
+
+  /**
+   * Sets the listener notified of every improved solution.
+   *
+   * @param listener The listener, or null for none
+   */
+  public void setSolutionListener(SolutionListener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Gets the bound proven for the returned solution at the end of the last search.
+   *
+   * @return Solution cost divided by optimal cost at most, infinity if no solution was found
+   */
+  public double getSuboptimalityBound() {
+    return suboptimalityBound;
+  }
+
+  /**
+   * Gets the number of weighted searches run in the last solve call.
+   *
+   * @return Number of iterations
+   */
+  public int getIterations() {
+    return iterations;
+  }
+
+  @Override
+  /**
+   * Solves the Rush Hour puzzle with a sequence of weighted A* searches.
+   *
+   * @param initialState The starting game state
+   * @return The goal node of the best solution found, or null if none found
+   */
+  public Node solve(GameState initialState) {
+    long startTime = System.currentTimeMillis();
+    startBudget();
+    suboptimalityBound = Double.POSITIVE_INFINITY;
+    iterations = 0;
+    if (!prepareHeuristic(initialState)) {
+      return stoppedBeforeSearch(startTime);
+    }
+
+    Search search = new Search();
+    Node startNode = new Node(initialState);
+    startNode.setHeuristicValue(heuristic.calculate(initialState));
+    search.bestG.put(initialState.getStateKey(), 0);
+
+    List<Node> carried = new ArrayList<>();
+    if (startNode.isGoalState()) {
+      search.incumbent = startNode;
+    } else if (startNode.getHeuristicValue() != Integer.MAX_VALUE) {
+      carried.add(startNode);
+    }
+
+    double weight = initialWeight;
+    // Weight of the last iteration that ran to completion; its solution is within this factor
+    double provenWeight = Double.POSITIVE_INFINITY;
+    while (true) {
+      // Re-key the carried open nodes and the inconsistent ones under the new weight
+      final double w = weight;
+      Frontier open = createFrontier(n -> weightedF(n, w), Node::getHeuristicValue);
+      int lowestF = Integer.MAX_VALUE;
+      for (Node node : carried) {
+        if (!search.isStale(node)) {
+          open.add(node);
+          lowestF = Math.min(lowestF, node.getTotalCost());
+        }
+      }
+      carried.clear();
+
+      // Publish once the open list tells how close the incumbent is to optimal
+      if (search.incumbent != null) {
+        double bound = lowestF == Integer.MAX_VALUE ? 1.0
+            : Math.max(1.0, Math.min(provenWeight, search.incumbent.getCost() / (double) lowestF));
+        if (search.incumbent != search.published || bound < suboptimalityBound) {
+          suboptimalityBound = bound;
+          search.published = search.incumbent;
+          if (listener != null) {
+            listener.onSolution(search.incumbent, bound);
+          }
+        }
+        if (bound <= 1.0) {
+          break;
+        }
+      }
+      if (open.isEmpty() || shouldStop(search.nodesExplored, search.memoryEstimate(open))) {
+        break;
+      }
+
+      iterations++;
+      improvePath(search, open, weight, carried);
+      if (shouldStop(search.nodesExplored, 0)) {
+        // Stopped partway, so this iteration proves nothing about the weight
+        break;
+      }
+      provenWeight = weight;
+
+      // Whatever is still open carries over, together with the inconsistent states
+      while (!open.isEmpty()) {
+        carried.add(open.poll());
+      }
+      weight = Math.max(1.0, weight - weightStep);
+    }
+
+    Node goal = search.incumbent;
+    setSolution(goal);
+    this.nodesExplored = search.nodesExplored;
+    this.executionTimeMs = System.currentTimeMillis() - startTime;
+    this.maxQueueSize = search.maxQueueSize;
+    this.visitedSetBytes = search.bestG.memoryUsageBytes();
+    this.duplicatesPruned = search.duplicatesPruned;
+    this.stalePops = search.stalePops;
+    finishStatus(goal);
+    return goal;
+  }
+
+  /**
+   * One weighted A* pass. Expands nodes until the incumbent is no worse than
+   * the lowest weighted f in the open list. Successors of states already
+   * closed in this pass go to the inconsistent list instead of the open list.
+   */
+  private void improvePath(Search search, Frontier open, double weight, List<Node> inconsistent) {
+    VisitedSet closed = createVisitedSet();
+
+    while (!open.isEmpty()
+        && !shouldStop(search.nodesExplored, search.memoryEstimate(open) + closed.memoryUsageBytes())) {
+      Node current = open.poll();
+      if (search.isStale(current)) {
+        search.stalePops++;
+        continue;
+      }
+      if (search.incumbent != null
+          && (long) search.incumbent.getCost() * PRIORITY_SCALE <= weightedF(current, weight)) {
+        // Nothing left in the open list can beat the incumbent under this weight
+        open.add(current);
+        break;
+      }
+
+      long key = current.getState().getStateKey();
+      if (!closed.add(key)) {
+        search.stalePops++;
+        continue;
+      }
+      search.nodesExplored++;
+
+      GameLogic.expandSuccessors(current.getState(), search.moves);
+      int g = current.getCost() + 1;
+      for (int i = 0; i < search.moves.size(); i++) {
+        long nextKey = childKey(current, search.moves, i);
+        if (g >= search.bestG.get(nextKey, Integer.MAX_VALUE)) {
+          search.duplicatesPruned++;
+          continue;
+        }
+        if (search.incumbent != null && g >= search.incumbent.getCost()) {
+          continue;
+        }
+
+        GameState next = applyMove(current, search.moves, i);
+        int h = childHeuristic(current, search.moves, i, next);
+        if (h == Integer.MAX_VALUE) {
+          continue;
+        }
+        search.bestG.put(nextKey, g);
+        Node child = new Node(next, current, g, h, search.moves.getPieceIndex(i));
+
+        if (child.isGoalState()) {
+          // Its g is already the cost of a full solution
+          search.incumbent = child;
+          continue;
+        }
+        if (closed.contains(nextKey)) {
+          inconsistent.add(child);
+        } else {
+          open.add(child);
+        }
+      }
+
+      search.maxQueueSize = Math.max(search.maxQueueSize, open.size() + inconsistent.size());
+    }
+  }
+
+  /**
+   * Weighted f = g + w * h, scaled to an integer priority. Capped at
+   * Integer.MAX_VALUE so a huge h doesn't wrap around to a negative key.
+   */
+  private static int weightedF(Node node, double weight) {
+    long scaled = Math.round((node.getCost() + weight * node.getHeuristicValue()) * PRIORITY_SCALE);
+    return (int) Math.min(Integer.MAX_VALUE, scaled);
+  }
+
+  /**
+   * State kept across the iterations of one solve call.
+   */
+  private static final class Search {
+    // Lowest g found for every generated state
+    final LongIntOpenHashMap bestG = new LongIntOpenHashMap();
+    final MoveBuffer moves = new MoveBuffer();
+    Node incumbent;
+    Node published;
+    int nodesExplored;
+    int maxQueueSize = 1;
+    int duplicatesPruned;
+    int stalePops;
+
+    boolean isStale(Node node) {
+      return node.getCost() > bestG.get(node.getState().getStateKey(), Integer.MAX_VALUE);
+    }
+
+    long memoryEstimate(Frontier open) {
+      return estimateMemory(bestG.memoryUsageBytes(), (long) bestG.size() + open.size());
+    }
+  }
+
+  @Override
+  public String getAlgorithmName() {
+    return "Anytime Weighted A* (ARA*)";
+  }
+}
@@ -1,16 +1,13 @@
 package solver.algorithm;
 
-import java.util.Comparator;
-import java.util.HashSet;
-import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Set;
-
 import logic.GameLogic;
 import logic.GameState;
+import logic.MoveBuffer;
 import logic.Node;
 import solver.heuristic.BlockingPiecesHeuristic;
 import solver.heuristic.Heuristic;
+import solver.structure.Frontier;
+import solver.structure.VisitedSet;
 
 /**
  * Implementation of the Greedy Best-First Search algorithm.
@@ -45,14 +42,15 @@ public class BestFSolver extends InformedSolver {
    */
   public Node solve(GameState initialState) {
     long startTime = System.currentTimeMillis();
+    startBudget();
+    if (!prepareHeuristic(initialState)) {
+      return stoppedBeforeSearch(startTime);
+    }
     
-    // Custom comparator that orders nodes by heuristic value only
-    Comparator<Node> heuristicComparator = (n1, n2) -> 
-        Integer.compare(n1.getHeuristicValue(), n2.getHeuristicValue());
-    
-    // Initialize priority queue with the custom heuristic comparator
-    PriorityQueue<Node> frontier = new PriorityQueue<>(heuristicComparator);
-    Set<GameState> visited = new HashSet<>();
+    // Frontier that orders nodes by heuristic value only
+    Frontier frontier = createFrontier(Node::getHeuristicValue, null);
+    VisitedSet visited = createVisitedSet();
+    MoveBuffer moves = new MoveBuffer();
     
     // Create and add starting node with heuristic evaluation
     Node startNode = new Node(initialState);
@@ -63,40 +61,43 @@ public class BestFSolver extends InformedSolver {
     int nodesExplored = 0;
     int maxQueueSize = 1;
     
-    while (!frontier.isEmpty()) {
+    while (!frontier.isEmpty() && !shouldStop(nodesExplored, estimateMemory(visited, null, frontier))) {
       // Get node with lowest heuristic value
       Node current = frontier.poll();
       nodesExplored++;
       
       // Goal test
       if (current.isGoalState()) {
-          this.solutionPath = buildPath(current);
+          setSolution(current);
           this.nodesExplored = nodesExplored;
           this.executionTimeMs = System.currentTimeMillis() - startTime;
           this.maxQueueSize = maxQueueSize;
+          this.visitedSetBytes = visited.memoryUsageBytes();
+          finishStatus(current);
           return current;
       }
       
       // Skip if already visited
-      if (visited.contains(current.getState())) {
+      if (visited.contains(current.getState().getStateKey())) {
           continue;
       }
       
       // Mark as visited
-      visited.add(current.getState());
+      visited.add(current.getState().getStateKey());
       
       // Generate successors
-      List<Node> successors = GameLogic.generateSuccessors(current);
+      GameLogic.expandSuccessors(current.getState(), moves);
       
       // Process each successor
-      for (Node successor : successors) {
-          if (!visited.contains(successor.getState())) {
+      for (int i = 0; i < moves.size(); i++) {
+          // Check the child key before building the child state
+          if (!visited.contains(childKey(current, moves, i))) {
+              GameState next = applyMove(current, moves, i);
               // Calculate heuristic for the new state
-              int h = heuristic.calculate(successor.getState());
-              successor.setHeuristicValue(h);
+              int h = childHeuristic(current, moves, i, next);
               
               // In Best-First Search, we use only the heuristic for ordering
-              frontier.add(successor);
+              frontier.add(new Node(next, current, current.getCost() + 1, h, moves.getPieceIndex(i)));
           }
       }
       
@@ -108,6 +109,8 @@ public class BestFSolver extends InformedSolver {
     this.nodesExplored = nodesExplored;
     this.executionTimeMs = System.currentTimeMillis() - startTime;
     this.maxQueueSize = maxQueueSize;
+    this.visitedSetBytes = visited.memoryUsageBytes();
+    finishStatus(null);
     return null;
   }
     
@@ -0,0 +1,336 @@
+package solver.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import logic.GameLogic;
+import logic.GameState;
+import logic.MoveBuffer;
+import logic.Node;
+import logic.PuzzleLayout;
+import solver.structure.LongIntOpenHashMap;
+
+/**
+ * Implementation of bidirectional breadth-first search.
+ * Moves are reversible and all cost 1, so a forward BFS from the initial
+ * state and a backward BFS from the goal states can meet in the middle.
+ * The backward side starts from every goal configuration at once: the
+ * primary piece at the exit and the other pieces in any non-overlapping
+ * positions. Each round expands one complete layer of the smaller side,
+ * and the first state found by both sides lies on a shortest solution.
+ *
+ * The backward side is seeded lazily. Until the forward layer is at least
+ * as large as the set of goal configurations, expanding the goals would
+ * never be the smaller step, so the search runs forward only and tests
+ * each new state for the goal itself. Goals are enumerated again each time
+ * the forward layer has doubled, up to the goal limit; puzzles with more
+ * goal configurations than that are solved by the forward search alone.
+ */
+public class BidirectionalBFSSolver extends Solver {
+  /** Default maximum number of goal states seeded into the backward side. */
+  public static final int DEFAULT_GOAL_LIMIT = 200_000;
+
+  // Smallest enumeration attempt, so tiny first layers don't retry over and over
+  private static final int MIN_SEED_ATTEMPT = 256;
+
+  // Placement steps allowed per goal state asked for; dead-end placements count too
+  private static final int SEED_STEPS_PER_GOAL = 64;
+
+  private int goalLimit = DEFAULT_GOAL_LIMIT;
+  private boolean usedFallback;
+
+  /**
+   * Sets the maximum number of goal states enumerated for the backward side.
+   *
+   * @param goalLimit Maximum number of goal states
+   */
+  public void setGoalLimit(int goalLimit) {
+    this.goalLimit = goalLimit;
+  }
+
+  /**
+   * Checks whether the last search ran forward only because the puzzle had
+   * more goal states than any forward layer, or than the goal limit.
+   *
+   * @return true if the backward side was never seeded
+   */
+  public boolean usedFallback() {
+    return usedFallback;
+  }
+
+  @Override
+  /**
+   * Solves the Rush Hour puzzle by searching from both ends.
+   *
+   * @param initialState The starting game state
+   * @return The goal node containing the solution path, or null if no solution found
+   */
+  public Node solve(GameState initialState) {
+    long startTime = System.currentTimeMillis();
+    startBudget();
+    usedFallback = false;
+
+    Node startNode = new Node(initialState);
+    if (startNode.isGoalState()) {
+      setSolution(startNode);
+      this.nodesExplored = 1;
+      this.maxQueueSize = 1;
+      this.executionTimeMs = System.currentTimeMillis() - startTime;
+      finishStatus(startNode);
+      return startNode;
+    }
+
+    Side forward = new Side();
+    Side backward = new Side();
+    forward.add(startNode);
+    boolean seeded = false;
+    int nextSeedAttempt = 0;
+
+    MoveBuffer moves = new MoveBuffer();
+    int nodesExplored = 0;
+    int maxQueueSize = 1;
+    Node goalNode = null;
+
+    while (!forward.layer.isEmpty() && (!seeded || !backward.layer.isEmpty()) && goalNode == null
+        && !shouldStop(nodesExplored, memoryEstimate(forward, backward))) {
+      if (!seeded && nextSeedAttempt >= 0 && forward.layer.size() >= nextSeedAttempt) {
+        // Worth seeding only if the goals are no more than the layer about to be expanded
+        int limit = Math.min(goalLimit, Math.max(MIN_SEED_ATTEMPT, forward.layer.size()));
+        int explored = nodesExplored;
+        // A stop during enumeration ends the search through the loop condition
+        List<GameState> goals = enumerateGoalStates(initialState, limit,
+            () -> shouldStop(explored, memoryEstimate(forward, backward)));
+        if (goals != null) {
+          // No forward state so far was a goal, so every meeting found from here on is new
+          for (GameState goal : goals) {
+            backward.add(new Node(goal));
+          }
+          seeded = true;
+          continue;
+        }
+        nextSeedAttempt = limit < goalLimit ? 2 * limit : -1;
+      }
+
+      // Expand the smaller frontier, one whole layer at a time
+      boolean expandForward = !seeded || forward.layer.size() <= backward.layer.size();
+      Side side = expandForward ? forward : backward;
+      Side other = expandForward ? backward : forward;
+
+      List<Node> layer = side.layer;
+      side.layer = new ArrayList<>();
+      for (int n = 0; n < layer.size() && goalNode == null
+          && !shouldStop(nodesExplored, memoryEstimate(forward, backward)); n++) {
+        Node current = layer.get(n);
+        nodesExplored++;
+
+        GameLogic.expandSuccessors(current.getState(), moves);
+        for (int i = 0; i < moves.size(); i++) {
+          long key = childKey(current, moves, i);
+          if (side.contains(key)) {
+            continue;
+          }
+
+          Node next = new Node(applyMove(current, moves, i), current,
+              current.getCost() + 1, 0, moves.getPieceIndex(i));
+          side.add(next);
+
+          if (!seeded) {
+            if (next.isGoalState()) {
+              goalNode = next;
+              break;
+            }
+            continue;
+          }
+          Node meeting = other.get(key);
+          if (meeting != null) {
+            goalNode = expandForward ? join(next, meeting) : join(meeting, next);
+            break;
+          }
+        }
+      }
+
+      maxQueueSize = Math.max(maxQueueSize, forward.layer.size() + backward.layer.size());
+    }
+
+    usedFallback = !seeded;
+    setSolution(goalNode);
+    this.nodesExplored = nodesExplored;
+    this.executionTimeMs = System.currentTimeMillis() - startTime;
+    this.maxQueueSize = maxQueueSize;
+    this.visitedSetBytes = forward.index.memoryUsageBytes() + backward.index.memoryUsageBytes();
+    finishStatus(goalNode);
+    return goalNode;
+  }
+
+  private static long memoryEstimate(Side forward, Side backward) {
+    return estimateMemory(forward.index.memoryUsageBytes() + backward.index.memoryUsageBytes(),
+        (long) forward.nodes.size() + backward.nodes.size());
+  }
+
+  /**
+   * Continues a forward path with the moves stored on a backward path.
+   *
+   * @param forwardNode Node reached from the initial state
+   * @param backwardNode Node with the same state, reached from a goal state
+   * @return The goal node at the end of the joined path
+   */
+  private Node join(Node forwardNode, Node backwardNode) {
+    Node current = forwardNode;
+    Node step = backwardNode;
+    while (step.getParent() != null) {
+      // The backward node recorded which piece moves to get one step closer to its goal
+      Node toward = step.getParent();
+      current = new Node(toward.getState(), current, current.getCost() + 1, 0, step.getMovedPiece());
+      step = toward;
+    }
+    return current;
+  }
+
+  /**
+   * Lists every state with the primary piece at the exit and the other
+   * pieces placed anywhere on their line without overlapping. Partial
+   * placements that lead to no goal state also take time, so the
+   * enumeration gives up after SEED_STEPS_PER_GOAL * limit placement steps
+   * even if it has found fewer than limit goals.
+   *
+   * @param state Any state of the puzzle
+   * @param limit Maximum number of goal states
+   * @param stop Checked at every placement step, like shouldStop in the search loops
+   * @return The goal states, or null if there are more than limit, the
+   *         step limit ran out first, or stop returned true
+   */
+  static List<GameState> enumerateGoalStates(GameState state, int limit, BooleanSupplier stop) {
+    PuzzleLayout layout = state.getLayout();
+    List<GameState> goals = new ArrayList<>();
+
+    int primaryGoal = -1;
+    int primaryMax = layout.getMaxPosition(PuzzleLayout.PRIMARY_INDEX);
+    for (int candidate : new int[] {0, primaryMax}) {
+      if (state.withPiecePosition(PuzzleLayout.PRIMARY_INDEX, candidate).isPrimaryPieceAtExit()) {
+        primaryGoal = candidate;
+        break;
+      }
+    }
+    if (primaryGoal < 0) {
+      // The exit is not on the primary piece's line, no goal state exists
+      return goals;
+    }
+
+    GoalPlacement placement = new GoalPlacement(state, goals, limit,
+        (long) SEED_STEPS_PER_GOAL * limit, stop);
+    placement.positions[PuzzleLayout.PRIMARY_INDEX] = primaryGoal;
+    setCells(layout, placement.cells, PuzzleLayout.PRIMARY_INDEX, primaryGoal, true);
+
+    return placement.placePieces(1) ? goals : null;
+  }
+
+  /**
+   * Backtracking state of one goal enumeration.
+   */
+  private static final class GoalPlacement {
+    private final GameState state;
+    private final PuzzleLayout layout;
+    private final int[] positions;
+    private final boolean[] cells;
+    private final List<GameState> goals;
+    private final int limit;
+    private final BooleanSupplier stop;
+    private long stepsLeft;
+
+    GoalPlacement(GameState state, List<GameState> goals, int limit, long maxSteps, BooleanSupplier stop) {
+      this.state = state;
+      this.layout = state.getLayout();
+      this.positions = new int[layout.getPieceCount()];
+      this.cells = new boolean[layout.getRows() * layout.getCols()];
+      this.goals = goals;
+      this.limit = limit;
+      this.stepsLeft = maxSteps;
+      this.stop = stop;
+    }
+
+    /**
+     * Places pieces index, index + 1, ... in every free position and records
+     * each complete placement.
+     *
+     * @return false as soon as the goal or step limit is exceeded, or the search has to stop
+     */
+    boolean placePieces(int index) {
+      if (index == layout.getPieceCount()) {
+        if (goals.size() >= limit) {
+          return false;
+        }
+        goals.add(state.withPiecePositions(positions));
+        return true;
+      }
+
+      for (int p = 0; p <= layout.getMaxPosition(index); p++) {
+        if (--stepsLeft < 0 || stop.getAsBoolean()) {
+          return false;
+        }
+        if (isFree(layout, cells, index, p)) {
+          positions[index] = p;
+          setCells(layout, cells, index, p, true);
+          boolean withinLimit = placePieces(index + 1);
+          setCells(layout, cells, index, p, false);
+          if (!withinLimit) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+  }
+
+  private static boolean isFree(PuzzleLayout layout, boolean[] cells, int index, int position) {
+    for (int c = 0; c < layout.getPiece(index).getSize(); c++) {
+      if (cells[cellOf(layout, index, position + c)]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void setCells(PuzzleLayout layout, boolean[] cells, int index, int position, boolean value) {
+    for (int c = 0; c < layout.getPiece(index).getSize(); c++) {
+      cells[cellOf(layout, index, position + c)] = value;
+    }
+  }
+
+  private static int cellOf(PuzzleLayout layout, int index, int along) {
+    int fixed = layout.getFixedCoord(index);
+    return layout.getPiece(index).isHorizontal()
+        ? fixed * layout.getCols() + along
+        : along * layout.getCols() + fixed;
+  }
+
+  /**
+   * One direction of the search: every state it has reached, and the
+   * current layer waiting to be expanded.
+   */
+  private static final class Side {
+    private final LongIntOpenHashMap index = new LongIntOpenHashMap();
+    private final List<Node> nodes = new ArrayList<>();
+    private List<Node> layer = new ArrayList<>();
+
+    void add(Node node) {
+      index.put(node.getState().getStateKey(), nodes.size());
+      nodes.add(node);
+      layer.add(node);
+    }
+
+    boolean contains(long key) {
+      return index.get(key, -1) >= 0;
+    }
+
+    Node get(long key) {
+      int i = index.get(key, -1);
+      return i >= 0 ? nodes.get(i) : null;
+    }
+  }
+
+  @Override
+  public String getAlgorithmName() {
+    return "Bidirectional BFS";
+  }
+}
@@ -1,15 +1,12 @@
 package solver.algorithm;
 
-import java.util.Comparator;
-import java.util.HashSet;
-import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Set;
-
 import logic.GameLogic;
 import logic.GameState;
+import logic.MoveBuffer;
 import logic.Node;
 import solver.heuristic.*;
+import solver.structure.Frontier;
+import solver.structure.VisitedSet;
 
 /**
  * Implementation of the Branch and Bound algorithm for Rush Hour puzzle solving.
@@ -30,10 +27,15 @@ public class BranchAndBoundSolver extends InformedSolver {
     @Override
     public Node solve(GameState initialState) {
         long startTime = System.currentTimeMillis();
+        startBudget();
+        if (!prepareHeuristic(initialState)) {
+            return stoppedBeforeSearch(startTime);
+        }
         
-        // Initialize with a custom comparator ordering nodes by lower bound
-        PriorityQueue<Node> queue = new PriorityQueue<>(Comparator.comparingInt(n -> n.getCost() + n.getHeuristicValue()));
-        Set<GameState> visited = new HashSet<>();
+        // Initialize with a frontier ordering nodes by lower bound, ties toward lower h
+        Frontier queue = createFrontier(Node::getTotalCost, Node::getHeuristicValue);
+        VisitedSet visited = createVisitedSet();
+        MoveBuffer moves = new MoveBuffer();
         upperBound = Integer.MAX_VALUE;
         Node bestSolution = null;
         int nodesExplored = 0;
@@ -45,7 +47,7 @@ public class BranchAndBoundSolver extends InformedSolver {
         rootNode.setHeuristicValue(rootHeuristic);
         queue.add(rootNode);
         
-        while (!queue.isEmpty()) {
+        while (!queue.isEmpty() && !shouldStop(nodesExplored, estimateMemory(visited, null, queue))) {
             Node current = queue.poll();
             nodesExplored++;
             
@@ -66,29 +68,29 @@ public class BranchAndBoundSolver extends InformedSolver {
             }
             
             // Skip if we've seen this state before
-            if (visited.contains(current.getState())) {
+            if (visited.contains(current.getState().getStateKey())) {
                 continue;
             }
             
-            visited.add(current.getState());
+            visited.add(current.getState().getStateKey());
             
             // Generate all possible next moves
-            List<Node> successors = GameLogic.generateSuccessors(current);
+            GameLogic.expandSuccessors(current.getState(), moves);
             
             // Add valid successors to queue
-            for (Node successor : successors) {
+            for (int i = 0; i < moves.size(); i++) {
                 // Only process if not already visited
-                if (!visited.contains(successor.getState())) {
+                if (!visited.contains(childKey(current, moves, i))) {
+                    GameState next = applyMove(current, moves, i);
                     // Calculate heuristic for lower bound
-                    int h = heuristic.calculate(successor.getState());
-                    successor.setHeuristicValue(h);
+                    int h = childHeuristic(current, moves, i, next);
                     
                     // Calculate lower bound (current cost + heuristic)
-                    int successorLowerBound = successor.getCost() + h;
+                    int successorLowerBound = current.getCost() + 1 + h;
                     
                     // Only add if it could lead to a better solution
                     if (successorLowerBound < upperBound) {
-                        queue.add(successor);
+                        queue.add(new Node(next, current, current.getCost() + 1, h, moves.getPieceIndex(i)));
                     }
                 }
             }
@@ -96,13 +98,14 @@ public class BranchAndBoundSolver extends InformedSolver {
             maxQueueSize = Math.max(maxQueueSize, queue.size());
         }
         
-        // Record metrics and return best solution
-        if (bestSolution != null) {
-          this.solutionPath = buildPath(bestSolution);
-          this.nodesExplored = nodesExplored;
-          this.executionTimeMs = System.currentTimeMillis() - startTime;
-          this.maxQueueSize = maxQueueSize;
-        }
+        // Record metrics and return best solution. A search stopped by its budget
+        // still returns the best solution found so far, which may not be optimal.
+        setSolution(bestSolution);
+        this.nodesExplored = nodesExplored;
+        this.executionTimeMs = System.currentTimeMillis() - startTime;
+        this.maxQueueSize = maxQueueSize;
+        this.visitedSetBytes = visited.memoryUsageBytes();
+        finishStatus(bestSolution);
         
         return bestSolution;
     }
@@ -0,0 +1,27 @@
+package solver.algorithm;
+
+/**
+ * Flag used to stop one or more running searches from another thread.
+ * A single token can be shared by several solvers so that one call stops
+ * all of them. Solvers read it once per expanded node, so checking it is a
+ * single volatile read.
+ */
+public final class CancellationToken {
+  private volatile boolean cancelled;
+
+  /**
+   * Asks every search using this token to stop. Cannot be undone.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  /**
+   * Checks whether {@link #cancel()} has been called.
+   *
+   * @return true if searches using this token should stop
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+}
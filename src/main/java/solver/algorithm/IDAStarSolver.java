@@ -0,0 +1,300 @@
+package solver.algorithm;
+
+import java.util.Arrays;
+
+import logic.GameLogic;
+import logic.GameState;
+import logic.MoveBuffer;
+import logic.MutableGameState;
+import logic.Node;
+import solver.heuristic.BlockingPiecesHeuristic;
+import solver.heuristic.Heuristic;
+import solver.heuristic.IncrementalHeuristic;
+import solver.structure.LongIntOpenHashMap;
+
+/**
+ * Implementation of Iterative Deepening A* (IDA*).
+ * Runs repeated depth-first searches bounded by f = g + h, raising the bound
+ * to the smallest f that exceeded it each iteration. A single mutable state
+ * is moved and un-moved in place, so memory grows with the solution depth
+ * instead of with the number of states explored.
+ * 
+ * An optional transposition table of bounded size remembers the lowest g at
+ * which each state was reached in the current iteration, cutting off cycles
+ * and transpositions. While the table has room it also detects unsolvable
+ * puzzles: an iteration that expands every state it reaches has exhausted
+ * the search space. Otherwise the search gives up once the bound passes
+ * the maximum depth.
+ */
+public class IDAStarSolver extends InformedSolver {
+  /**
+   * Default maximum number of transposition table entries. The table starts
+   * small and doubles as it fills; at this cap it has 2^21 slots, about 25 MB.
+   */
+  public static final int DEFAULT_TABLE_CAPACITY = 1 << 20;
+
+  // Entries the table is sized for before its first resize
+  private static final int INITIAL_TABLE_SIZE = 1 << 12;
+
+  /** Default bound on the solution length, well within the thread stack. */
+  public static final int DEFAULT_MAX_DEPTH = 1000;
+
+  // Returned by search when the goal is reached; f values are never negative
+  private static final int FOUND = -1;
+
+  private final int tableCapacity;
+  private int maxDepth = DEFAULT_MAX_DEPTH;
+
+  // Search state, reset on every solve call
+  private MutableGameState state;
+  private LongIntOpenHashMap table;
+  private boolean tableSaturated;
+  private int unexpandedEntries;
+  private MoveBuffer[] moveStack;
+  private int[] pathPieces;
+  private int[] pathPositions;
+  private int solutionDepth;
+  private int deepestPath;
+  private int expanded;
+
+  /**
+   * Constructor with specified heuristic and transposition table size.
+   * 
+   * @param heuristic The heuristic to use for search
+   * @param tableCapacity Maximum number of table entries, 0 to disable the table
+   */
+  public IDAStarSolver(Heuristic heuristic, int tableCapacity) {
+    super(heuristic);
+    this.tableCapacity = tableCapacity;
+  }
+
+  /**
+   * Constructor with specified heuristic and the default table size.
+   * 
+   * @param heuristic The heuristic to use for search
+   */
+  public IDAStarSolver(Heuristic heuristic) {
+    this(heuristic, DEFAULT_TABLE_CAPACITY);
+  }
+
+  /**
+   * Default constructor using BlockingPiecesHeuristic.
+   */
+  public IDAStarSolver() {
+    this(new BlockingPiecesHeuristic());
+  }
+
+  /**
+   * Sets the longest solution the search will look for. Also bounds the
+   * recursion depth.
+   * 
+   * @param maxDepth Maximum number of moves
+   */
+  public void setMaxDepth(int maxDepth) {
+    this.maxDepth = maxDepth;
+  }
+
+  @Override
+  /**
+   * Solves the Rush Hour puzzle using IDA*.
+   * The solution is optimal when the heuristic is admissible.
+   *
+   * @param initialState The starting game state
+   * @return The goal node containing the solution path, or null if no solution found
+   */
+  public Node solve(GameState initialState) {
+    long startTime = System.currentTimeMillis();
+    startBudget();
+    if (!prepareHeuristic(initialState)) {
+      return stoppedBeforeSearch(startTime);
+    }
+
+    state = new MutableGameState(initialState);
+    // Grown on demand, so puzzles that reach few states never pay for the full table
+    table = tableCapacity > 0
+        ? new LongIntOpenHashMap(Math.min(tableCapacity, INITIAL_TABLE_SIZE), 0.75f)
+        : null;
+    moveStack = new MoveBuffer[16];
+    pathPieces = new int[16];
+    pathPositions = new int[16];
+    expanded = 0;
+    deepestPath = 0;
+
+    Node goal = null;
+    int rootHeuristic = heuristic.calculate(initialState);
+    int threshold = rootHeuristic;
+    while (threshold <= maxDepth && !shouldStop(expanded, tableBytes())) {
+      if (table != null) {
+        table.clear();
+      }
+      tableSaturated = false;
+      unexpandedEntries = 0;
+
+      int next = search(0, rootHeuristic, threshold, -1);
+      if (next == FOUND) {
+        goal = buildGoalNode(initialState, rootHeuristic);
+        break;
+      }
+
+      // Nothing was cut off by the bound, or every reached state was expanded
+      if (next == Integer.MAX_VALUE
+          || (table != null && !tableSaturated && unexpandedEntries == 0)) {
+        break;
+      }
+      threshold = next;
+    }
+
+    setSolution(goal);
+    this.nodesExplored = expanded;
+    this.executionTimeMs = System.currentTimeMillis() - startTime;
+    // The recursion stack plays the role of the frontier
+    this.maxQueueSize = deepestPath;
+    // Clearing keeps the capacity, so this is the largest size the table reached
+    this.visitedSetBytes = tableBytes();
+    finishStatus(goal);
+
+    state = null;
+    table = null;
+    moveStack = null;
+    return goal;
+  }
+
+  /**
+   * Depth-first search below the current state.
+   * 
+   * @param g Number of moves from the initial state
+   * @param h Heuristic value of the current state
+   * @param threshold Current f bound
+   * @param lastPiece Piece moved to reach this state, -1 at the root
+   * @return FOUND, or the smallest f that exceeded the bound below this state
+   */
+  private int search(int g, int h, int threshold, int lastPiece) {
+    if (shouldStop(expanded, estimateMemory(tableBytes(), g))) {
+      // Unwind without exploring further; solve() sees the stop reason and stops
+      return Integer.MAX_VALUE;
+    }
+    int f = g + h;
+    if (f > threshold) {
+      record(state.getStateKey(), g, false);
+      return f;
+    }
+    expanded++;
+
+    if (state.isPrimaryPieceAtExit()) {
+      solutionDepth = g;
+      return FOUND;
+    }
+    record(state.getStateKey(), g, true);
+    deepestPath = Math.max(deepestPath, g + 1);
+
+    MoveBuffer moves = movesAt(g);
+    GameLogic.expandSuccessors(state, moves);
+
+    int minExceeded = Integer.MAX_VALUE;
+    for (int i = 0; i < moves.size(); i++) {
+      int piece = moves.getPieceIndex(i);
+      // Moving the same piece twice in a row is never shorter than one slide
+      if (piece == lastPiece) {
+        continue;
+      }
+      int position = moves.getPosition(i);
+
+      // Skip states already reached this iteration with an equal or lower g
+      if (table != null) {
+        int entry = table.get(state.getStateKeyAfterMove(piece, position), -1);
+        if (entry >= 0 && (entry >>> 1) <= g + 1) {
+          continue;
+        }
+      }
+
+      int childHeuristic;
+      int oldPosition;
+      if (heuristic instanceof IncrementalHeuristic) {
+        // Dead ends are skipped without touching the state
+        childHeuristic = ((IncrementalHeuristic) heuristic).calculateAfterMove(state, h, piece, position);
+        if (childHeuristic == Integer.MAX_VALUE) {
+          continue;
+        }
+        oldPosition = state.move(piece, position);
+      } else {
+        oldPosition = state.move(piece, position);
+        childHeuristic = heuristic.calculate(state);
+        if (childHeuristic == Integer.MAX_VALUE) {
+          state.undo(piece, oldPosition);
+          continue;
+        }
+      }
+
+      pathPieces[g] = piece;
+      pathPositions[g] = position;
+      int result = search(g + 1, childHeuristic, threshold, piece);
+      if (result == FOUND) {
+        return FOUND;
+      }
+      state.undo(piece, oldPosition);
+      minExceeded = Math.min(minExceeded, result);
+    }
+    return minExceeded;
+  }
+
+  private long tableBytes() {
+    return table != null ? table.memoryUsageBytes() : 0;
+  }
+
+  /**
+   * Stores the lowest g seen for a state in the transposition table.
+   * Entries are g << 1 | expanded, and unexpandedEntries counts the
+   * states that were only cut off by the bound.
+   */
+  private void record(long key, int g, boolean expandedNow) {
+    if (table == null) {
+      return;
+    }
+    int entry = table.get(key, -1);
+    if (entry < 0) {
+      if (table.size() >= tableCapacity) {
+        tableSaturated = true;
+        return;
+      }
+    } else if ((entry & 1) == 0) {
+      unexpandedEntries--;
+    }
+    if (!expandedNow) {
+      unexpandedEntries++;
+    }
+    table.put(key, (g << 1) | (expandedNow ? 1 : 0));
+  }
+
+  /**
+   * Gets the move buffer for a depth, growing the per-depth arrays as needed.
+   */
+  private MoveBuffer movesAt(int depth) {
+    if (depth >= moveStack.length) {
+      moveStack = Arrays.copyOf(moveStack, depth * 2);
+      pathPieces = Arrays.copyOf(pathPieces, depth * 2);
+      pathPositions = Arrays.copyOf(pathPositions, depth * 2);
+    }
+    if (moveStack[depth] == null) {
+      moveStack[depth] = new MoveBuffer();
+    }
+    return moveStack[depth];
+  }
+
+  /**
+   * Replays the moves on the recursion path to build the usual Node chain.
+   */
+  private Node buildGoalNode(GameState initialState, int rootHeuristic) {
+    Node node = new Node(initialState);
+    node.setHeuristicValue(rootHeuristic);
+    for (int d = 0; d < solutionDepth; d++) {
+      GameState next = node.getState().withPiecePosition(pathPieces[d], pathPositions[d]);
+      node = new Node(next, node, d + 1, heuristic.calculate(next), pathPieces[d]);
+    }
+    return node;
+  }
+
+  @Override
+  public String getAlgorithmName() {
+    return "Iterative Deepening A*";
+  }
+}
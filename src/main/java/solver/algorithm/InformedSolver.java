@@ -1,6 +1,12 @@
 package solver.algorithm;
 
+import solver.heuristic.CachingHeuristic;
+import logic.GameState;
+import logic.MoveBuffer;
+import logic.Node;
 import solver.heuristic.Heuristic;
+import solver.heuristic.IncrementalHeuristic;
+import solver.heuristic.PatternDatabaseHeuristic;
 
 /**
  * Abstract base class for informed search algorithms that use heuristics.
@@ -38,9 +44,76 @@ public abstract class InformedSolver extends Solver {
     this.heuristic = heuristic;
   }
   
+  /**
+   * Builds whatever the heuristic precomputes for this puzzle, like a
+   * pattern database, under the search's budget and cancellation. Call it
+   * right after startBudget so the build counts toward the time limit.
+   * 
+   * @param initialState The starting game state
+   * @return false if the search was stopped during the build
+   */
+  protected boolean prepareHeuristic(GameState initialState) {
+    Heuristic target = heuristic;
+    if (target instanceof CachingHeuristic) {
+      target = ((CachingHeuristic) target).getDelegate();
+    }
+    if (target instanceof PatternDatabaseHeuristic) {
+      return ((PatternDatabaseHeuristic) target).prepare(initialState, () -> shouldStop(0, 0));
+    }
+    return true;
+  }
+  
+  /**
+   * Records an empty result for a search stopped before it expanded
+   * anything, e.g. while the heuristic was being prepared.
+   * 
+   * @param startTime When solve was called
+   * @return null, for solve to return
+   */
+  protected Node stoppedBeforeSearch(long startTime) {
+    setSolution((Node) null);
+    this.nodesExplored = 0;
+    this.maxQueueSize = 0;
+    this.visitedSetBytes = 0;
+    this.duplicatesPruned = 0;
+    this.stalePops = 0;
+    this.executionTimeMs = System.currentTimeMillis() - startTime;
+    finishStatus(null);
+    return null;
+  }
+  
+  /**
+   * Calculates the heuristic of the state produced by the i-th buffered move.
+   * An incremental heuristic updates the parent's value from the move alone,
+   * any other heuristic evaluates the child state.
+   * 
+   * @param parent The node that was expanded, holding its own heuristic value
+   * @param moves The buffer filled by GameLogic.expandSuccessors
+   * @param i Index of the move in the buffer
+   * @param child The state produced by the move
+   * @return The heuristic value of the child state
+   */
+  protected int childHeuristic(Node parent, MoveBuffer moves, int i, GameState child) {
+    if (heuristic instanceof IncrementalHeuristic) {
+      return ((IncrementalHeuristic) heuristic).calculateAfterMove(parent.getState(),
+          parent.getHeuristicValue(), moves.getPieceIndex(i), moves.getPosition(i));
+    }
+    return heuristic.calculate(child);
+  }
+  
   @Override
   public void printStatistics() {
     super.printStatistics();
     System.out.println("Heuristik: " + heuristic.getName());
+    if (heuristic instanceof PatternDatabaseHeuristic) {
+      PatternDatabaseHeuristic pdb = (PatternDatabaseHeuristic) heuristic;
+      System.out.println("Pattern database: " + pdb.getPatternSize() + " Block, "
+          + (pdb.getTableBytes() / 1024) + " KB, dibangun dalam " + pdb.getBuildTimeMs() + " ms");
+    }
+    if (heuristic instanceof CachingHeuristic) {
+      CachingHeuristic cache = (CachingHeuristic) heuristic;
+      System.out.printf("Cache heuristik: %.1f%% hit (%d hit, %d miss, %d eviksi)%n",
+          cache.getHitRate() * 100, cache.getHits(), cache.getMisses(), cache.getEvictions());
+    }
   }
 }
\ No newline at end of file
@@ -0,0 +1,316 @@
+package solver.algorithm;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import logic.GameLogic;
+import logic.GameState;
+import logic.MoveBuffer;
+import logic.Node;
+import solver.heuristic.BlockingPiecesHeuristic;
+import solver.heuristic.Heuristic;
+import solver.structure.Frontier;
+import solver.structure.Hashing;
+import solver.structure.LongIntOpenHashMap;
+
+/**
+ * Implementation of Hash Distributed A* (HDA*).
+ * Every state is owned by exactly one worker thread, chosen by hashing its
+ * key. Each worker has its own open list and its own table of best known g
+ * values. Successors are sent to their owner through lock-free
+ * ConcurrentLinkedQueue inboxes, so no lock is held during the search.
+ *
+ * Termination: a global counter tracks nodes that are in an inbox or an
+ * open list. A worker adds a node's successors to the counter before it
+ * removes the node itself, so the counter only reaches zero once no work
+ * is left anywhere.
+ *
+ * Optimality: the cheapest goal found so far (the incumbent) is shared by
+ * all workers. Nodes with f >= incumbent cost are pruned, and a state is
+ * re-opened whenever it is reached with a lower g. The search runs until
+ * no work remains, so with an admissible heuristic the incumbent is
+ * optimal, even though workers do not expand nodes in global f order.
+ */
+public class ParallelAStarSolver extends InformedSolver {
+  private final int threadCount;
+
+  /**
+   * Constructor with specified heuristic and number of worker threads.
+   *
+   * @param heuristic The heuristic to use for search, must be safe to call from several threads
+   * @param threadCount Number of worker threads
+   */
+  public ParallelAStarSolver(Heuristic heuristic, int threadCount) {
+    super(heuristic);
+    if (threadCount < 1) {
+      throw new IllegalArgumentException("Thread count must be at least 1: " + threadCount);
+    }
+    this.threadCount = threadCount;
+  }
+
+  /**
+   * Constructor with specified heuristic, using one worker per available core.
+   *
+   * @param heuristic The heuristic to use for search
+   */
+  public ParallelAStarSolver(Heuristic heuristic) {
+    this(heuristic, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Default constructor using BlockingPiecesHeuristic.
+   */
+  public ParallelAStarSolver() {
+    this(new BlockingPiecesHeuristic());
+  }
+
+  /**
+   * Gets the number of worker threads.
+   *
+   * @return Number of workers
+   */
+  public int getThreadCount() {
+    return threadCount;
+  }
+
+  @Override
+  /**
+   * Solves the Rush Hour puzzle using parallel A*.
+   *
+   * @param initialState The starting game state
+   * @return The goal node containing the solution path, or null if no solution found
+   */
+  public Node solve(GameState initialState) {
+    long startTime = System.currentTimeMillis();
+    startBudget();
+    if (!prepareHeuristic(initialState)) {
+      return stoppedBeforeSearch(startTime);
+    }
+
+    Search search = new Search();
+    Worker[] workers = new Worker[threadCount];
+    for (int i = 0; i < threadCount; i++) {
+      workers[i] = new Worker(i, search, workers);
+    }
+
+    Node startNode = new Node(initialState);
+    startNode.setHeuristicValue(heuristic.calculate(initialState));
+    if (startNode.getHeuristicValue() != Integer.MAX_VALUE) {
+      search.pending.incrementAndGet();
+      workers[ownerOf(initialState.getStateKey())].inbox.add(startNode);
+    }
+
+    Thread[] threads = new Thread[threadCount];
+    for (int i = 0; i < threadCount; i++) {
+      threads[i] = new Thread(workers[i], "hda-worker-" + i);
+      threads[i].start();
+    }
+    for (Thread thread : threads) {
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        search.failure.compareAndSet(null, e);
+        for (Thread t : threads) {
+          t.interrupt();
+        }
+      }
+    }
+    if (search.failure.get() != null) {
+      throw new IllegalStateException("Parallel A* worker failed", search.failure.get());
+    }
+
+    int nodesExplored = 0;
+    long visitedBytes = 0;
+    int duplicatesPruned = 0;
+    int stalePops = 0;
+    for (Worker worker : workers) {
+      nodesExplored += worker.expanded;
+      visitedBytes += worker.bestG.memoryUsageBytes();
+      duplicatesPruned += worker.duplicatesPruned;
+      stalePops += worker.stalePops;
+    }
+
+    Node goal = search.incumbent.get();
+    setSolution(goal);
+    this.nodesExplored = nodesExplored;
+    this.executionTimeMs = System.currentTimeMillis() - startTime;
+    this.maxQueueSize = (int) Math.min(Integer.MAX_VALUE, search.maxPending.get());
+    this.visitedSetBytes = visitedBytes;
+    this.duplicatesPruned = duplicatesPruned;
+    this.stalePops = stalePops;
+    finishStatus(goal);
+    return goal;
+  }
+
+  private int ownerOf(long key) {
+    return (Hashing.mix(key) & Integer.MAX_VALUE) % threadCount;
+  }
+
+  /**
+   * State shared by all workers of one search.
+   */
+  private static final class Search {
+    // Nodes sitting in an inbox or an open list
+    final AtomicLong pending = new AtomicLong();
+    final AtomicLong maxPending = new AtomicLong();
+    final AtomicReference<Node> incumbent = new AtomicReference<>();
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    int incumbentCost() {
+      Node goal = incumbent.get();
+      return goal == null ? Integer.MAX_VALUE : goal.getCost();
+    }
+
+    void offerGoal(Node goal) {
+      Node current;
+      do {
+        current = incumbent.get();
+        if (current != null && current.getCost() <= goal.getCost()) {
+          return;
+        }
+      } while (!incumbent.compareAndSet(current, goal));
+    }
+  }
+
+  /**
+   * One worker thread, owning the states whose key hashes to its id.
+   */
+  private final class Worker implements Runnable {
+    private final int id;
+    private final Search search;
+    private final Worker[] workers;
+    final ConcurrentLinkedQueue<Node> inbox = new ConcurrentLinkedQueue<>();
+
+    // Only touched by this worker's thread
+    final LongIntOpenHashMap bestG = new LongIntOpenHashMap();
+    final BudgetClock clock = new BudgetClock();
+    private final Frontier open;
+    private final MoveBuffer moves = new MoveBuffer();
+    int expanded;
+    int duplicatesPruned;
+    int stalePops;
+
+    Worker(int id, Search search, Worker[] workers) {
+      this.id = id;
+      this.search = search;
+      this.workers = workers;
+      this.open = createFrontier(Node::getTotalCost, Node::getHeuristicValue);
+    }
+
+    @Override
+    public void run() {
+      try {
+        int idleRounds = 0;
+        while (!Thread.currentThread().isInterrupted() && !budgetExceeded()) {
+          Node received;
+          while ((received = inbox.poll()) != null) {
+            receive(received);
+          }
+
+          if (open.isEmpty()) {
+            if (search.pending.get() == 0 || search.failure.get() != null) {
+              return;
+            }
+            // Back off gently while other workers still hold work
+            if (++idleRounds < 64) {
+              Thread.onSpinWait();
+            } else {
+              LockSupport.parkNanos(20_000);
+            }
+            continue;
+          }
+          idleRounds = 0;
+          expand(open.poll());
+        }
+      } catch (Throwable t) {
+        search.failure.compareAndSet(null, t);
+      }
+    }
+
+    /**
+     * Puts a node owned by this worker into the open list, unless the state
+     * is already known with an equal or lower g.
+     */
+    private void receive(Node node) {
+      long key = node.getState().getStateKey();
+      if (node.getCost() >= bestG.get(key, Integer.MAX_VALUE)) {
+        duplicatesPruned++;
+        search.pending.decrementAndGet();
+        return;
+      }
+      bestG.put(key, node.getCost());
+      open.add(node);
+    }
+
+    /**
+     * Checks the budget against this worker's share scaled by the number of
+     * workers. Hashing spreads states evenly, so this tracks the total
+     * closely without any shared counter.
+     */
+    private boolean budgetExceeded() {
+      long storedNodes = (long) (bestG.size() + open.size()) * threadCount;
+      long memory = estimateMemory(bestG.memoryUsageBytes() * threadCount, storedNodes);
+      return shouldStop((int) Math.min(Integer.MAX_VALUE, (long) expanded * threadCount), memory, clock);
+    }
+
+    private void expand(Node current) {
+      long key = current.getState().getStateKey();
+      int incumbentCost = search.incumbentCost();
+
+      // A cheaper copy of this state was received after this one
+      if (current.getCost() > bestG.get(key, Integer.MAX_VALUE)) {
+        stalePops++;
+        search.pending.decrementAndGet();
+        return;
+      }
+      if (current.getTotalCost() >= incumbentCost) {
+        search.pending.decrementAndGet();
+        return;
+      }
+      if (current.isGoalState()) {
+        search.offerGoal(current);
+        search.pending.decrementAndGet();
+        return;
+      }
+      expanded++;
+
+      GameLogic.expandSuccessors(current.getState(), moves);
+      int g = current.getCost() + 1;
+      for (int i = 0; i < moves.size(); i++) {
+        GameState next = applyMove(current, moves, i);
+        int h = childHeuristic(current, moves, i, next);
+        if (h == Integer.MAX_VALUE || g + h >= search.incumbentCost()) {
+          continue;
+        }
+
+        Node child = new Node(next, current, g, h, moves.getPieceIndex(i));
+        if (child.isGoalState()) {
+          // Its g is already the cost of a full solution, no need to queue it
+          search.offerGoal(child);
+          continue;
+        }
+        search.pending.incrementAndGet();
+        int owner = ownerOf(next.getStateKey());
+        if (owner == id) {
+          receive(child);
+        } else {
+          workers[owner].inbox.add(child);
+        }
+      }
+
+      // Children are counted before the parent is removed, so pending never hits 0 early
+      long pending = search.pending.decrementAndGet();
+      if (pending > search.maxPending.get()) {
+        search.maxPending.accumulateAndGet(pending, Math::max);
+      }
+    }
+  }
+
+  @Override
+  public String getAlgorithmName() {
+    return "Parallel A* (HDA*)";
+  }
+}
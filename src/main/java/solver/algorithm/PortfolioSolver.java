@@ -0,0 +1,419 @@
+package solver.algorithm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import logic.GameState;
+import logic.Node;
+import solver.heuristic.BlockingPiecesHeuristic;
+import solver.heuristic.CombinedHeuristic;
+import solver.heuristic.Heuristic;
+
+/**
+ * Runs several solver configurations on the same puzzle in parallel, one
+ * thread each, and keeps the result of the winner.
+ *
+ * In FIRST_SOLUTION mode the first configuration to find any solution wins.
+ * In BEST_BY_DEADLINE mode the portfolio waits until every configuration
+ * has finished or the deadline has passed, and the shortest solution wins.
+ * Either way the configurations still running are stopped with
+ * {@link Solver#cancel()}. Anytime members stopped this way still hand back
+ * their best solution so far, which can win in BEST_BY_DEADLINE mode.
+ *
+ * Every member gets the portfolio's budget, and the budget's time limit
+ * also bounds the race itself.
+ */
+public class PortfolioSolver extends Solver {
+  /**
+   * How the portfolio picks its result.
+   */
+  public enum Mode {
+    /** Return as soon as any configuration finds a solution. */
+    FIRST_SOLUTION,
+    /** Wait for all configurations or the deadline and return the shortest solution. */
+    BEST_BY_DEADLINE
+  }
+
+  // Time given to cancelled members to notice the flag before their threads are interrupted
+  private static final long SHUTDOWN_GRACE_MS = 5000;
+
+  // How often the waiting thread checks the portfolio's own cancellation token
+  private static final long CANCEL_POLL_MS = 50;
+
+  private final List<Supplier<? extends Solver>> configurations = new ArrayList<>();
+  private Mode mode = Mode.FIRST_SOLUTION;
+  private long deadlineMs;
+
+  private List<MemberResult> memberResults = Collections.emptyList();
+  private MemberResult winner;
+
+  /**
+   * Creates an empty portfolio. Add configurations with {@link #addConfiguration}.
+   */
+  public PortfolioSolver() {
+  }
+
+  /**
+   * Creates the default portfolio: greedy search with Blocking Pieces for
+   * fast answers, and A* with Blocking Pieces and Combined for good ones.
+   *
+   * @return A portfolio with three configurations
+   */
+  public static PortfolioSolver withDefaultConfigurations() {
+    PortfolioSolver portfolio = new PortfolioSolver();
+    portfolio.addConfiguration(BestFSolver::new, BlockingPiecesHeuristic::new);
+    portfolio.addConfiguration(AStarSolver::new, BlockingPiecesHeuristic::new);
+    portfolio.addConfiguration(AStarSolver::new, CombinedHeuristic::new);
+    return portfolio;
+  }
+
+  /**
+   * Adds a configuration of an informed solver and a heuristic. Fresh
+   * instances are created for every solve call, since a cancelled solver
+   * stays cancelled.
+   *
+   * @param algorithm Creates the solver for a heuristic, e.g. AStarSolver::new
+   * @param heuristic Creates the heuristic, e.g. CombinedHeuristic::new
+   */
+  public void addConfiguration(Function<Heuristic, ? extends Solver> algorithm,
+                               Supplier<? extends Heuristic> heuristic) {
+    configurations.add(() -> algorithm.apply(heuristic.get()));
+  }
+
+  /**
+   * Adds a configuration that needs no heuristic, e.g. UCSolver::new.
+   *
+   * @param solver Creates the solver
+   */
+  public void addConfiguration(Supplier<? extends Solver> solver) {
+    configurations.add(solver);
+  }
+
+  /**
+   * Sets how the result is picked.
+   *
+   * @param mode The selection mode
+   */
+  public void setMode(Mode mode) {
+    this.mode = mode;
+  }
+
+  /**
+   * Sets the wall-clock limit of a solve call. In FIRST_SOLUTION mode it is
+   * only an upper bound; in BEST_BY_DEADLINE mode the portfolio waits until
+   * then for better solutions.
+   *
+   * @param deadlineMs Limit in milliseconds, 0 for none
+   */
+  public void setDeadlineMs(long deadlineMs) {
+    this.deadlineMs = deadlineMs;
+  }
+
+  @Override
+  /**
+   * Races all configurations on the puzzle.
+   *
+   * @param initialState The starting game state
+   * @return The goal node of the winning configuration, or null if none found a solution
+   */
+  public Node solve(GameState initialState) {
+    if (configurations.isEmpty()) {
+      throw new IllegalStateException("Portfolio has no configurations");
+    }
+    long startTime = System.currentTimeMillis();
+    startBudget();
+    long deadline = deadlineMs > 0 ? startTime + deadlineMs : Long.MAX_VALUE;
+    if (getBudget().hasTimeLimit()) {
+      deadline = Math.min(deadline, startTime + getBudget().getTimeLimitMs());
+    }
+
+    int count = configurations.size();
+    Solver[] members = new Solver[count];
+    for (int i = 0; i < count; i++) {
+      members[i] = configurations.get(i).get();
+      members[i].setBudget(getBudget());
+    }
+
+    Node[] goals = new Node[count];
+    Throwable[] failures = new Throwable[count];
+    boolean[] finished = new boolean[count];
+
+    ExecutorService pool = Executors.newFixedThreadPool(count, runnable -> {
+      Thread thread = new Thread(runnable, "portfolio-member");
+      thread.setDaemon(true);
+      return thread;
+    });
+    CompletionService<Integer> completion = new ExecutorCompletionService<>(pool);
+    for (int i = 0; i < count; i++) {
+      final int index = i;
+      completion.submit(() -> {
+        try {
+          goals[index] = members[index].solve(initialState);
+        } catch (RuntimeException | Error e) {
+          // A failed member simply drops out of the race
+          failures[index] = e;
+        }
+        return index;
+      });
+    }
+
+    int winnerIndex = -1;
+    boolean timedOut = false;
+    try {
+      int remaining = count;
+      while (remaining > 0 && !isCancelled()) {
+        long now = System.currentTimeMillis();
+        if (now >= deadline) {
+          timedOut = true;
+          break;
+        }
+        Future<Integer> done = completion.poll(Math.min(CANCEL_POLL_MS, deadline - now), TimeUnit.MILLISECONDS);
+        if (done == null) {
+          continue;
+        }
+        remaining--;
+
+        int index = done.get();
+        finished[index] = true;
+
+        Node goal = goals[index];
+        if (goal != null && (winnerIndex < 0 || goal.getCost() < goals[winnerIndex].getCost())) {
+          winnerIndex = index;
+        }
+        if (winnerIndex >= 0 && mode == Mode.FIRST_SOLUTION) {
+          break;
+        }
+      }
+    } catch (ExecutionException e) {
+      // Members catch their own failures, so this only happens on a bug in the portfolio itself
+      throw new IllegalStateException("Portfolio member task failed", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      cancelAll(members);
+      pool.shutdown();
+      try {
+        if (!pool.awaitTermination(SHUTDOWN_GRACE_MS, TimeUnit.MILLISECONDS)) {
+          pool.shutdownNow();
+        }
+      } catch (InterruptedException e) {
+        pool.shutdownNow();
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    // Members cancelled at the deadline can still return their best solution
+    // so far while the pool shuts down; it counts unless a first solution already won
+    boolean[] stopped = new boolean[count];
+    if (mode == Mode.BEST_BY_DEADLINE || winnerIndex < 0) {
+      Future<Integer> late;
+      while ((late = completion.poll()) != null) {
+        int index;
+        try {
+          index = late.get();
+        } catch (ExecutionException e) {
+          throw new IllegalStateException("Portfolio member task failed", e.getCause());
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+        if (finished[index]) {
+          continue;
+        }
+        stopped[index] = true;
+        Node goal = goals[index];
+        if (goal != null && (winnerIndex < 0 || goal.getCost() < goals[winnerIndex].getCost())) {
+          winnerIndex = index;
+        }
+      }
+    }
+
+    // Record how every configuration did, and aggregate the work of all of them
+    List<MemberResult> results = new ArrayList<>(count);
+    int nodesExplored = 0;
+    int maxQueueSize = 0;
+    long visitedBytes = 0;
+    for (int i = 0; i < count; i++) {
+      Solver member = members[i];
+      results.add(new MemberResult(describe(member), finished[i], i == winnerIndex,
+          (finished[i] || stopped[i]) && goals[i] != null ? goals[i].getCost() : -1,
+          member.getNodesExplored(), member.getExecutionTimeMs(), failures[i]));
+      nodesExplored += member.getNodesExplored();
+      maxQueueSize = Math.max(maxQueueSize, member.getMaxQueueSize());
+      visitedBytes += member.getVisitedSetBytes();
+    }
+    this.memberResults = Collections.unmodifiableList(results);
+    this.winner = winnerIndex >= 0 ? results.get(winnerIndex) : null;
+
+    Node goal = winnerIndex >= 0 ? goals[winnerIndex] : null;
+    setSolution(goal != null ? members[winnerIndex].getSolution() : null);
+    this.nodesExplored = nodesExplored;
+    this.maxQueueSize = maxQueueSize;
+    this.visitedSetBytes = visitedBytes;
+    this.executionTimeMs = System.currentTimeMillis() - startTime;
+    finishRace(members, finished, winnerIndex, stopped[Math.max(winnerIndex, 0)], timedOut);
+    return goal;
+  }
+
+  /**
+   * Summarizes the race: solved if anyone won (best so far if the winner
+   * itself was stopped early), otherwise why it ended. If every member ran
+   * to completion, the first member stopped by its own budget decides; only
+   * when all of them exhausted the search is there no solution.
+   */
+  private void finishRace(Solver[] members, boolean[] finished, int winnerIndex,
+                          boolean winnerStopped, boolean timedOut) {
+    if (winnerIndex >= 0) {
+      Solver winner = members[winnerIndex];
+      if (winnerStopped && winner.getStatus() == SearchStatus.BEST_SO_FAR) {
+        // The portfolio cancelled it, so report why the race ended rather than CANCELLED
+        finishStatus(SearchStatus.BEST_SO_FAR, isCancelled() || !timedOut
+            ? SearchStatus.CANCELLED : SearchStatus.TIMEOUT);
+      } else if (winner.getStatus() == SearchStatus.BEST_SO_FAR) {
+        finishStatus(SearchStatus.BEST_SO_FAR, winner.getStopReason());
+      } else {
+        finishStatus(SearchStatus.SOLVED, null);
+      }
+      return;
+    }
+    if (isCancelled()) {
+      finishStatus(SearchStatus.CANCELLED, SearchStatus.CANCELLED);
+      return;
+    }
+    if (timedOut) {
+      finishStatus(SearchStatus.TIMEOUT, SearchStatus.TIMEOUT);
+      return;
+    }
+    for (int i = 0; i < members.length; i++) {
+      if (finished[i] && members[i].getStatus().isPartial()) {
+        finishStatus(members[i].getStatus(), members[i].getStopReason());
+        return;
+      }
+    }
+    finishStatus(SearchStatus.NO_SOLUTION, null);
+  }
+
+  private static void cancelAll(Solver[] members) {
+    for (Solver member : members) {
+      member.cancel();
+    }
+  }
+
+  private static String describe(Solver solver) {
+    if (solver instanceof InformedSolver) {
+      return solver.getAlgorithmName() + " / " + ((InformedSolver) solver).getHeuristic().getName();
+    }
+    return solver.getAlgorithmName();
+  }
+
+  /**
+   * Gets the result of the configuration that won the last race.
+   *
+   * @return The winner, or null if no configuration found a solution
+   */
+  public MemberResult getWinner() {
+    return winner;
+  }
+
+  /**
+   * Gets the outcome of every configuration in the last race, in the
+   * order they were added.
+   *
+   * @return One result per configuration
+   */
+  public List<MemberResult> getMemberResults() {
+    return memberResults;
+  }
+
+  @Override
+  public void printStatistics() {
+    super.printStatistics();
+    System.out.println("Konfigurasi pemenang: " + (winner != null ? winner.getName() : "-"));
+    for (MemberResult result : memberResults) {
+      System.out.println("  " + result);
+    }
+  }
+
+  @Override
+  public String getAlgorithmName() {
+    return "Portfolio (" + (mode == Mode.FIRST_SOLUTION ? "first solution" : "best by deadline") + ")";
+  }
+
+  /**
+   * Outcome of one configuration in a portfolio race.
+   */
+  public static class MemberResult {
+    private final String name;
+    private final boolean finished;
+    private final boolean won;
+    private final int solutionLength;
+    private final int nodesExplored;
+    private final long executionTimeMs;
+    private final Throwable failure;
+
+    MemberResult(String name, boolean finished, boolean won, int solutionLength,
+                 int nodesExplored, long executionTimeMs, Throwable failure) {
+      this.name = name;
+      this.finished = finished;
+      this.won = won;
+      this.solutionLength = solutionLength;
+      this.nodesExplored = nodesExplored;
+      this.executionTimeMs = executionTimeMs;
+      this.failure = failure;
+    }
+
+    /** @return Algorithm and heuristic of the configuration */
+    public String getName() {
+      return name;
+    }
+
+    /** @return true if the configuration ended on its own instead of being cancelled */
+    public boolean isFinished() {
+      return finished;
+    }
+
+    /** @return true if this configuration's solution was returned */
+    public boolean isWinner() {
+      return won;
+    }
+
+    /** @return Number of moves in the solution found, or the best so far if cancelled; -1 if none */
+    public int getSolutionLength() {
+      return solutionLength;
+    }
+
+    /** @return Nodes explored before finishing or being cancelled */
+    public int getNodesExplored() {
+      return nodesExplored;
+    }
+
+    /** @return Execution time reported by the solver */
+    public long getExecutionTimeMs() {
+      return executionTimeMs;
+    }
+
+    /** @return The exception thrown by the solver, or null */
+    public Throwable getFailure() {
+      return failure;
+    }
+
+    @Override
+    public String toString() {
+      String status = failure != null ? "failed: " + failure
+          : !finished ? (solutionLength >= 0 ? "cancelled, " + solutionLength + " moves so far" : "cancelled")
+          : solutionLength >= 0 ? solutionLength + " moves" : "no solution";
+      return (won ? "* " : "") + name + ": " + status + ", " + nodesExplored + " nodes, "
+          + executionTimeMs + " ms";
+    }
+  }
+}
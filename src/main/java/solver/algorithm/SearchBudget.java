@@ -0,0 +1,88 @@
+package solver.algorithm;
+
+/**
+ * Resource limits for a single solve call: expanded nodes, estimated memory
+ * and wall-clock time. Limits that are not set are unbounded. Instances are
+ * immutable; the with methods return a copy with one limit changed.
+ */
+public final class SearchBudget {
+  /** Budget without any limit. */
+  public static final SearchBudget UNLIMITED = new SearchBudget(Integer.MAX_VALUE, Long.MAX_VALUE, 0);
+
+  private final int maxNodes;
+  private final long maxMemoryBytes;
+  private final long timeLimitMs;
+
+  private SearchBudget(int maxNodes, long maxMemoryBytes, long timeLimitMs) {
+    this.maxNodes = maxNodes;
+    this.maxMemoryBytes = maxMemoryBytes;
+    this.timeLimitMs = timeLimitMs;
+  }
+
+  /**
+   * Limits the number of nodes expanded.
+   *
+   * @param maxNodes Maximum number of expanded nodes
+   * @return A copy of this budget with the node limit set
+   */
+  public SearchBudget withMaxNodes(int maxNodes) {
+    if (maxNodes < 1) {
+      throw new IllegalArgumentException("Node limit must be at least 1: " + maxNodes);
+    }
+    return new SearchBudget(maxNodes, maxMemoryBytes, timeLimitMs);
+  }
+
+  /**
+   * Limits the estimated memory held by the search: its visited set and
+   * lookup tables plus a fixed estimate per stored node.
+   *
+   * @param maxMemoryBytes Maximum estimated memory in bytes
+   * @return A copy of this budget with the memory limit set
+   */
+  public SearchBudget withMaxMemoryBytes(long maxMemoryBytes) {
+    if (maxMemoryBytes < 1) {
+      throw new IllegalArgumentException("Memory limit must be positive: " + maxMemoryBytes);
+    }
+    return new SearchBudget(maxNodes, maxMemoryBytes, timeLimitMs);
+  }
+
+  /**
+   * Limits the wall-clock time of a solve call, counted from when it starts.
+   *
+   * @param timeLimitMs Time limit in milliseconds
+   * @return A copy of this budget with the time limit set
+   */
+  public SearchBudget withTimeLimitMs(long timeLimitMs) {
+    if (timeLimitMs < 1) {
+      throw new IllegalArgumentException("Time limit must be positive: " + timeLimitMs);
+    }
+    return new SearchBudget(maxNodes, maxMemoryBytes, timeLimitMs);
+  }
+
+  /** @return Maximum number of expanded nodes, Integer.MAX_VALUE if unlimited */
+  public int getMaxNodes() {
+    return maxNodes;
+  }
+
+  /** @return Maximum estimated memory in bytes, Long.MAX_VALUE if unlimited */
+  public long getMaxMemoryBytes() {
+    return maxMemoryBytes;
+  }
+
+  /** @return Time limit in milliseconds, 0 if unlimited */
+  public long getTimeLimitMs() {
+    return timeLimitMs;
+  }
+
+  /** @return true if a time limit is set */
+  public boolean hasTimeLimit() {
+    return timeLimitMs > 0;
+  }
+
+  @Override
+  public String toString() {
+    return "SearchBudget[maxNodes=" + (maxNodes == Integer.MAX_VALUE ? "unlimited" : maxNodes)
+        + ", maxMemoryBytes=" + (maxMemoryBytes == Long.MAX_VALUE ? "unlimited" : maxMemoryBytes)
+        + ", timeLimitMs=" + (timeLimitMs > 0 ? timeLimitMs : "unlimited") + "]";
+  }
+}
@@ -0,0 +1,47 @@
+package solver.algorithm;
+
+/**
+ * How the last search of a solver ended. Every status other than SOLVED
+ * and NO_SOLUTION means the search stopped early, and the statistics
+ * describe the partial search up to that point.
+ */
+public enum SearchStatus {
+  /** The solver has not run yet. */
+  NOT_STARTED,
+  /** A solution was found. */
+  SOLVED,
+  /**
+   * A solution was found, but the search was stopped by its budget or
+   * cancellation before it finished, so it is only the best one so far and
+   * may not be optimal. {@link Solver#getStopReason()} says why it stopped.
+   */
+  BEST_SO_FAR,
+  /** The search space was exhausted without reaching the goal. */
+  NO_SOLUTION,
+  /** The search was stopped through its cancellation token. */
+  CANCELLED,
+  /** The budget's node limit was reached. */
+  NODE_LIMIT,
+  /** The estimated memory use passed the budget's limit. */
+  MEMORY_LIMIT,
+  /** The budget's deadline passed. */
+  TIMEOUT;
+
+  /**
+   * Checks whether the search ended before it could decide the puzzle.
+   *
+   * @return true for BEST_SO_FAR, CANCELLED and the budget limits
+   */
+  public boolean isPartial() {
+    return this != NOT_STARTED && this != SOLVED && this != NO_SOLUTION;
+  }
+
+  /**
+   * Checks whether the search returned a solution.
+   *
+   * @return true for SOLVED and BEST_SO_FAR
+   */
+  public boolean hasSolution() {
+    return this == SOLVED || this == BEST_SO_FAR;
+  }
+}
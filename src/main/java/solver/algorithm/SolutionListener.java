@@ -0,0 +1,21 @@
+package solver.algorithm;
+
+import logic.Node;
+
+/**
+ * Receives the solutions of an anytime search as they improve. Called on the
+ * solving thread, so implementations should return quickly and hand work
+ * for a UI thread off to that thread.
+ */
+@FunctionalInterface
+public interface SolutionListener {
+  /**
+   * Called whenever the search finds a shorter solution or proves a tighter
+   * bound on the current one.
+   *
+   * @param goal Goal node of the best solution so far; its path leads back to the initial state
+   * @param suboptimalityBound Proven upper bound on solution cost divided by optimal cost,
+   *     1.0 when the solution is optimal. Only valid with an admissible heuristic.
+   */
+  void onSolution(Node goal, double suboptimalityBound);
+}
@@ -1,30 +1,62 @@
 package solver.algorithm;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 
 import logic.GameState;
+import logic.MoveBuffer;
 import logic.Node;
+import logic.Solution;
+import solver.structure.Frontier;
+import solver.structure.FrontierType;
+import solver.structure.LongIntOpenHashMap;
+import solver.structure.LongOpenHashSet;
+import solver.structure.VisitedSet;
 
 /**
  * Abstract base class for Rush Hour puzzle solvers.
  * Provides common functionality for different search algorithms.
  */
 public abstract class Solver {
-    protected List<Node> solutionPath;
+    /** Rough heap size of one stored Node with its GameState, used for memory budgets. */
+    protected static final long ESTIMATED_NODE_BYTES = 128;
+    
+    // The clock is read only every this many budget checks or expanded nodes
+    private static final int CLOCK_CHECK_INTERVAL = 256;
+    
     protected int nodesExplored;
     protected int maxQueueSize;
     protected long executionTimeMs;
+    protected long visitedSetBytes;
+    protected int duplicatesPruned;
+    protected int stalePops;
+    protected Supplier<? extends VisitedSet> visitedSetFactory = LongOpenHashSet::new;
+    protected FrontierType frontierType = FrontierType.BUCKET;
+    protected volatile SearchStatus status = SearchStatus.NOT_STARTED;
+    private volatile CancellationToken cancellationToken = new CancellationToken();
+    private SearchBudget budget = SearchBudget.UNLIMITED;
+    
+    // Budget state of the running search, written by whichever thread hits a limit first
+    private volatile SearchStatus stopReason;
+    private volatile long deadlineNanos;
+    // Clock throttling of single-threaded searches; parallel workers pass their own
+    private final BudgetClock clock = new BudgetClock();
+    
+    // Only the moves of the solution are kept, so the search's nodes can be collected
+    private Solution solution;
     
     /**
      * Constructor.
      */
     public Solver() {
-        solutionPath = new ArrayList<>();
         nodesExplored = 0;
         maxQueueSize = 0;
         executionTimeMs = 0;
+        visitedSetBytes = 0;
+        duplicatesPruned = 0;
+        stalePops = 0;
     }
     
     /**
@@ -36,12 +68,55 @@ public abstract class Solver {
     public abstract Node solve(GameState initialState);
     
     /**
-     * Gets the solution path from initial state to goal.
+     * Gets the solution path from initial state to goal. The nodes are rebuilt
+     * from the stored solution on every call, so prefer {@link #getSolution()}
+     * when the path is only replayed or displayed.
      * 
-     * @return List of nodes representing the solution path
+     * @return List of nodes representing the solution path, empty if no solution was found
      */
     public List<Node> getSolutionPath() {
-        return solutionPath;
+        List<Node> path = new ArrayList<>();
+        if (solution == null) {
+            return path;
+        }
+        Node current = new Node(solution.getInitialState());
+        path.add(current);
+        for (int i = 0; i < solution.getMoveCount(); i++) {
+            int piece = solution.getMovedPiece(i);
+            GameState next = current.getState().withPiecePosition(piece, solution.getNewPosition(i));
+            current = new Node(next, current, i + 1, 0, piece);
+            path.add(current);
+        }
+        return path;
+    }
+    
+    /**
+     * Gets the solution as the initial state plus its moves. Boards for any
+     * step are rebuilt on demand.
+     * 
+     * @return The solution, or null if no solution was found
+     */
+    public Solution getSolution() {
+        return solution;
+    }
+    
+    /**
+     * Records the solution ending at the given goal node. Only the moves are
+     * kept, so the search's nodes are not held after solve returns.
+     * 
+     * @param goalNode The goal node, or null if no solution was found
+     */
+    protected void setSolution(Node goalNode) {
+        this.solution = goalNode != null ? Solution.fromPath(goalNode) : null;
+    }
+    
+    /**
+     * Records a solution found by another solver, like a portfolio member.
+     * 
+     * @param solution The solution, or null if no solution was found
+     */
+    protected void setSolution(Solution solution) {
+        this.solution = solution;
     }
     
     /**
@@ -71,6 +146,289 @@ public abstract class Solver {
         return executionTimeMs;
     }
     
+    /**
+     * Gets the approximate memory used by the visited set in the last search.
+     * 
+     * @return Size in bytes
+     */
+    public long getVisitedSetBytes() {
+        return visitedSetBytes;
+    }
+    
+    /**
+     * Asks a running search to stop by cancelling the solver's token. Safe to
+     * call from any thread; the search checks the token in its main loop and
+     * returns null with status CANCELLED and the statistics gathered so far.
+     * The solver stays cancelled until it is given a new token.
+     */
+    public void cancel() {
+        cancellationToken.cancel();
+    }
+    
+    /**
+     * Checks whether the solver's token has been cancelled.
+     * 
+     * @return true if the search should stop
+     */
+    public boolean isCancelled() {
+        return cancellationToken.isCancelled();
+    }
+    
+    /**
+     * Sets the token checked by the search. Sharing one token between
+     * solvers lets a single call stop all of them.
+     * 
+     * @param cancellationToken The token to check
+     */
+    public void setCancellationToken(CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+    }
+    
+    /**
+     * Gets the token checked by the search.
+     * 
+     * @return The cancellation token
+     */
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+    
+    /**
+     * Sets the resource limits applied to each solve call.
+     * Defaults to {@link SearchBudget#UNLIMITED}.
+     * 
+     * @param budget The limits
+     */
+    public void setBudget(SearchBudget budget) {
+        this.budget = budget;
+    }
+    
+    /**
+     * Gets the resource limits applied to each solve call.
+     * 
+     * @return The limits
+     */
+    public SearchBudget getBudget() {
+        return budget;
+    }
+    
+    /**
+     * Gets how the last search ended. When the status is partial, the
+     * statistics describe the search up to the point where it stopped.
+     * 
+     * @return The status of the last search
+     */
+    public SearchStatus getStatus() {
+        return status;
+    }
+    
+    /**
+     * Gets why the last search stopped early. A search with status
+     * BEST_SO_FAR keeps the reason here, since its status only says that
+     * the solution may not be optimal.
+     * 
+     * @return CANCELLED or the budget limit that was hit, or null if the search ran to completion
+     */
+    public SearchStatus getStopReason() {
+        return stopReason;
+    }
+    
+    /**
+     * Starts the budget clock. Called once at the beginning of solve.
+     */
+    protected void startBudget() {
+        stopReason = null;
+        status = SearchStatus.NOT_STARTED;
+        clock.reset();
+        deadlineNanos = budget.hasTimeLimit()
+            ? System.nanoTime() + budget.getTimeLimitMs() * 1_000_000L
+            : Long.MAX_VALUE;
+    }
+    
+    /**
+     * Checks the cancellation token and the budget. Cheap enough to call for
+     * every expanded node: the clock is only read every few hundred calls
+     * or expanded nodes, whichever comes first.
+     * Only for the thread running solve; worker threads use
+     * {@link #shouldStop(int, long, BudgetClock)}.
+     * 
+     * @param nodesExplored Nodes expanded so far
+     * @param memoryEstimateBytes Estimated memory held by the search
+     * @return true if the search should stop
+     */
+    protected boolean shouldStop(int nodesExplored, long memoryEstimateBytes) {
+        return shouldStop(nodesExplored, memoryEstimateBytes, clock);
+    }
+    
+    /**
+     * Checks the cancellation token and the budget, throttling clock reads
+     * with the given clock. Safe to call from several worker threads of one
+     * search as long as each worker passes its own clock; the first limit
+     * any of them hits becomes the stop reason.
+     * 
+     * @param nodesExplored Nodes expanded so far
+     * @param memoryEstimateBytes Estimated memory held by the search
+     * @param clock The calling thread's clock state
+     * @return true if the search should stop
+     */
+    protected boolean shouldStop(int nodesExplored, long memoryEstimateBytes, BudgetClock clock) {
+        if (stopReason != null) {
+            return true;
+        }
+        if (cancellationToken.isCancelled()) {
+            stopReason = SearchStatus.CANCELLED;
+        } else if (nodesExplored >= budget.getMaxNodes()) {
+            stopReason = SearchStatus.NODE_LIMIT;
+        } else if (memoryEstimateBytes > budget.getMaxMemoryBytes()) {
+            stopReason = SearchStatus.MEMORY_LIMIT;
+        } else if (deadlineNanos != Long.MAX_VALUE
+                && (--clock.countdown <= 0 || nodesExplored - clock.checkedAtNodes >= CLOCK_CHECK_INTERVAL)) {
+            clock.countdown = CLOCK_CHECK_INTERVAL;
+            clock.checkedAtNodes = nodesExplored;
+            if (System.nanoTime() - deadlineNanos >= 0) {
+                stopReason = SearchStatus.TIMEOUT;
+            }
+        }
+        return stopReason != null;
+    }
+    
+    /**
+     * Per-thread countdown that decides when {@link #shouldStop} reads the
+     * clock. Not thread-safe; every worker thread of a search keeps its own.
+     */
+    protected static final class BudgetClock {
+        private int countdown;
+        private int checkedAtNodes;
+        
+        void reset() {
+            countdown = 0;
+            checkedAtNodes = 0;
+        }
+    }
+    
+    /**
+     * Sets the status of the finished search from its result and from the
+     * reason it stopped, if any. A goal returned by a search that was stopped
+     * early is an incumbent that was never proven optimal.
+     * 
+     * @param goal The goal node found, or null
+     */
+    protected void finishStatus(Node goal) {
+        SearchStatus reason = stopReason;
+        if (goal != null) {
+            status = reason != null ? SearchStatus.BEST_SO_FAR : SearchStatus.SOLVED;
+        } else {
+            status = reason != null ? reason : SearchStatus.NO_SOLUTION;
+        }
+    }
+    
+    /**
+     * Sets the outcome of a search that was run by other solvers, like a
+     * fallback solver or the members of a portfolio.
+     * 
+     * @param status The status of the finished search
+     * @param stopReason Why it stopped early, or null if it ran to completion
+     */
+    protected void finishStatus(SearchStatus status, SearchStatus stopReason) {
+        this.stopReason = stopReason;
+        this.status = status;
+    }
+    
+    /**
+     * Estimates the memory held by a search for budget checks.
+     * 
+     * @param tableBytes Memory reported by the search's hash tables
+     * @param storedNodes Number of nodes kept alive by the search
+     * @return Estimated size in bytes
+     */
+    protected static long estimateMemory(long tableBytes, long storedNodes) {
+        return tableBytes + storedNodes * ESTIMATED_NODE_BYTES;
+    }
+    
+    /**
+     * Estimates the memory held by a best-first search: its visited set,
+     * its open index and one node per visited or queued state.
+     * 
+     * @param visited The visited set
+     * @param openIndex The best-g index of the open list, or null if the search has none
+     * @param frontier The open list
+     * @return Estimated size in bytes
+     */
+    protected static long estimateMemory(VisitedSet visited, LongIntOpenHashMap openIndex, Frontier frontier) {
+        long tableBytes = visited.memoryUsageBytes() + (openIndex != null ? openIndex.memoryUsageBytes() : 0);
+        return estimateMemory(tableBytes, (long) visited.size() + frontier.size());
+    }
+    
+    /**
+     * Gets the number of successors dropped at generation time because the
+     * same state was already in the open list with an equal or lower cost.
+     * 
+     * @return Number of pruned duplicates
+     */
+    public int getDuplicatesPruned() {
+        return duplicatesPruned;
+    }
+    
+    /**
+     * Gets the number of polled nodes that were thrown away without being
+     * expanded, because their state was already closed or had since been
+     * reached more cheaply.
+     * 
+     * @return Number of stale pops
+     */
+    public int getStalePops() {
+        return stalePops;
+    }
+    
+    /**
+     * Sets the factory used to create the visited set for each search.
+     * Defaults to {@link LongOpenHashSet}.
+     * 
+     * @param visitedSetFactory Supplier of an empty visited set
+     */
+    public void setVisitedSetFactory(Supplier<? extends VisitedSet> visitedSetFactory) {
+        this.visitedSetFactory = visitedSetFactory;
+    }
+    
+    /**
+     * Creates an empty visited set for a new search.
+     * 
+     * @return The visited set
+     */
+    protected VisitedSet createVisitedSet() {
+        return visitedSetFactory.get();
+    }
+    
+    /**
+     * Sets which frontier implementation the search uses.
+     * Defaults to {@link FrontierType#BUCKET}.
+     * 
+     * @param frontierType The frontier implementation
+     */
+    public void setFrontierType(FrontierType frontierType) {
+        this.frontierType = frontierType;
+    }
+    
+    /**
+     * Gets which frontier implementation the search uses.
+     * 
+     * @return The frontier implementation
+     */
+    public FrontierType getFrontierType() {
+        return frontierType;
+    }
+    
+    /**
+     * Creates an empty frontier of the configured type.
+     * 
+     * @param priority Primary key, lower is expanded first
+     * @param tieBreak Secondary key among equal priorities, or null for none
+     * @return The frontier
+     */
+    protected Frontier createFrontier(ToIntFunction<Node> priority, ToIntFunction<Node> tieBreak) {
+        return Frontier.create(frontierType, priority, tieBreak);
+    }
+    
     /**
      * Gets the name of the search algorithm.
      * 
@@ -79,21 +437,29 @@ public abstract class Solver {
     public abstract String getAlgorithmName();
     
     /**
-     * Builds the solution path by traversing up from the goal node.
+     * Applies the i-th buffered move to the parent node's state.
      * 
-     * @param goalNode The goal node
-     * @return The list of node
+     * @param parent The node that was expanded
+     * @param moves The buffer filled by GameLogic.expandSuccessors
+     * @param i Index of the move in the buffer
+     * @return The successor game state
      */
-    protected List<Node> buildPath(Node goalNode) {
-        LinkedList<Node> path = new LinkedList<>();
-        Node current = goalNode;
-        
-        while (current != null) {
-            path.addFirst(current);
-            current = current.getParent();
-        }
-        
-        return path;
+    protected static GameState applyMove(Node parent, MoveBuffer moves, int i) {
+        return parent.getState().withPiecePosition(moves.getPieceIndex(i), moves.getPosition(i));
+    }
+    
+    /**
+     * Computes the visited-set key of the state produced by the i-th buffered
+     * move without building that state, so closed-set lookups stay allocation-free.
+     * 
+     * @param parent The node that was expanded
+     * @param moves The buffer filled by GameLogic.expandSuccessors
+     * @param i Index of the move in the buffer
+     * @return The 64-bit key of the successor state
+     * @see GameState#getStateKey()
+     */
+    protected static long childKey(Node parent, MoveBuffer moves, int i) {
+        return parent.getState().getStateKeyAfterMove(moves.getPieceIndex(i), moves.getPosition(i));
     }
     
     /**
@@ -102,9 +468,13 @@ public abstract class Solver {
     public void printStatistics() {
         System.out.println("\n======== SOLUSI DITEMUKAN ========");
         System.out.println("Algoritma: " + getAlgorithmName());
-        System.out.println("Jumlah langkah: " + (solutionPath.size() - 1));
+        System.out.println("Status: " + status);
+        System.out.println("Jumlah langkah: " + (solution != null ? solution.getMoveCount() : 0));
         System.out.println("Jumlah simpul yang dibuat: " + nodesExplored);
         System.out.println("Ukuran frontier maksimum: " + maxQueueSize);
         System.out.println("Waktu eksekusi: " + executionTimeMs + " ms");
+        System.out.println("Memori visited set: " + (visitedSetBytes / 1024) + " KB");
+        System.out.println("Duplikat yang dipangkas: " + duplicatesPruned);
+        System.out.println("Simpul basi yang dilewati: " + stalePops);
     }
 }
\ No newline at end of file
@@ -1,58 +1,120 @@
 package solver.algorithm;
 
-import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 
 import logic.GameLogic;
 import logic.GameState;
+import logic.MoveBuffer;
 import logic.Node;
+import solver.structure.ConcurrentLongHashSet;
+import solver.structure.Frontier;
+import solver.structure.LongIntOpenHashMap;
+import solver.structure.VisitedSet;
 
 public class UCSolver extends Solver {
+  private int parallelism = 1;
+
+  // One move buffer per pool thread for the parallel mode
+  private static final ThreadLocal<MoveBuffer> THREAD_MOVES = ThreadLocal.withInitial(MoveBuffer::new);
+
+  /**
+   * Sets how many threads expand each BFS layer. With more than one thread
+   * the solver runs a level-synchronous BFS on a ForkJoinPool instead of
+   * the single-threaded priority search; both return a shortest solution.
+   * 
+   * @param parallelism Number of threads, 1 for the sequential search
+   */
+  public void setParallelism(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+    }
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Gets how many threads expand each BFS layer.
+   * 
+   * @return Number of threads
+   */
+  public int getParallelism() {
+    return parallelism;
+  }
+
   @Override
   /**
    * Generate a solution to a 
    */
   public Node solve(GameState initialState){
+    if (parallelism > 1) {
+      return solveLevelSynchronous(initialState);
+    }
     long startTime = System.currentTimeMillis();
+    startBudget();
 
-    PriorityQueue<Node> searchQueue = new PriorityQueue<>();
-    Set<GameState> visited = new HashSet<>();
+    Frontier searchQueue = createFrontier(Node::getCost, null);
+    VisitedSet visited = createVisitedSet();
+    // Best known g of every state currently in the queue
+    LongIntOpenHashMap openIndex = new LongIntOpenHashMap();
+    MoveBuffer moves = new MoveBuffer();
 
     Node startNode = new Node(initialState);
     searchQueue.add(startNode);
+    openIndex.put(initialState.getStateKey(), 0);
 
     int nodesExplored = 0;
     int maxQueueSize = 1;
-    while (!searchQueue.isEmpty()){
+    int duplicatesPruned = 0;
+    int stalePops = 0;
+    while (!searchQueue.isEmpty()
+        && !shouldStop(nodesExplored, estimateMemory(visited, openIndex, searchQueue))){
       // Pop
       Node current = searchQueue.poll();
       nodesExplored++;
 
       if (current.isGoalState()) {
-        this.solutionPath = buildPath(current);
+        setSolution(current);
         this.nodesExplored = nodesExplored;
         this.executionTimeMs = System.currentTimeMillis() - startTime;
         this.maxQueueSize = maxQueueSize;
+        this.visitedSetBytes = visited.memoryUsageBytes();
+        this.duplicatesPruned = duplicatesPruned;
+        this.stalePops = stalePops;
+        finishStatus(current);
         return current;
       }
       
-      if (visited.contains(current.getState())){
+      long key = current.getState().getStateKey();
+      if (visited.contains(key) || current.getCost() > openIndex.get(key, Integer.MAX_VALUE)){
+        stalePops++;
         continue;
       }
 
-      visited.add(current.getState());
+      visited.add(key);
+      openIndex.remove(key);
       
       // Generate all possible moves from this state
-      List<Node> successors = GameLogic.generateSuccessors(current);
+      GameLogic.expandSuccessors(current.getState(), moves);
       
       // Add all valid successors to the queue
-      for (Node successor : successors) {
-        if (!visited.contains(successor.getState())) {
-          searchQueue.add(successor);
+      for (int i = 0; i < moves.size(); i++) {
+        // Check the child key before building the child state
+        long nextKey = childKey(current, moves, i);
+        if (visited.contains(nextKey)) {
+          continue;
+        }
+
+        // Keep at most one queued copy per state unless a cheaper path shows up
+        int g = current.getCost() + 1;
+        if (g >= openIndex.get(nextKey, Integer.MAX_VALUE)) {
+          duplicatesPruned++;
+          continue;
         }
+        openIndex.put(nextKey, g);
+
+        GameState next = applyMove(current, moves, i);
+        searchQueue.add(new Node(next, current, g, 0, moves.getPieceIndex(i)));
       }
       
       // Update max queue size
@@ -63,9 +125,87 @@ public class UCSolver extends Solver {
     this.nodesExplored = nodesExplored;
     this.executionTimeMs = System.currentTimeMillis() - startTime;
     this.maxQueueSize = maxQueueSize;
+    this.visitedSetBytes = visited.memoryUsageBytes();
+    this.duplicatesPruned = duplicatesPruned;
+    this.stalePops = stalePops;
+    finishStatus(null);
     return null;
   }
   
+  /**
+   * Breadth-first search one depth layer at a time. Every move costs 1, so
+   * the first layer that contains a goal gives a shortest solution. Each
+   * layer is split across a ForkJoinPool, and a concurrent visited set makes
+   * sure every state enters exactly one layer.
+   * 
+   * @param initialState The starting game state
+   * @return The goal node, or null if no solution found
+   */
+  private Node solveLevelSynchronous(GameState initialState) {
+    long startTime = System.currentTimeMillis();
+    startBudget();
+
+    ConcurrentLongHashSet visited = new ConcurrentLongHashSet(1 << 16, 4 * parallelism);
+    Node startNode = new Node(initialState);
+    visited.add(initialState.getStateKey());
+
+    List<Node> layer = List.of(startNode);
+    Node goal = startNode.isGoalState() ? startNode : null;
+    int nodesExplored = 0;
+    int maxQueueSize = 1;
+
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      // Budgets are checked between layers; only cancellation interrupts a layer
+      while (goal == null && !layer.isEmpty()
+          && !shouldStop(nodesExplored, estimateMemory(visited.memoryUsageBytes(), visited.size()))) {
+        List<Node> current = layer;
+        layer = pool.submit(() -> current.parallelStream()
+            .<Node>mapMulti((node, next) -> {
+              if (isCancelled()) {
+                return;
+              }
+              MoveBuffer moves = THREAD_MOVES.get();
+              GameLogic.expandSuccessors(node.getState(), moves);
+              for (int i = 0; i < moves.size(); i++) {
+                // Only the thread that inserts the key keeps the successor
+                if (visited.add(childKey(node, moves, i))) {
+                  next.accept(new Node(applyMove(node, moves, i), node,
+                      node.getCost() + 1, 0, moves.getPieceIndex(i)));
+                }
+              }
+            })
+            .toList()).get();
+        nodesExplored += current.size();
+        maxQueueSize = Math.max(maxQueueSize, layer.size());
+
+        for (Node node : layer) {
+          if (node.isGoalState()) {
+            goal = node;
+            break;
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Parallel BFS interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Parallel BFS failed", e.getCause());
+    } finally {
+      pool.shutdown();
+    }
+
+    setSolution(goal);
+    this.nodesExplored = nodesExplored;
+    this.executionTimeMs = System.currentTimeMillis() - startTime;
+    this.maxQueueSize = maxQueueSize;
+    this.visitedSetBytes = visited.memoryUsageBytes();
+    this.duplicatesPruned = 0;
+    this.stalePops = 0;
+    finishStatus(goal);
+    return goal;
+  }
+
   @Override
   public String getAlgorithmName() {
     return "Uniform Cost Search";
@@ -0,0 +1,231 @@
+package solver.heuristic;
+
+import java.util.Arrays;
+
+import logic.GameState;
+import logic.Piece;
+import logic.PuzzleLayout;
+
+/**
+ * Admissible heuristic that follows chains of blockers. The primary piece
+ * must move at least once, and so must every piece crossing its path to the
+ * exit. Each of those blockers can only clear the path by sliding one way or
+ * the other along its own line, and every piece standing in the cells it
+ * would slide through has to move out of the way first. A piece that stands
+ * in the way of every escape of a piece that must move, must move as well,
+ * and the same reasoning is applied to it in turn.
+ *
+ * The value is one move for the primary piece plus one for every distinct
+ * piece found this way. Every counted piece moves at least once in any
+ * solution and each move slides a single piece, so the value never exceeds
+ * the true number of moves. A piece that has no escape in any direction
+ * makes the state unsolvable, reported as Integer.MAX_VALUE.
+ */
+public class BlockingChainHeuristic implements Heuristic {
+
+  @Override
+  public int calculate(GameState state) {
+    if (state.isPrimaryPieceAtExit()) {
+      return 0;
+    }
+
+    PuzzleLayout layout = state.getLayout();
+    Piece primaryPiece = layout.getPrimaryPiece();
+    int exitSide = layout.getExitSide();
+    boolean horizontal = primaryPiece.isHorizontal();
+    if (horizontal != (exitSide == 1 || exitSide == 3)) {
+      return Integer.MAX_VALUE; // Primary piece can't face its exit
+    }
+    int line = layout.getFixedCoord(PuzzleLayout.PRIMARY_INDEX);
+    if (line != (horizontal ? layout.getExitY() : layout.getExitX())) {
+      return Integer.MAX_VALUE; // Can't reach exit without moving sideways
+    }
+
+    // Cells the primary piece still has to cross, along its own axis
+    int primaryStart = state.getPosition(PuzzleLayout.PRIMARY_INDEX);
+    boolean towardEnd = exitSide == 1 || exitSide == 2;
+    int pathFrom = towardEnd ? primaryStart + primaryPiece.getSize() : 0;
+    int pathTo = towardEnd ? layout.getMaxPosition(PuzzleLayout.PRIMARY_INDEX) + primaryPiece.getSize() : primaryStart;
+
+    Chain chain = new Chain(state);
+    for (int i = 1; i < layout.getPieceCount(); i++) {
+      Piece piece = layout.getPiece(i);
+      int fixed = layout.getFixedCoord(i);
+      int position = state.getPosition(i);
+      if (piece.isHorizontal() == horizontal) {
+        // A parallel piece on the path can never leave it, and the primary piece can't pass it
+        if (fixed == line && position < pathTo && position + piece.getSize() > pathFrom) {
+          return Integer.MAX_VALUE;
+        }
+      } else if (fixed >= pathFrom && fixed < pathTo && position <= line && line < position + piece.getSize()) {
+        chain.force(i, line, line + 1);
+      }
+    }
+
+    if (!chain.resolve()) {
+      return Integer.MAX_VALUE;
+    }
+    return 1 + chain.forcedCount;
+  }
+
+  /**
+   * The pieces known to move, each with the intervals of its own line it has
+   * to vacate. A piece may have several intervals when it is forced by more
+   * than one possible escape; it only has to vacate one of them.
+   */
+  private static final class Chain {
+    final GameState state;
+    final PuzzleLayout layout;
+    final boolean[] forced;
+    final int[][] vacate;
+    final int[] vacateCount;
+    final int[] queue;
+    int head;
+    int forcedCount;
+
+    // Escapes of the piece being resolved: the cells it slides into
+    int[] escapeFrom = new int[4];
+    int[] escapeTo = new int[4];
+    final int[] hits;
+
+    Chain(GameState state) {
+      this.state = state;
+      this.layout = state.getLayout();
+      int pieceCount = layout.getPieceCount();
+      this.forced = new boolean[pieceCount];
+      this.vacate = new int[pieceCount][];
+      this.vacateCount = new int[pieceCount];
+      this.queue = new int[pieceCount];
+      this.hits = new int[pieceCount];
+    }
+
+    void force(int piece, int from, int to) {
+      if (!forced[piece]) {
+        forced[piece] = true;
+        queue[forcedCount++] = piece;
+        vacate[piece] = new int[4];
+      }
+      addVacate(piece, from, to);
+    }
+
+    void addVacate(int piece, int from, int to) {
+      int[] intervals = vacate[piece];
+      for (int k = 0; k < vacateCount[piece]; k += 2) {
+        if (intervals[k] == from && intervals[k + 1] == to) {
+          return;
+        }
+      }
+      if (vacateCount[piece] == intervals.length) {
+        intervals = vacate[piece] = Arrays.copyOf(intervals, intervals.length * 2);
+      }
+      intervals[vacateCount[piece]++] = from;
+      intervals[vacateCount[piece]++] = to;
+    }
+
+    /**
+     * Works through the forced pieces in the order they were found.
+     *
+     * @return false if some forced piece has no way to clear its cells
+     */
+    boolean resolve() {
+      while (head < forcedCount) {
+        int piece = queue[head++];
+        if (!resolve(piece)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private boolean resolve(int piece) {
+      int size = layout.getPiece(piece).getSize();
+      int position = state.getPosition(piece);
+      int maxPosition = layout.getMaxPosition(piece);
+
+      // The nearest escape on each side; going further only crosses more cells
+      int escapes = 0;
+      for (int k = 0; k < vacateCount[piece]; k += 2) {
+        int from = vacate[piece][k];
+        int to = vacate[piece][k + 1];
+        if (from - size >= 0) {
+          escapes = addEscape(escapes, from - size, position);
+        }
+        if (to <= maxPosition) {
+          escapes = addEscape(escapes, position + size, to + size);
+        }
+      }
+      if (escapes == 0) {
+        return false;
+      }
+
+      // Pieces in the way of every escape have to move too
+      Arrays.fill(hits, 0);
+      for (int e = 0; e < escapes; e++) {
+        countBlockers(piece, escapeFrom[e], escapeTo[e]);
+      }
+      for (int other = 1; other < hits.length; other++) {
+        if (hits[other] != escapes) {
+          continue;
+        }
+        boolean alreadyForced = forced[other];
+        for (int e = 0; e < escapes; e++) {
+          if (layout.getPiece(other).isHorizontal() == layout.getPiece(piece).isHorizontal()) {
+            // Same line: it has to leave the cells being slid into
+            forceFrom(alreadyForced, other, escapeFrom[e], escapeTo[e]);
+          } else {
+            // Crossing: it has to leave the line of the moving piece
+            int crossing = layout.getFixedCoord(piece);
+            forceFrom(alreadyForced, other, crossing, crossing + 1);
+          }
+        }
+      }
+      return true;
+    }
+
+    private void forceFrom(boolean alreadyForced, int piece, int from, int to) {
+      // A piece already being resolved keeps the intervals it was found with
+      if (!alreadyForced) {
+        force(piece, from, to);
+      }
+    }
+
+    private int addEscape(int escapes, int from, int to) {
+      if (escapes == escapeFrom.length) {
+        escapeFrom = Arrays.copyOf(escapeFrom, escapes * 2);
+        escapeTo = Arrays.copyOf(escapeTo, escapes * 2);
+      }
+      escapeFrom[escapes] = from;
+      escapeTo[escapes] = to;
+      return escapes + 1;
+    }
+
+    /**
+     * Marks every piece occupying cells [from, to) of the moving piece's line.
+     * The primary piece is skipped, it is counted already.
+     */
+    private void countBlockers(int piece, int from, int to) {
+      boolean horizontal = layout.getPiece(piece).isHorizontal();
+      int line = layout.getFixedCoord(piece);
+      for (int other = 1; other < hits.length; other++) {
+        if (other == piece) {
+          continue;
+        }
+        Piece otherPiece = layout.getPiece(other);
+        int otherFixed = layout.getFixedCoord(other);
+        int otherStart = state.getPosition(other);
+        int otherEnd = otherStart + otherPiece.getSize();
+        boolean inTheWay = otherPiece.isHorizontal() == horizontal
+            ? otherFixed == line && otherStart < to && otherEnd > from
+            : otherFixed >= from && otherFixed < to && otherStart <= line && line < otherEnd;
+        if (inTheWay) {
+          hits[other]++;
+        }
+      }
+    }
+  }
+
+  @Override
+  public String getName() {
+    return "Blocking Chain";
+  }
+}
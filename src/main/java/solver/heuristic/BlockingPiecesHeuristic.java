@@ -1,37 +1,37 @@
 package solver.heuristic;
 
-import logic.Board;
 import logic.GameState;
-import logic.GameState.PieceState;
+import logic.Piece;
+import logic.PuzzleLayout;
 
 /**
  * Heuristic that counts the number of pieces directly in the path
  * of the primary piece to the exit.
  */
-public class BlockingPiecesHeuristic implements Heuristic {
+public class BlockingPiecesHeuristic implements IncrementalHeuristic {
   
   @Override
   public int calculate(GameState state) {
-    Board board = state.getBoard();
-    PieceState primaryPiece = state.getPrimaryPieceState();
-    char[][] grid = board.getGrid();
+    PuzzleLayout layout = state.getLayout();
+    Piece primaryPiece = layout.getPrimaryPiece();
+    char primaryLabel = primaryPiece.getLabel();
     
     // Get board exit information
-    int exitX = board.getOutCoordX();
-    int exitY = board.getOutCoordY();
-    int exitSide = board.getExitSide();
+    int exitX = layout.getExitX();
+    int exitY = layout.getExitY();
+    int exitSide = layout.getExitSide();
     
     // Get primary piece position
-    int primaryX = primaryPiece.getX();
-    int primaryY = primaryPiece.getY();
-    int pieceSize = primaryPiece.getPiece().getSize();
+    int primaryX = state.getPieceX(PuzzleLayout.PRIMARY_INDEX);
+    int primaryY = state.getPieceY(PuzzleLayout.PRIMARY_INDEX);
+    int pieceSize = primaryPiece.getSize();
     
     int blockingPieces = 0;
     
     // Count blocking pieces based on exit side
     switch (exitSide) {
         case 0: // Top exit - check path from piece to top
-            if (!primaryPiece.getPiece().isHorizontal()) {
+            if (!primaryPiece.isHorizontal()) {
                 // First align X coordinate if needed
                 if (primaryX != exitX) {
                     return Integer.MAX_VALUE; // Can't reach exit without moving
@@ -39,7 +39,7 @@ public class BlockingPiecesHeuristic implements Heuristic {
                 
                 // Count pieces from primary piece to top edge
                 for (int y = primaryY - 1; y >= 0; y--) {
-                    if (grid[y][primaryX] != '.' && grid[y][primaryX] != primaryPiece.getPiece().getLabel()) {
+                    if (isBlocking(state, primaryX, y, primaryLabel)) {
                         blockingPieces++;
                     }
                 }
@@ -49,15 +49,15 @@ public class BlockingPiecesHeuristic implements Heuristic {
             break;
             
         case 1: // Right exit - check path from piece to right edge
-            if (primaryPiece.getPiece().isHorizontal()) {
+            if (primaryPiece.isHorizontal()) {
                 // First align Y coordinate if needed
                 if (primaryY != exitY) {
                     return Integer.MAX_VALUE; // Can't reach exit without moving
                 }
                 
                 // Count pieces from primary piece to right edge
-                for (int x = primaryX + pieceSize; x < grid[0].length; x++) {
-                    if (grid[primaryY][x] != '.' && grid[primaryY][x] != primaryPiece.getPiece().getLabel()) {
+                for (int x = primaryX + pieceSize; x < layout.getCols(); x++) {
+                    if (isBlocking(state, x, primaryY, primaryLabel)) {
                         blockingPieces++;
                     }
                 }
@@ -67,15 +67,15 @@ public class BlockingPiecesHeuristic implements Heuristic {
             break;
             
         case 2: // Bottom exit - check path from piece to bottom edge
-            if (!primaryPiece.getPiece().isHorizontal()) {
+            if (!primaryPiece.isHorizontal()) {
                 // First align X coordinate if needed
                 if (primaryX != exitX) {
                     return Integer.MAX_VALUE; // Can't reach exit without moving
                 }
                 
                 // Count pieces from primary piece to bottom edge
-                for (int y = primaryY + pieceSize; y < grid.length; y++) {
-                    if (grid[y][primaryX] != '.' && grid[y][primaryX] != primaryPiece.getPiece().getLabel()) {
+                for (int y = primaryY + pieceSize; y < layout.getRows(); y++) {
+                    if (isBlocking(state, primaryX, y, primaryLabel)) {
                         blockingPieces++;
                     }
                 }
@@ -85,7 +85,7 @@ public class BlockingPiecesHeuristic implements Heuristic {
             break;
             
         case 3: // Left exit - check path from piece to left edge
-            if (primaryPiece.getPiece().isHorizontal()) {
+            if (primaryPiece.isHorizontal()) {
                 // First align Y coordinate if needed
                 if (primaryY != exitY) {
                     return Integer.MAX_VALUE; // Can't reach exit without moving
@@ -93,7 +93,7 @@ public class BlockingPiecesHeuristic implements Heuristic {
                 
                 // Count pieces from primary piece to left edge
                 for (int x = primaryX - 1; x >= 0; x--) {
-                    if (grid[primaryY][x] != '.' && grid[primaryY][x] != primaryPiece.getPiece().getLabel()) {
+                    if (isBlocking(state, x, primaryY, primaryLabel)) {
                         blockingPieces++;
                     }
                 }
@@ -109,6 +109,48 @@ public class BlockingPiecesHeuristic implements Heuristic {
     return blockingPieces;
   }
   
+  @Override
+  public int calculateAfterMove(GameState parent, int parentValue, int pieceIndex, int newPosition) {
+    // The primary piece never leaves its line, so an unreachable exit stays unreachable
+    if (parentValue == Integer.MAX_VALUE) {
+      return Integer.MAX_VALUE;
+    }
+
+    // The primary piece only slides through empty cells, and a piece parallel
+    // to the path stays on the same side of the primary piece, so neither
+    // changes how many path cells are occupied. Only a crossing piece can.
+    PuzzleLayout layout = parent.getLayout();
+    Piece primaryPiece = layout.getPrimaryPiece();
+    Piece piece = layout.getPiece(pieceIndex);
+    if (pieceIndex == PuzzleLayout.PRIMARY_INDEX || piece.isHorizontal() == primaryPiece.isHorizontal()) {
+      return parentValue;
+    }
+
+    int crossing = layout.getFixedCoord(pieceIndex);
+    int primaryStart = parent.getPosition(PuzzleLayout.PRIMARY_INDEX);
+    int exitSide = layout.getExitSide();
+    boolean onPath = exitSide == 0 || exitSide == 3
+        ? crossing < primaryStart
+        : crossing >= primaryStart + primaryPiece.getSize();
+    if (!onPath) {
+      return parentValue;
+    }
+
+    int line = layout.getFixedCoord(PuzzleLayout.PRIMARY_INDEX);
+    return parentValue
+        - coversLine(parent.getPosition(pieceIndex), piece.getSize(), line)
+        + coversLine(newPosition, piece.getSize(), line);
+  }
+
+  private static int coversLine(int start, int size, int line) {
+    return start <= line && line < start + size ? 1 : 0;
+  }
+
+  private static boolean isBlocking(GameState state, int x, int y, char primaryLabel) {
+    char cell = state.getCellLabel(x, y);
+    return cell != '.' && cell != primaryLabel;
+  }
+  
   @Override
   public String getName() {
       return "Blocking Pieces";
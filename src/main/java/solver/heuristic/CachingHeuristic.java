@@ -0,0 +1,191 @@
+package solver.heuristic;
+
+import logic.GameState;
+import logic.PuzzleLayout;
+import solver.structure.LongIntOpenHashMap;
+
+/**
+ * Decorator that remembers the values of another heuristic, keyed by the
+ * 64-bit state key. Useful for expensive heuristics such as
+ * {@link CombinedHeuristic}, and for solvers that score the same state
+ * again whenever it is regenerated.
+ *
+ * The cache holds a fixed number of entries and evicts with the CLOCK
+ * algorithm: every entry has a reference bit that is set on a hit, and the
+ * clock hand clears bits as it sweeps, evicting the first entry whose bit
+ * was already clear. This approximates LRU without reordering anything on
+ * a hit.
+ *
+ * Keys are only unique within one puzzle, so the cache empties itself when
+ * a state of another layout comes in. Lookups and inserts hold a lock,
+ * while the wrapped heuristic is called outside it.
+ */
+public class CachingHeuristic implements Heuristic {
+  /** Default number of cached entries. */
+  public static final int DEFAULT_CAPACITY = 1 << 18;
+
+  private final Heuristic delegate;
+  private final int capacity;
+
+  // Entry slots swept by the clock hand; the map finds the slot of a key
+  private final long[] slotKeys;
+  private final int[] slotValues;
+  private final boolean[] referenced;
+  private final LongIntOpenHashMap slotOf;
+  private int used;
+  private int hand;
+  private PuzzleLayout layout;
+
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  /**
+   * Constructor with specified heuristic and capacity.
+   *
+   * @param delegate The heuristic whose values are cached
+   * @param capacity Maximum number of cached entries
+   */
+  public CachingHeuristic(Heuristic delegate, int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be at least 1: " + capacity);
+    }
+    this.delegate = delegate;
+    this.capacity = capacity;
+    this.slotKeys = new long[capacity];
+    this.slotValues = new int[capacity];
+    this.referenced = new boolean[capacity];
+    this.slotOf = new LongIntOpenHashMap(capacity, 0.75f);
+  }
+
+  /**
+   * Constructor with specified heuristic and the default capacity.
+   *
+   * @param delegate The heuristic whose values are cached
+   */
+  public CachingHeuristic(Heuristic delegate) {
+    this(delegate, DEFAULT_CAPACITY);
+  }
+
+  @Override
+  public int calculate(GameState state) {
+    long key = state.getStateKey();
+    synchronized (this) {
+      if (state.getLayout() != layout) {
+        clearEntries();
+        layout = state.getLayout();
+      }
+      int slot = slotOf.get(key, -1);
+      if (slot >= 0) {
+        hits++;
+        referenced[slot] = true;
+        return slotValues[slot];
+      }
+      misses++;
+    }
+
+    int value = delegate.calculate(state);
+
+    synchronized (this) {
+      // Another thread may have switched puzzles or cached the key meanwhile
+      if (state.getLayout() == layout && slotOf.get(key, -1) < 0) {
+        insert(key, value);
+      }
+    }
+    return value;
+  }
+
+  private void insert(long key, int value) {
+    int slot;
+    if (used < capacity) {
+      slot = used++;
+    } else {
+      // Give every referenced entry a second chance before evicting
+      while (referenced[hand]) {
+        referenced[hand] = false;
+        hand = (hand + 1) % capacity;
+      }
+      slot = hand;
+      hand = (hand + 1) % capacity;
+      slotOf.remove(slotKeys[slot]);
+      evictions++;
+    }
+    slotKeys[slot] = key;
+    slotValues[slot] = value;
+    referenced[slot] = false;
+    slotOf.put(key, slot);
+  }
+
+  private void clearEntries() {
+    slotOf.clear();
+    used = 0;
+    hand = 0;
+  }
+
+  /**
+   * Removes all entries and resets the statistics.
+   */
+  public synchronized void clear() {
+    clearEntries();
+    layout = null;
+    resetStatistics();
+  }
+
+  /**
+   * Resets the hit, miss and eviction counters without touching the entries.
+   */
+  public synchronized void resetStatistics() {
+    hits = 0;
+    misses = 0;
+    evictions = 0;
+  }
+
+  /**
+   * Gets the wrapped heuristic.
+   *
+   * @return The heuristic whose values are cached
+   */
+  public Heuristic getDelegate() {
+    return delegate;
+  }
+
+  /** @return Number of lookups answered from the cache */
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  /** @return Number of lookups that called the wrapped heuristic */
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  /** @return Number of entries evicted to make room */
+  public synchronized long getEvictions() {
+    return evictions;
+  }
+
+  /**
+   * Gets the fraction of lookups answered from the cache.
+   *
+   * @return Hit rate between 0 and 1, 0 if nothing was looked up
+   */
+  public synchronized double getHitRate() {
+    long total = hits + misses;
+    return total == 0 ? 0 : hits / (double) total;
+  }
+
+  /**
+   * Gets the approximate memory used by the cache.
+   *
+   * @return Size in bytes
+   */
+  public long memoryUsageBytes() {
+    // Slot arrays plus the key-to-slot map
+    return (long) capacity * (8 + 4 + 1) + slotOf.memoryUsageBytes();
+  }
+
+  @Override
+  public String getName() {
+    return delegate.getName() + " (cached)";
+  }
+}
@@ -1,35 +1,35 @@
 package solver.heuristic;
 
-import logic.Board;
 import logic.GameState;
-import logic.GameState.PieceState;
+import logic.Piece;
+import logic.PuzzleLayout;
 
 /**
  * Heuristic that estimates cost based on how many moves the primary piece
  * would need to reach the exit if no other pieces were in the way.
  */
-public class DistanceToExitHeuristic implements Heuristic {
+public class DistanceToExitHeuristic implements IncrementalHeuristic {
     
   @Override
   public int calculate(GameState state) {
-    Board board = state.getBoard();
-    PieceState primaryPiece = state.getPrimaryPieceState();
+    PuzzleLayout layout = state.getLayout();
+    Piece primaryPiece = layout.getPrimaryPiece();
     
     // Get board exit information
-    int exitX = board.getOutCoordX();
-    int exitY = board.getOutCoordY();
-    int exitSide = board.getExitSide();
+    int exitX = layout.getExitX();
+    int exitY = layout.getExitY();
+    int exitSide = layout.getExitSide();
     
     // Get primary piece position
-    int primaryX = primaryPiece.getX();
-    int primaryY = primaryPiece.getY();
-    int pieceSize = primaryPiece.getPiece().getSize();
+    int primaryX = state.getPieceX(PuzzleLayout.PRIMARY_INDEX);
+    int primaryY = state.getPieceY(PuzzleLayout.PRIMARY_INDEX);
+    int pieceSize = primaryPiece.getSize();
     
     // Calculate distance based on exit side
     switch (exitSide) {
       case 0: // Top exit
           // For vertical piece, calculate distance to align with exit
-        if (!primaryPiece.getPiece().isHorizontal()) {
+        if (!primaryPiece.isHorizontal()) {
           return Math.abs(primaryX - exitX) + primaryY; // Distance to align + distance to top
         } else {
           return Integer.MAX_VALUE; // Horizontal piece can't exit from top
@@ -37,23 +37,23 @@ public class DistanceToExitHeuristic implements Heuristic {
           
       case 1: // Right exit
         // For horizontal piece, calculate distance to right edge
-        if (primaryPiece.getPiece().isHorizontal()) {
-          return board.getGrid()[0].length - (primaryX + pieceSize); // Distance to right edge
+        if (primaryPiece.isHorizontal()) {
+          return layout.getCols() - (primaryX + pieceSize); // Distance to right edge
         } else {
           return Integer.MAX_VALUE; // Vertical piece can't exit from right
         }
           
       case 2: // Bottom exit
         // For vertical piece, calculate distance to align with exit
-        if (!primaryPiece.getPiece().isHorizontal()) {
-          return Math.abs(primaryX - exitX) + (board.getGrid().length - (primaryY + pieceSize));
+        if (!primaryPiece.isHorizontal()) {
+          return Math.abs(primaryX - exitX) + (layout.getRows() - (primaryY + pieceSize));
         } else {
           return Integer.MAX_VALUE; // Horizontal piece can't exit from bottom
         }
           
       case 3: // Left exit
         // For horizontal piece, calculate distance to left edge
-        if (primaryPiece.getPiece().isHorizontal()) {
+        if (primaryPiece.isHorizontal()) {
           return primaryX; // Distance to left edge
       } else {
           return Integer.MAX_VALUE; // Vertical piece can't exit from left
@@ -64,6 +64,19 @@ public class DistanceToExitHeuristic implements Heuristic {
     }
   }
   
+  @Override
+  public int calculateAfterMove(GameState parent, int parentValue, int pieceIndex, int newPosition) {
+    // Only the primary piece counts, and it never leaves its line
+    if (parentValue == Integer.MAX_VALUE || pieceIndex != PuzzleLayout.PRIMARY_INDEX) {
+      return parentValue;
+    }
+
+    int delta = newPosition - parent.getPosition(PuzzleLayout.PRIMARY_INDEX);
+    int exitSide = parent.getLayout().getExitSide();
+    // Right and bottom exits get closer as the position grows, top and left as it shrinks
+    return exitSide == 1 || exitSide == 2 ? parentValue - delta : parentValue + delta;
+  }
+  
   @Override
   public String getName() {
       return "Distance to Exit";
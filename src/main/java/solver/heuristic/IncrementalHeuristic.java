@@ -0,0 +1,24 @@
+package solver.heuristic;
+
+import logic.GameState;
+
+/**
+ * Heuristic that can derive the value of a successor from the value of its
+ * parent. A move slides a single piece, so most of what the heuristic looks
+ * at is unchanged; implementations only re-examine the cells the move
+ * affects instead of evaluating the whole board again.
+ */
+public interface IncrementalHeuristic extends Heuristic {
+    /**
+     * Calculates the heuristic value of the state reached by sliding one
+     * piece of the parent state. The result must equal
+     * {@code calculate(parent.withPiecePosition(pieceIndex, newPosition))}.
+     * 
+     * @param parent The state before the move
+     * @param parentValue The value of calculate(parent)
+     * @param pieceIndex Index of the moved piece in the layout
+     * @param newPosition Position of the moved piece along its axis after the move
+     * @return The estimated distance/cost to goal of the successor
+     */
+    int calculateAfterMove(GameState parent, int parentValue, int pieceIndex, int newPosition);
+}
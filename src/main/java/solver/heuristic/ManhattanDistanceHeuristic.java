@@ -3,10 +3,9 @@ package solver.heuristic;
 import java.util.HashMap;
 import java.util.Map;
 
-import logic.Board;
 import logic.GameState;
-import logic.GameState.PieceState;
 import logic.Piece;
+import logic.PuzzleLayout;
 
 /**
  * Heuristic that estimates cost based on the sum of the Manhattan distances
@@ -16,19 +15,18 @@ public class ManhattanDistanceHeuristic implements Heuristic {
     
     @Override
     public int calculate(GameState state) {
-        Board board = state.getBoard();
-        PieceState primaryPiece = state.getPrimaryPieceState();
-        char[][] grid = board.getGrid();
+        PuzzleLayout layout = state.getLayout();
+        Piece primaryPiece = layout.getPrimaryPiece();
         
         // Get board exit information
-        int exitX = board.getOutCoordX();
-        int exitY = board.getOutCoordY();
-        int exitSide = board.getExitSide();
+        int exitX = layout.getExitX();
+        int exitY = layout.getExitY();
+        int exitSide = layout.getExitSide();
         
         // Get primary piece position
-        int primaryX = primaryPiece.getX();
-        int primaryY = primaryPiece.getY();
-        int pieceSize = primaryPiece.getPiece().getSize();
+        int primaryX = state.getPieceX(PuzzleLayout.PRIMARY_INDEX);
+        int primaryY = state.getPieceY(PuzzleLayout.PRIMARY_INDEX);
+        int pieceSize = primaryPiece.getSize();
         
         // Map to track pieces in the path and how far they need to move
         Map<Character, Integer> blockingPieces = new HashMap<>();
@@ -36,7 +34,7 @@ public class ManhattanDistanceHeuristic implements Heuristic {
         // Determine path to exit and identify blocking pieces
         switch (exitSide) {
             case 0: // Top exit - path is from piece to top
-                if (!primaryPiece.getPiece().isHorizontal()) {
+                if (!primaryPiece.isHorizontal()) {
                     // First check X alignment
                     if (primaryX != exitX) {
                         // Add cost to move primary piece to align with exit
@@ -45,13 +43,13 @@ public class ManhattanDistanceHeuristic implements Heuristic {
                     
                     // Check for blocking pieces from primary piece to top edge
                     for (int y = primaryY - 1; y >= 0; y--) {
-                        char cell = grid[y][primaryX];
-                        if (cell != '.' && cell != primaryPiece.getPiece().getLabel()) {
+                        char cell = state.getCellLabel(primaryX, y);
+                        if (cell != '.' && cell != primaryPiece.getLabel()) {
                             // Find the piece and calculate how far it needs to move
-                            PieceState blockingPiece = findPieceState(state, cell);
-                            if (blockingPiece != null) {
+                            int blockingPiece = layout.indexOf(cell);
+                            if (blockingPiece >= 0) {
                                 // Calculate minimum move distance to clear path
-                                int moveDistance = getMinClearPathDistance(board, blockingPiece, primaryX, y);
+                                int moveDistance = getMinClearPathDistance(state, blockingPiece, primaryX, y);
                                 blockingPieces.put(cell, moveDistance);
                             }
                         }
@@ -62,7 +60,7 @@ public class ManhattanDistanceHeuristic implements Heuristic {
                 break;
                 
             case 1: // Right exit
-                if (primaryPiece.getPiece().isHorizontal()) {
+                if (primaryPiece.isHorizontal()) {
                     // First check Y alignment
                     if (primaryY != exitY) {
                         // Add cost to move primary piece to align with exit
@@ -70,14 +68,14 @@ public class ManhattanDistanceHeuristic implements Heuristic {
                     }
                     
                     // Check for blocking pieces from primary piece to right edge
-                    for (int x = primaryX + pieceSize; x < grid[0].length; x++) {
-                        char cell = grid[primaryY][x];
-                        if (cell != '.' && cell != primaryPiece.getPiece().getLabel()) {
+                    for (int x = primaryX + pieceSize; x < layout.getCols(); x++) {
+                        char cell = state.getCellLabel(x, primaryY);
+                        if (cell != '.' && cell != primaryPiece.getLabel()) {
                             // Find the piece and calculate how far it needs to move
-                            PieceState blockingPiece = findPieceState(state, cell);
-                            if (blockingPiece != null) {
+                            int blockingPiece = layout.indexOf(cell);
+                            if (blockingPiece >= 0) {
                                 // Calculate minimum move distance to clear path
-                                int moveDistance = getMinClearPathDistance(board, blockingPiece, x, primaryY);
+                                int moveDistance = getMinClearPathDistance(state, blockingPiece, x, primaryY);
                                 blockingPieces.put(cell, moveDistance);
                             }
                         }
@@ -88,7 +86,7 @@ public class ManhattanDistanceHeuristic implements Heuristic {
                 break;
                 
             case 2: // Bottom exit
-                if (!primaryPiece.getPiece().isHorizontal()) {
+                if (!primaryPiece.isHorizontal()) {
                     // First check X alignment
                     if (primaryX != exitX) {
                         // Add cost to move primary piece to align with exit
@@ -96,14 +94,14 @@ public class ManhattanDistanceHeuristic implements Heuristic {
                     }
                     
                     // Check for blocking pieces from primary piece to bottom edge
-                    for (int y = primaryY + pieceSize; y < grid.length; y++) {
-                        char cell = grid[y][primaryX];
-                        if (cell != '.' && cell != primaryPiece.getPiece().getLabel()) {
+                    for (int y = primaryY + pieceSize; y < layout.getRows(); y++) {
+                        char cell = state.getCellLabel(primaryX, y);
+                        if (cell != '.' && cell != primaryPiece.getLabel()) {
                             // Find the piece and calculate how far it needs to move
-                            PieceState blockingPiece = findPieceState(state, cell);
-                            if (blockingPiece != null) {
+                            int blockingPiece = layout.indexOf(cell);
+                            if (blockingPiece >= 0) {
                                 // Calculate minimum move distance to clear path
-                                int moveDistance = getMinClearPathDistance(board, blockingPiece, primaryX, y);
+                                int moveDistance = getMinClearPathDistance(state, blockingPiece, primaryX, y);
                                 blockingPieces.put(cell, moveDistance);
                             }
                         }
@@ -114,7 +112,7 @@ public class ManhattanDistanceHeuristic implements Heuristic {
                 break;
                 
             case 3: // Left exit
-                if (primaryPiece.getPiece().isHorizontal()) {
+                if (primaryPiece.isHorizontal()) {
                     // First check Y alignment
                     if (primaryY != exitY) {
                         // Add cost to move primary piece to align with exit
@@ -123,13 +121,13 @@ public class ManhattanDistanceHeuristic implements Heuristic {
                     
                     // Check for blocking pieces from primary piece to left edge
                     for (int x = primaryX - 1; x >= 0; x--) {
-                        char cell = grid[primaryY][x];
-                        if (cell != '.' && cell != primaryPiece.getPiece().getLabel()) {
+                        char cell = state.getCellLabel(x, primaryY);
+                        if (cell != '.' && cell != primaryPiece.getLabel()) {
                             // Find the piece and calculate how far it needs to move
-                            PieceState blockingPiece = findPieceState(state, cell);
-                            if (blockingPiece != null) {
+                            int blockingPiece = layout.indexOf(cell);
+                            if (blockingPiece >= 0) {
                                 // Calculate minimum move distance to clear path
-                                int moveDistance = getMinClearPathDistance(board, blockingPiece, x, primaryY);
+                                int moveDistance = getMinClearPathDistance(state, blockingPiece, x, primaryY);
                                 blockingPieces.put(cell, moveDistance);
                             }
                         }
@@ -153,29 +151,19 @@ public class ManhattanDistanceHeuristic implements Heuristic {
         return totalDistance + 1;
     }
     
-    /**
-     * Finds the PieceState for a given piece label
-     */
-    private PieceState findPieceState(GameState state, char label) {
-        if (state.getPrimaryPieceState().getPiece().getLabel() == label) {
-            return state.getPrimaryPieceState();
-        }
-        
-        return state.getPieces().get(label);
-    }
-    
     /**
      * Calculates the minimum distance a blocking piece needs to move to clear the path
      */
-    private int getMinClearPathDistance(Board board, PieceState blockingPiece, int blockingX, int blockingY) {
-        Piece piece = blockingPiece.getPiece();
+    private int getMinClearPathDistance(GameState state, int blockingPiece, int blockingX, int blockingY) {
+        PuzzleLayout layout = state.getLayout();
+        Piece piece = layout.getPiece(blockingPiece);
         int size = piece.getSize();
         
         // For horizontal pieces, we need to move up or down to clear the path
         if (piece.isHorizontal()) {
             // Calculate distance to move up or down
-            int distanceUp = blockingPiece.getY() + 1; // Distance to top edge
-            int distanceDown = board.getGrid().length - (blockingPiece.getY() + size); // Distance to bottom edge
+            int distanceUp = state.getPieceY(blockingPiece) + 1; // Distance to top edge
+            int distanceDown = layout.getRows() - (state.getPieceY(blockingPiece) + size); // Distance to bottom edge
             
             // Return the shorter distance
             return Math.min(distanceUp, distanceDown);
@@ -183,8 +171,8 @@ public class ManhattanDistanceHeuristic implements Heuristic {
         // For vertical pieces, we need to move left or right to clear the path
         else {
             // Calculate distance to move left or right
-            int distanceLeft = blockingPiece.getX() + 1; // Distance to left edge
-            int distanceRight = board.getGrid()[0].length - (blockingPiece.getX() + size); // Distance to right edge
+            int distanceLeft = state.getPieceX(blockingPiece) + 1; // Distance to left edge
+            int distanceRight = layout.getCols() - (state.getPieceX(blockingPiece) + size); // Distance to right edge
             
             // Return the shorter distance
             return Math.min(distanceLeft, distanceRight);
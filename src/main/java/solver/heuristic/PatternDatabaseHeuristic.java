@@ -0,0 +1,470 @@
+package solver.heuristic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import logic.GameState;
+import logic.Piece;
+import logic.PuzzleLayout;
+
+/**
+ * Pattern database heuristic. The board is abstracted to the primary piece
+ * plus a subset of the other pieces (the pattern); every other piece is
+ * removed. A backward breadth-first search from all abstract goal states
+ * gives the exact number of moves needed in the abstract puzzle, and these
+ * distances are stored in a byte array indexed by the pattern pieces'
+ * positions in mixed radix.
+ *
+ * Removing pieces can only make the puzzle easier, so every stored distance
+ * is a lower bound on the real one: the heuristic is admissible and
+ * consistent. An abstract state that cannot reach the goal proves that the
+ * real state cannot either.
+ *
+ * The database is built for the layout of the first state evaluated, and
+ * rebuilt when a state of another puzzle comes in. The pattern follows the
+ * blocking chain of that first state: the pieces on the primary piece's
+ * path, then the pieces in the way of those, and so on, until the piece or
+ * table size limit is reached.
+ *
+ * Building takes time proportional to the table size, a few hundred
+ * nanoseconds per entry on large boards; a full 16M entry table on a 16x16
+ * board takes about 5 seconds. Solvers build it up front with
+ * {@link #prepare(GameState, BooleanSupplier)} so their budget and
+ * cancellation cover the build, and the default table limit shrinks on
+ * boards larger than 6x6.
+ */
+public class PatternDatabaseHeuristic implements Heuristic {
+  /** Default number of pieces in the pattern besides the primary piece. */
+  public static final int DEFAULT_MAX_PATTERN_PIECES = 6;
+
+  /**
+   * Default maximum number of table entries (one byte each) on boards of up
+   * to 6x6 cells. Larger boards get a limit scaled down by their cell count.
+   */
+  public static final int DEFAULT_MAX_TABLE_ENTRIES = 1 << 24;
+
+  // Board size the default table limit is meant for, and the smallest scaled limit
+  private static final int DEFAULT_LIMIT_CELLS = 36;
+  private static final int MIN_SCALED_TABLE_ENTRIES = 1 << 16;
+
+  // Marks abstract states that are invalid (overlapping) or cannot reach the goal
+  private static final byte UNREACHABLE = (byte) 0xFF;
+  private static final int MAX_DISTANCE = 0xFE;
+
+  private final int maxPatternPieces;
+  private final int maxTableEntries;
+  private final boolean scaleWithBoard;
+  private volatile Database database;
+
+  /**
+   * Constructor with specified pattern limits.
+   *
+   * @param maxPatternPieces Maximum number of pieces in the pattern besides the primary piece
+   * @param maxTableEntries Maximum number of table entries, on any board size
+   */
+  public PatternDatabaseHeuristic(int maxPatternPieces, int maxTableEntries) {
+    this(maxPatternPieces, maxTableEntries, false);
+  }
+
+  /**
+   * Constructor with the default pattern limits. The table limit is scaled
+   * down on boards larger than 6x6.
+   */
+  public PatternDatabaseHeuristic() {
+    this(DEFAULT_MAX_PATTERN_PIECES, DEFAULT_MAX_TABLE_ENTRIES, true);
+  }
+
+  private PatternDatabaseHeuristic(int maxPatternPieces, int maxTableEntries, boolean scaleWithBoard) {
+    if (maxPatternPieces < 0 || maxTableEntries < 1) {
+      throw new IllegalArgumentException("Invalid pattern limits: " + maxPatternPieces + ", " + maxTableEntries);
+    }
+    this.maxPatternPieces = maxPatternPieces;
+    this.maxTableEntries = maxTableEntries;
+    this.scaleWithBoard = scaleWithBoard;
+  }
+
+  /**
+   * Builds the database for the state's puzzle unless it is already built.
+   * The build checks the stop condition for every abstract state it
+   * expands, and a stopped build is thrown away, since a partial table is
+   * not a lower bound.
+   *
+   * @param state Any state of the puzzle
+   * @param stop Checked while building, e.g. the solver's budget check
+   * @return false if the build was stopped
+   */
+  public boolean prepare(GameState state, BooleanSupplier stop) {
+    return databaseFor(state, stop) != null;
+  }
+
+  @Override
+  public int calculate(GameState state) {
+    Database db = databaseFor(state, () -> false);
+    int index = 0;
+    int[] pieces = db.pieces;
+    int[] strides = db.strides;
+    for (int i = 0; i < pieces.length; i++) {
+      index += state.getPosition(pieces[i]) * strides[i];
+    }
+    byte distance = db.distances[index];
+    return distance == UNREACHABLE ? Integer.MAX_VALUE : distance & 0xFF;
+  }
+
+  private Database databaseFor(GameState state, BooleanSupplier stop) {
+    Database db = database;
+    PuzzleLayout layout = state.getLayout();
+    if (db != null && (db.layout == layout || db.layout.equals(layout))) {
+      return db;
+    }
+    synchronized (this) {
+      db = database;
+      if (db == null || !(db.layout == layout || db.layout.equals(layout))) {
+        db = build(state, stop);
+        if (db != null) {
+          database = db;
+        }
+      }
+      return db;
+    }
+  }
+
+  /**
+   * Gets the time spent building the current database.
+   *
+   * @return Build time in milliseconds, 0 if nothing was built yet
+   */
+  public long getBuildTimeMs() {
+    Database db = database;
+    return db != null ? db.buildTimeMs : 0;
+  }
+
+  /**
+   * Gets the memory used by the current distance table.
+   *
+   * @return Size in bytes
+   */
+  public long getTableBytes() {
+    Database db = database;
+    return db != null ? db.distances.length : 0;
+  }
+
+  /**
+   * Gets the number of pieces in the current pattern, including the primary piece.
+   *
+   * @return Pattern size
+   */
+  public int getPatternSize() {
+    Database db = database;
+    return db != null ? db.pieces.length : 0;
+  }
+
+  /**
+   * Gets the number of abstract states that can reach the goal.
+   *
+   * @return Number of solvable abstract states
+   */
+  public int getReachableEntries() {
+    Database db = database;
+    return db != null ? db.reachable : 0;
+  }
+
+  @Override
+  public String getName() {
+    return "Pattern Database";
+  }
+
+  /**
+   * Builds the database for the layout of the given state.
+   *
+   * @return The database, or null if stop returned true
+   */
+  private Database build(GameState state, BooleanSupplier stop) {
+    long startTime = System.currentTimeMillis();
+    PuzzleLayout layout = state.getLayout();
+    int[] pieces = selectPattern(state);
+
+    int[] strides = new int[pieces.length];
+    int[] ranges = new int[pieces.length];
+    int entries = 1;
+    for (int i = 0; i < pieces.length; i++) {
+      strides[i] = entries;
+      ranges[i] = layout.getMaxPosition(pieces[i]) + 1;
+      entries *= ranges[i];
+    }
+
+    byte[] distances = new byte[entries];
+    Arrays.fill(distances, UNREACHABLE);
+    int reachable = backwardSearch(layout, pieces, strides, ranges, distances, stop);
+    if (reachable < 0) {
+      return null;
+    }
+
+    Database db = new Database(layout, pieces, strides, distances, reachable);
+    db.buildTimeMs = System.currentTimeMillis() - startTime;
+    return db;
+  }
+
+  /**
+   * Picks the pattern pieces by following the blocking chain of the state:
+   * first the pieces on the primary piece's way to the exit, then the pieces
+   * on the lines of those, level by level. Pieces are added while the
+   * piece and table size limits allow.
+   *
+   * @return Layout indices of the pattern, primary piece first
+   */
+  private int[] selectPattern(GameState state) {
+    PuzzleLayout layout = state.getLayout();
+    List<Integer> pattern = new ArrayList<>();
+    pattern.add(PuzzleLayout.PRIMARY_INDEX);
+    long entries = layout.getMaxPosition(PuzzleLayout.PRIMARY_INDEX) + 1;
+    long tableLimit = maxTableEntries;
+    int cells = layout.getRows() * layout.getCols();
+    if (scaleWithBoard && cells > DEFAULT_LIMIT_CELLS) {
+      // Each entry costs more to expand on a larger board, so keep the build time in check
+      tableLimit = Math.max(MIN_SCALED_TABLE_ENTRIES, tableLimit * DEFAULT_LIMIT_CELLS / cells);
+    }
+
+    // Every piece reached by the chain counts, even those skipped for size
+    boolean[] reached = new boolean[layout.getPieceCount()];
+    reached[PuzzleLayout.PRIMARY_INDEX] = true;
+    List<Integer> level = new ArrayList<>(pattern);
+    while (!level.isEmpty() && pattern.size() <= maxPatternPieces) {
+      List<Integer> next = new ArrayList<>();
+      for (int piece : level) {
+        for (int other : piecesOnLine(state, piece)) {
+          if (reached[other]) {
+            continue;
+          }
+          reached[other] = true;
+          next.add(other);
+
+          long grown = entries * (layout.getMaxPosition(other) + 1);
+          if (pattern.size() <= maxPatternPieces && grown <= tableLimit) {
+            pattern.add(other);
+            entries = grown;
+          }
+        }
+      }
+      level = next;
+    }
+
+    int[] result = new int[pattern.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = pattern.get(i);
+    }
+    return result;
+  }
+
+  /**
+   * Lists the pieces currently occupying the line of a piece. For the
+   * primary piece only the cells between it and the exit count, nearest first.
+   */
+  private static List<Integer> piecesOnLine(GameState state, int index) {
+    PuzzleLayout layout = state.getLayout();
+    Piece piece = layout.getPiece(index);
+    int fixed = layout.getFixedCoord(index);
+    int length = piece.isHorizontal() ? layout.getCols() : layout.getRows();
+    int position = state.getPosition(index);
+
+    int from = 0;
+    int to = length - 1;
+    int step = 1;
+    if (index == PuzzleLayout.PRIMARY_INDEX) {
+      boolean towardEnd = layout.getExitSide() == 1 || layout.getExitSide() == 2;
+      from = towardEnd ? position + piece.getSize() : position - 1;
+      to = towardEnd ? length - 1 : 0;
+      step = towardEnd ? 1 : -1;
+    }
+
+    List<Integer> found = new ArrayList<>();
+    for (int p = from; step > 0 ? p <= to : p >= to; p += step) {
+      int x = piece.isHorizontal() ? p : fixed;
+      int y = piece.isHorizontal() ? fixed : p;
+      int other = state.getPieceIndexAt(x, y);
+      if (other >= 0 && other != index && !found.contains(other)) {
+        found.add(other);
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Breadth-first search from every abstract goal state. Moves are
+   * reversible, so the distance from a goal equals the distance to it.
+   *
+   * @return Number of abstract states reached, or -1 if stop returned true
+   */
+  private static int backwardSearch(PuzzleLayout layout, int[] pieces, int[] strides, int[] ranges,
+                                    byte[] distances, BooleanSupplier stop) {
+    boolean[] cells = new boolean[layout.getRows() * layout.getCols()];
+    int[] positions = new int[pieces.length];
+    IntQueue queue = new IntQueue(distances.length);
+
+    // Seed every placement of the other pattern pieces around a primary piece at the exit
+    for (int goal : goalPositions(layout)) {
+      for (int rest = 0; rest < distances.length / ranges[0]; rest++) {
+        int index = goal + rest * ranges[0];
+        decode(index, ranges, positions);
+        if (placeAll(layout, pieces, positions, cells)) {
+          distances[index] = 0;
+          queue.add(index);
+        }
+        clearAll(layout, pieces, positions, cells);
+      }
+    }
+
+    while (!queue.isEmpty()) {
+      if (stop.getAsBoolean()) {
+        return -1;
+      }
+      int index = queue.poll();
+      byte nextDistance = (byte) Math.min((distances[index] & 0xFF) + 1, MAX_DISTANCE);
+      decode(index, ranges, positions);
+      placeAll(layout, pieces, positions, cells);
+
+      for (int i = 0; i < pieces.length; i++) {
+        int piece = pieces[i];
+        int position = positions[i];
+        int size = layout.getPiece(piece).getSize();
+
+        // Slide toward lower positions, then toward higher ones, until blocked
+        for (int p = position - 1; p >= 0 && !isOccupied(layout, cells, piece, p); p--) {
+          int next = index + (p - position) * strides[i];
+          if (distances[next] == UNREACHABLE) {
+            distances[next] = nextDistance;
+            queue.add(next);
+          }
+        }
+        for (int p = position + 1; p < ranges[i] && !isOccupied(layout, cells, piece, p + size - 1); p++) {
+          int next = index + (p - position) * strides[i];
+          if (distances[next] == UNREACHABLE) {
+            distances[next] = nextDistance;
+            queue.add(next);
+          }
+        }
+      }
+      clearAll(layout, pieces, positions, cells);
+    }
+    return queue.added();
+  }
+
+  /**
+   * Lists the positions of the primary piece that count as reaching the exit.
+   */
+  private static int[] goalPositions(PuzzleLayout layout) {
+    Piece primary = layout.getPrimaryPiece();
+    int fixed = layout.getFixedCoord(PuzzleLayout.PRIMARY_INDEX);
+    int max = layout.getMaxPosition(PuzzleLayout.PRIMARY_INDEX);
+    switch (layout.getExitSide()) {
+      case 0:
+        return !primary.isHorizontal() && fixed == layout.getExitX() ? new int[] {0} : new int[0];
+      case 1:
+        return primary.isHorizontal() && fixed == layout.getExitY() ? new int[] {max} : new int[0];
+      case 2:
+        return !primary.isHorizontal() && fixed == layout.getExitX() ? new int[] {max} : new int[0];
+      case 3:
+        return primary.isHorizontal() && fixed == layout.getExitY() ? new int[] {0} : new int[0];
+      default:
+        return new int[0];
+    }
+  }
+
+  private static void decode(int index, int[] ranges, int[] positions) {
+    for (int i = 0; i < ranges.length; i++) {
+      positions[i] = index % ranges[i];
+      index /= ranges[i];
+    }
+  }
+
+  /**
+   * Marks the cells of all pattern pieces.
+   *
+   * @return false if two pieces overlap
+   */
+  private static boolean placeAll(PuzzleLayout layout, int[] pieces, int[] positions, boolean[] cells) {
+    boolean valid = true;
+    for (int i = 0; i < pieces.length; i++) {
+      for (int c = 0; c < layout.getPiece(pieces[i]).getSize(); c++) {
+        int cell = cellOf(layout, pieces[i], positions[i] + c);
+        valid &= !cells[cell];
+        cells[cell] = true;
+      }
+    }
+    return valid;
+  }
+
+  private static void clearAll(PuzzleLayout layout, int[] pieces, int[] positions, boolean[] cells) {
+    for (int i = 0; i < pieces.length; i++) {
+      for (int c = 0; c < layout.getPiece(pieces[i]).getSize(); c++) {
+        cells[cellOf(layout, pieces[i], positions[i] + c)] = false;
+      }
+    }
+  }
+
+  private static boolean isOccupied(PuzzleLayout layout, boolean[] cells, int piece, int along) {
+    return cells[cellOf(layout, piece, along)];
+  }
+
+  private static int cellOf(PuzzleLayout layout, int piece, int along) {
+    int fixed = layout.getFixedCoord(piece);
+    return layout.getPiece(piece).isHorizontal()
+        ? fixed * layout.getCols() + along
+        : along * layout.getCols() + fixed;
+  }
+
+  /**
+   * FIFO queue of table indices that grows on demand, up to the table size.
+   */
+  private static final class IntQueue {
+    private final int limit;
+    private int[] items = new int[1024];
+    private int head;
+    private int tail;
+
+    IntQueue(int limit) {
+      this.limit = limit;
+    }
+
+    void add(int value) {
+      if (tail == items.length) {
+        items = Arrays.copyOf(items, (int) Math.min(limit, 2L * items.length));
+      }
+      items[tail++] = value;
+    }
+
+    int poll() {
+      return items[head++];
+    }
+
+    boolean isEmpty() {
+      return head == tail;
+    }
+
+    int added() {
+      return tail;
+    }
+  }
+
+  /**
+   * Distance table for one layout and pattern.
+   */
+  private static final class Database {
+    final PuzzleLayout layout;
+    // Layout indices of the pattern pieces and their mixed-radix strides
+    final int[] pieces;
+    final int[] strides;
+    final byte[] distances;
+    final int reachable;
+    long buildTimeMs;
+
+    Database(PuzzleLayout layout, int[] pieces, int[] strides, byte[] distances, int reachable) {
+      this.layout = layout;
+      this.pieces = pieces;
+      this.strides = strides;
+      this.distances = distances;
+      this.reachable = reachable;
+    }
+  }
+}
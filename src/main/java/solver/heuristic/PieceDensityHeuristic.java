@@ -1,31 +1,30 @@
 package solver.heuristic;
 
-import logic.Board;
 import logic.GameState;
-import logic.GameState.PieceState;
+import logic.Piece;
+import logic.PuzzleLayout;
 
 /**
  * Heuristic that measures how crowded the area between the primary piece 
  * and the exit is, with the assumption that more crowded areas will be
  * harder to solve.
  */
-public class PieceDensityHeuristic implements Heuristic {
+public class PieceDensityHeuristic implements IncrementalHeuristic {
     
     @Override
     public int calculate(GameState state) {
-        Board board = state.getBoard();
-        PieceState primaryPiece = state.getPrimaryPieceState();
-        char[][] grid = board.getGrid();
+        PuzzleLayout layout = state.getLayout();
+        Piece primaryPiece = layout.getPrimaryPiece();
         
         // Get board exit information
-        int exitX = board.getOutCoordX();
-        int exitY = board.getOutCoordY();
-        int exitSide = board.getExitSide();
+        int exitX = layout.getExitX();
+        int exitY = layout.getExitY();
+        int exitSide = layout.getExitSide();
         
         // Get primary piece position
-        int primaryX = primaryPiece.getX();
-        int primaryY = primaryPiece.getY();
-        int pieceSize = primaryPiece.getPiece().getSize();
+        int primaryX = state.getPieceX(PuzzleLayout.PRIMARY_INDEX);
+        int primaryY = state.getPieceY(PuzzleLayout.PRIMARY_INDEX);
+        int pieceSize = primaryPiece.getSize();
         
         int blockedCells = 0;
         int totalCells = 0;
@@ -33,16 +32,16 @@ public class PieceDensityHeuristic implements Heuristic {
         // Calculate density based on exit side
         switch (exitSide) {
             case 0: // Top exit - examine area above the primary piece
-                if (!primaryPiece.getPiece().isHorizontal()) {
+                if (!primaryPiece.isHorizontal()) {
                     // Examine a corridor from the piece to the top edge
                     int corridorWidth = 3; // Width of corridor to examine (can be adjusted)
                     int startX = Math.max(0, primaryX - corridorWidth/2);
-                    int endX = Math.min(grid[0].length - 1, primaryX + corridorWidth/2);
+                    int endX = Math.min(layout.getCols() - 1, primaryX + corridorWidth/2);
                     
                     for (int x = startX; x <= endX; x++) {
                         for (int y = 0; y < primaryY; y++) {
                             totalCells++;
-                            if (grid[y][x] != '.') {
+                            if (state.isCellOccupied(x, y)) {
                                 blockedCells++;
                             }
                         }
@@ -53,16 +52,16 @@ public class PieceDensityHeuristic implements Heuristic {
                 break;
                 
             case 1: // Right exit - examine area to the right of the primary piece
-                if (primaryPiece.getPiece().isHorizontal()) {
+                if (primaryPiece.isHorizontal()) {
                     // Examine a corridor from the piece to the right edge
                     int corridorHeight = 3; // Height of corridor to examine
                     int startY = Math.max(0, primaryY - corridorHeight/2);
-                    int endY = Math.min(grid.length - 1, primaryY + corridorHeight/2);
+                    int endY = Math.min(layout.getRows() - 1, primaryY + corridorHeight/2);
                     
                     for (int y = startY; y <= endY; y++) {
-                        for (int x = primaryX + pieceSize; x < grid[0].length; x++) {
+                        for (int x = primaryX + pieceSize; x < layout.getCols(); x++) {
                             totalCells++;
-                            if (grid[y][x] != '.') {
+                            if (state.isCellOccupied(x, y)) {
                                 blockedCells++;
                             }
                         }
@@ -73,16 +72,16 @@ public class PieceDensityHeuristic implements Heuristic {
                 break;
                 
             case 2: // Bottom exit - examine area below the primary piece
-                if (!primaryPiece.getPiece().isHorizontal()) {
+                if (!primaryPiece.isHorizontal()) {
                     // Examine a corridor from the piece to the bottom edge
                     int corridorWidth = 3; // Width of corridor to examine
                     int startX = Math.max(0, primaryX - corridorWidth/2);
-                    int endX = Math.min(grid[0].length - 1, primaryX + corridorWidth/2);
+                    int endX = Math.min(layout.getCols() - 1, primaryX + corridorWidth/2);
                     
                     for (int x = startX; x <= endX; x++) {
-                        for (int y = primaryY + pieceSize; y < grid.length; y++) {
+                        for (int y = primaryY + pieceSize; y < layout.getRows(); y++) {
                             totalCells++;
-                            if (grid[y][x] != '.') {
+                            if (state.isCellOccupied(x, y)) {
                                 blockedCells++;
                             }
                         }
@@ -93,16 +92,16 @@ public class PieceDensityHeuristic implements Heuristic {
                 break;
                 
             case 3: // Left exit - examine area to the left of the primary piece
-                if (primaryPiece.getPiece().isHorizontal()) {
+                if (primaryPiece.isHorizontal()) {
                     // Examine a corridor from the piece to the left edge
                     int corridorHeight = 3; // Height of corridor to examine
                     int startY = Math.max(0, primaryY - corridorHeight/2);
-                    int endY = Math.min(grid.length - 1, primaryY + corridorHeight/2);
+                    int endY = Math.min(layout.getRows() - 1, primaryY + corridorHeight/2);
                     
                     for (int y = startY; y <= endY; y++) {
                         for (int x = 0; x < primaryX; x++) {
                             totalCells++;
-                            if (grid[y][x] != '.') {
+                            if (state.isCellOccupied(x, y)) {
                                 blockedCells++;
                             }
                         }
@@ -121,11 +120,135 @@ public class PieceDensityHeuristic implements Heuristic {
             return 0;
         }
         
-        // Calculate density as percentage of blocked cells
-        double density = (double)blockedCells / totalCells;
+        return toPercentage(blockedCells, totalCells);
+    }
+    
+    @Override
+    public int calculateAfterMove(GameState parent, int parentValue, int pieceIndex, int newPosition) {
+        // The primary piece never leaves its line, so an unreachable exit stays unreachable
+        if (parentValue == Integer.MAX_VALUE) {
+            return Integer.MAX_VALUE;
+        }
         
-        // Scale to reasonable range for heuristic (0-100)
-        return (int)(density * 100);
+        PuzzleLayout layout = parent.getLayout();
+        Piece primaryPiece = layout.getPrimaryPiece();
+        boolean horizontal = primaryPiece.isHorizontal();
+        int exitSide = layout.getExitSide();
+        
+        // Work along the primary piece's axis and across it, so every exit side looks the same
+        int alongLength = horizontal ? layout.getCols() : layout.getRows();
+        int acrossLength = horizontal ? layout.getRows() : layout.getCols();
+        int line = layout.getFixedCoord(PuzzleLayout.PRIMARY_INDEX);
+        int acrossFrom = Math.max(0, line - 1);
+        int acrossTo = Math.min(acrossLength, line + 2);
+        boolean towardEnd = exitSide == 1 || exitSide == 2;
+        
+        int primaryStart = parent.getPosition(PuzzleLayout.PRIMARY_INDEX);
+        int primarySize = primaryPiece.getSize();
+        int alongFrom = towardEnd ? primaryStart + primarySize : 0;
+        int alongTo = towardEnd ? alongLength : primaryStart;
+        int totalCells = (acrossTo - acrossFrom) * (alongTo - alongFrom);
+        
+        int blockedCells = decodeBlocked(parentValue, totalCells);
+        if (blockedCells < 0) {
+            // The percentage no longer pins down the count on very large corridors
+            return calculate(parent.withPiecePosition(pieceIndex, newPosition));
+        }
+        
+        if (pieceIndex == PuzzleLayout.PRIMARY_INDEX) {
+            // The corridor grows or shrinks by the strip the primary piece slid across
+            int newFrom = towardEnd ? newPosition + primarySize : 0;
+            int newTo = towardEnd ? alongLength : newPosition;
+            int boundary = towardEnd ? alongFrom : alongTo;
+            int newBoundary = towardEnd ? newFrom : newTo;
+            int strip = countStrip(parent, Math.min(boundary, newBoundary), Math.max(boundary, newBoundary),
+                acrossFrom, acrossTo);
+            boolean grows = towardEnd ? newBoundary < boundary : newBoundary > boundary;
+            blockedCells += grows ? strip : -strip;
+            totalCells = (acrossTo - acrossFrom) * (newTo - newFrom);
+        } else {
+            Piece piece = layout.getPiece(pieceIndex);
+            int fixed = layout.getFixedCoord(pieceIndex);
+            int oldStart = parent.getPosition(pieceIndex);
+            int size = piece.getSize();
+            if (piece.isHorizontal() == horizontal) {
+                // Parallel piece: its cells run along the corridor on a single line
+                if (fixed >= acrossFrom && fixed < acrossTo) {
+                    blockedCells += overlap(newPosition, newPosition + size, alongFrom, alongTo)
+                        - overlap(oldStart, oldStart + size, alongFrom, alongTo);
+                }
+            } else if (fixed >= alongFrom && fixed < alongTo) {
+                // Crossing piece: its cells run across the corridor at a single point
+                blockedCells += overlap(newPosition, newPosition + size, acrossFrom, acrossTo)
+                    - overlap(oldStart, oldStart + size, acrossFrom, acrossTo);
+            }
+        }
+        
+        return totalCells == 0 ? 0 : toPercentage(blockedCells, totalCells);
+    }
+    
+    /**
+     * Scales the share of blocked cells to a 0-100 heuristic value. Integer
+     * arithmetic keeps it exact; with doubles 29 of 100 cells came out as 28.
+     */
+    private static int toPercentage(int blockedCells, int totalCells) {
+        return blockedCells * 100 / totalCells;
+    }
+    
+    /**
+     * Recovers the blocked cell count from a percentage. Exact while the
+     * corridor has at most 100 cells, since every extra blocked cell then
+     * adds at least 100 / totalCells >= 1 to the exact quotient, so no two
+     * counts round down to the same percentage.
+     * 
+     * @return The blocked cell count, or -1 if it can't be recovered
+     */
+    private static int decodeBlocked(int percentage, int totalCells) {
+        if (totalCells == 0) {
+            return 0;
+        }
+        if (totalCells > 100) {
+            return -1;
+        }
+        int estimate = percentage * totalCells / 100;
+        for (int blocked = Math.max(0, estimate - 1); blocked <= Math.min(totalCells, estimate + 2); blocked++) {
+            if (toPercentage(blocked, totalCells) == percentage) {
+                return blocked;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Counts the occupied cells of a strip of the corridor, not counting the
+     * primary piece itself since it is never inside the corridor.
+     */
+    private static int countStrip(GameState state, int alongFrom, int alongTo, int acrossFrom, int acrossTo) {
+        PuzzleLayout layout = state.getLayout();
+        boolean horizontal = layout.getPrimaryPiece().isHorizontal();
+        int line = layout.getFixedCoord(PuzzleLayout.PRIMARY_INDEX);
+        int primaryStart = state.getPosition(PuzzleLayout.PRIMARY_INDEX);
+        int primaryEnd = primaryStart + layout.getPrimaryPiece().getSize();
+        
+        int count = 0;
+        for (int across = acrossFrom; across < acrossTo; across++) {
+            for (int along = alongFrom; along < alongTo; along++) {
+                if (across == line && along >= primaryStart && along < primaryEnd) {
+                    continue;
+                }
+                boolean occupied = horizontal
+                    ? state.isCellOccupied(along, across)
+                    : state.isCellOccupied(across, along);
+                if (occupied) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+    
+    private static int overlap(int from, int to, int otherFrom, int otherTo) {
+        return Math.max(0, Math.min(to, otherTo) - Math.max(from, otherFrom));
     }
     
     @Override
@@ -0,0 +1,35 @@
+package solver.structure;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Visited set backed by a java.util.HashSet of boxed keys. Kept as a
+ * reference implementation to compare against {@link LongOpenHashSet}.
+ */
+public class BoxedVisitedSet implements VisitedSet {
+    // Rough HotSpot cost per key: HashMap.Node (32) + Long (16) + table slot (4-8)
+    private static final long BYTES_PER_ENTRY = 56L;
+    
+    private final Set<Long> keys = new HashSet<>();
+    
+    @Override
+    public boolean add(long key) {
+        return keys.add(key);
+    }
+    
+    @Override
+    public boolean contains(long key) {
+        return keys.contains(key);
+    }
+    
+    @Override
+    public int size() {
+        return keys.size();
+    }
+    
+    @Override
+    public long memoryUsageBytes() {
+        return BYTES_PER_ENTRY * keys.size();
+    }
+}
@@ -0,0 +1,196 @@
+package solver.structure;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.function.ToIntFunction;
+
+import logic.Node;
+
+/**
+ * Bucket queue for small non-negative integer priorities. Every move costs 1,
+ * so g, h and f stay small and a node can be pushed and popped in O(1)
+ * amortized time instead of O(log n) in a binary heap.
+ * 
+ * Nodes are kept in buckets indexed by priority, and each bucket is split
+ * again by tie-break value (e.g. h for A*, so deeper nodes on the same f
+ * are expanded first). Nodes with equal keys are popped in FIFO order, so
+ * ties keep the breadth-first flavour instead of diving down one branch.
+ * The minimum pointer only moves back when a lower key is inserted, so
+ * inconsistent heuristics are still handled correctly.
+ * 
+ * Priorities or tie-break values too large for an array index (like
+ * Integer.MAX_VALUE, which heuristics report for unsolvable states) go to
+ * an overflow heap instead, so one huge key can't allocate a huge bucket
+ * array. Negative keys are rejected.
+ */
+public class BucketFrontier implements Frontier {
+    private final ToIntFunction<Node> priority;
+    private final ToIntFunction<Node> tieBreak;
+    
+    // Keys at or above these go to the overflow heap
+    private static final int MAX_BUCKET_PRIORITY = 1 << 20;
+    private static final int MAX_BUCKET_TIE = 1 << 12;
+    
+    private Bucket[] buckets = new Bucket[64];
+    private final PriorityQueue<Node> overflow;
+    private int minPriority;
+    private int size;
+    
+    /**
+     * Creates an empty bucket frontier.
+     * 
+     * @param priority Primary key, lower is polled first
+     * @param tieBreak Secondary key among equal priorities, or null for none
+     */
+    public BucketFrontier(ToIntFunction<Node> priority, ToIntFunction<Node> tieBreak) {
+        this.priority = priority;
+        this.tieBreak = tieBreak;
+        Comparator<Node> comparator = Comparator.comparingInt(priority);
+        if (tieBreak != null) {
+            comparator = comparator.thenComparingInt(tieBreak);
+        }
+        this.overflow = new PriorityQueue<>(comparator);
+    }
+    
+    @Override
+    public void add(Node node) {
+        int key = priority.applyAsInt(node);
+        int tie = tieBreak == null ? 0 : tieBreak.applyAsInt(node);
+        if (key < 0 || tie < 0) {
+            throw new IllegalArgumentException("Frontier keys must not be negative: " + key + ", " + tie);
+        }
+        size++;
+        
+        if (key >= MAX_BUCKET_PRIORITY || tie >= MAX_BUCKET_TIE) {
+            overflow.offer(node);
+            return;
+        }
+        
+        if (key >= buckets.length) {
+            buckets = Arrays.copyOf(buckets, Math.max(key + 1, buckets.length * 2));
+        }
+        Bucket bucket = buckets[key];
+        if (bucket == null) {
+            bucket = buckets[key] = new Bucket();
+        }
+        bucket.offer(tie, node);
+        if (key < minPriority) {
+            minPriority = key;
+        }
+    }
+    
+    @Override
+    public Node poll() {
+        if (size == 0) {
+            return null;
+        }
+        size--;
+        
+        while (minPriority < buckets.length) {
+            Bucket bucket = buckets[minPriority];
+            if (bucket != null && bucket.size > 0) {
+                // A node with a small priority but a huge tie-break can sit in the overflow heap
+                if (overflowComesFirst(minPriority, bucket.minTie())) {
+                    return overflow.poll();
+                }
+                return bucket.poll();
+            }
+            minPriority++;
+        }
+        
+        // Every bucket is empty, only nodes with overflowing keys are left
+        minPriority = 0;
+        return overflow.poll();
+    }
+    
+    private boolean overflowComesFirst(int key, int tie) {
+        Node head = overflow.peek();
+        if (head == null) {
+            return false;
+        }
+        int headKey = priority.applyAsInt(head);
+        return headKey < key
+            || (headKey == key && tieBreak != null && tieBreak.applyAsInt(head) < tie);
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * All nodes sharing one priority, split by tie-break value.
+     */
+    private static final class Bucket {
+        private NodeQueue[] queues = new NodeQueue[8];
+        private int minTie;
+        private int size;
+        
+        void offer(int tie, Node node) {
+            if (tie >= queues.length) {
+                queues = Arrays.copyOf(queues, Math.max(tie + 1, queues.length * 2));
+            }
+            NodeQueue queue = queues[tie];
+            if (queue == null) {
+                queue = queues[tie] = new NodeQueue();
+            }
+            queue.offer(node);
+            if (size == 0 || tie < minTie) {
+                minTie = tie;
+            }
+            size++;
+        }
+        
+        int minTie() {
+            while (queues[minTie] == null || queues[minTie].isEmpty()) {
+                minTie++;
+            }
+            return minTie;
+        }
+        
+        Node poll() {
+            size--;
+            return queues[minTie()].poll();
+        }
+    }
+    
+    /**
+     * Growable ring buffer of nodes.
+     */
+    private static final class NodeQueue {
+        private Node[] nodes = new Node[16];
+        private int head;
+        private int size;
+        
+        void offer(Node node) {
+            if (size == nodes.length) {
+                Node[] grown = new Node[size * 2];
+                for (int i = 0; i < size; i++) {
+                    grown[i] = nodes[(head + i) & (nodes.length - 1)];
+                }
+                nodes = grown;
+                head = 0;
+            }
+            nodes[(head + size) & (nodes.length - 1)] = node;
+            size++;
+        }
+        
+        Node poll() {
+            Node node = nodes[head];
+            nodes[head] = null;
+            head = (head + 1) & (nodes.length - 1);
+            size--;
+            return node;
+        }
+        
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
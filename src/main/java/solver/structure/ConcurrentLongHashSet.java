@@ -0,0 +1,186 @@
+package solver.structure;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe visited set of 64-bit state keys for multi-threaded solvers.
+ * Keys are split over independent segments by hash; each segment is an
+ * open-addressing table in an AtomicLongArray.
+ *
+ * Lookups never lock: they probe the segment's current table with acquire
+ * reads. Inserts first do the same lock-free probe, so re-discovering a
+ * known state (the common case in BFS) costs no lock; only a key that looks
+ * new takes the segment lock, re-probes, and publishes it with a release
+ * write. A segment grows under its own lock and publishes the new table
+ * through a volatile field, so other segments keep working meanwhile.
+ *
+ * {@link #add(long)} is insert-if-absent: exactly one of several threads
+ * adding the same key gets true.
+ */
+public class ConcurrentLongHashSet implements VisitedSet {
+    private static final int DEFAULT_EXPECTED_SIZE = 1 << 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int MAX_SEGMENT_CAPACITY = 1 << 30;
+
+    // Zero marks an empty slot, so a zero key is tracked separately
+    private static final long EMPTY = 0L;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final AtomicBoolean containsZero = new AtomicBoolean();
+
+    /**
+     * Creates a set with the default capacity and four segments per core.
+     */
+    public ConcurrentLongHashSet() {
+        this(DEFAULT_EXPECTED_SIZE, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a set sized for the expected number of keys.
+     *
+     * @param expectedSize Number of keys expected to be added
+     * @param concurrency Expected number of writer threads; rounded up to a power of two segments
+     */
+    public ConcurrentLongHashSet(int expectedSize, int concurrency) {
+        int segmentCount = Integer.highestOneBit(Math.max(1, Math.min(concurrency, 1 << 16)) * 2 - 1);
+        this.segments = new Segment[segmentCount];
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(segmentCount);
+
+        int perSegment = Math.max(1, expectedSize / segmentCount);
+        long needed = (long) Math.ceil(perSegment / (double) LOAD_FACTOR) + 1;
+        int capacity = needed >= MAX_SEGMENT_CAPACITY
+            ? MAX_SEGMENT_CAPACITY
+            : Math.max(16, Integer.highestOneBit((int) needed - 1) << 1);
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(capacity);
+        }
+    }
+
+    @Override
+    public boolean add(long key) {
+        if (key == EMPTY) {
+            return containsZero.compareAndSet(false, true);
+        }
+        int hash = Hashing.mix(key);
+        return segmentFor(hash).add(key, hash);
+    }
+
+    @Override
+    public boolean contains(long key) {
+        if (key == EMPTY) {
+            return containsZero.get();
+        }
+        int hash = Hashing.mix(key);
+        return segmentFor(hash).contains(key, hash);
+    }
+
+    /**
+     * Gets the number of keys. Not a snapshot while other threads are adding.
+     *
+     * @return Number of keys
+     */
+    @Override
+    public int size() {
+        long total = containsZero.get() ? 1 : 0;
+        for (Segment segment : segments) {
+            total += segment.size;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, total);
+    }
+
+    @Override
+    public long memoryUsageBytes() {
+        long total = 16L + 8L * segments.length;
+        for (Segment segment : segments) {
+            // Segment object, AtomicLongArray wrapper and its array
+            total += 32L + 16L + 16L + 8L * segment.table.length();
+        }
+        return total;
+    }
+
+    private Segment segmentFor(int hash) {
+        // High bits pick the segment, low bits pick the slot inside it
+        return segmentShift == 32 ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    /**
+     * One independently locked and resized part of the table.
+     */
+    private static final class Segment {
+        volatile AtomicLongArray table;
+        volatile int size;
+        private int threshold;
+
+        Segment(int capacity) {
+            this.table = new AtomicLongArray(capacity);
+            this.threshold = thresholdFor(capacity);
+        }
+
+        boolean contains(long key, int hash) {
+            AtomicLongArray current = table;
+            int mask = current.length() - 1;
+            int slot = hash & mask;
+            long found;
+            while ((found = current.getAcquire(slot)) != EMPTY) {
+                if (found == key) {
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        }
+
+        boolean add(long key, int hash) {
+            if (contains(key, hash)) {
+                return false;
+            }
+            synchronized (this) {
+                AtomicLongArray current = table;
+                int mask = current.length() - 1;
+                int slot = hash & mask;
+                long found;
+                while ((found = current.getPlain(slot)) != EMPTY) {
+                    if (found == key) {
+                        return false;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                current.setRelease(slot, key);
+                size = size + 1;
+                if (size > threshold) {
+                    resize(current);
+                }
+                return true;
+            }
+        }
+
+        private void resize(AtomicLongArray current) {
+            if (current.length() >= MAX_SEGMENT_CAPACITY) {
+                // Filling past the load factor would end with no empty slot, and
+                // probes for a missing key would never stop
+                throw new IllegalStateException("Hash table segment is full at " + size + " keys");
+            }
+            AtomicLongArray grown = new AtomicLongArray(current.length() * 2);
+            int mask = grown.length() - 1;
+            for (int i = 0; i < current.length(); i++) {
+                long key = current.getPlain(i);
+                if (key != EMPTY) {
+                    int slot = Hashing.mix(key) & mask;
+                    while (grown.getPlain(slot) != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    grown.setPlain(slot, key);
+                }
+            }
+            threshold = thresholdFor(grown.length());
+            // Volatile write publishes the fully built table to lock-free readers
+            table = grown;
+        }
+
+        private static int thresholdFor(int capacity) {
+            return Math.min((int) (capacity * (double) LOAD_FACTOR), capacity - 1);
+        }
+    }
+}
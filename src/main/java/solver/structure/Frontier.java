@@ -0,0 +1,57 @@
+package solver.structure;
+
+import java.util.function.ToIntFunction;
+
+import logic.Node;
+
+/**
+ * Open list of a search: nodes waiting to be expanded, polled in order of an
+ * integer priority (lowest first) with an optional integer tie-break.
+ */
+public interface Frontier {
+    /**
+     * Adds a node to the frontier.
+     * 
+     * @param node The node to add
+     */
+    void add(Node node);
+    
+    /**
+     * Removes and returns the node with the lowest priority.
+     * 
+     * @return The next node, or null if the frontier is empty
+     */
+    Node poll();
+    
+    /**
+     * Checks whether the frontier is empty.
+     * 
+     * @return true if there is no node left
+     */
+    boolean isEmpty();
+    
+    /**
+     * Gets the number of nodes in the frontier.
+     * 
+     * @return Number of nodes
+     */
+    int size();
+    
+    /**
+     * Creates a frontier of the given type.
+     * 
+     * @param type The frontier implementation
+     * @param priority Primary key, lower is polled first
+     * @param tieBreak Secondary key among equal priorities, or null for none
+     * @return An empty frontier
+     */
+    static Frontier create(FrontierType type, ToIntFunction<Node> priority, ToIntFunction<Node> tieBreak) {
+        switch (type) {
+            case BUCKET:
+                return new BucketFrontier(priority, tieBreak);
+            case BINARY_HEAP:
+            default:
+                return new HeapFrontier(priority, tieBreak);
+        }
+    }
+}
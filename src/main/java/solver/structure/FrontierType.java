@@ -0,0 +1,11 @@
+package solver.structure;
+
+/**
+ * Available frontier implementations.
+ */
+public enum FrontierType {
+    /** java.util.PriorityQueue, O(log n) per push and pop. */
+    BINARY_HEAP,
+    /** Array of buckets indexed by priority, O(1) amortized per push and pop. */
+    BUCKET
+}
@@ -0,0 +1,26 @@
+package solver.structure;
+
+/**
+ * Hash helpers for 64-bit state keys.
+ */
+public final class Hashing {
+    private Hashing() {
+    }
+    
+    /**
+     * Spreads the key bits (MurmurHash3 finalizer) so packed keys, whose low
+     * bits hold only one piece, still land uniformly in a table or across
+     * threads.
+     * 
+     * @param key The state key
+     * @return A well-mixed 32-bit hash
+     */
+    public static int mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
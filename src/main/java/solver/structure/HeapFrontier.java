@@ -0,0 +1,48 @@
+package solver.structure;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.function.ToIntFunction;
+
+import logic.Node;
+
+/**
+ * Frontier backed by a binary heap (java.util.PriorityQueue).
+ */
+public class HeapFrontier implements Frontier {
+    private final PriorityQueue<Node> queue;
+    
+    /**
+     * Creates an empty heap frontier.
+     * 
+     * @param priority Primary key, lower is polled first
+     * @param tieBreak Secondary key among equal priorities, or null for none
+     */
+    public HeapFrontier(ToIntFunction<Node> priority, ToIntFunction<Node> tieBreak) {
+        Comparator<Node> comparator = Comparator.comparingInt(priority);
+        if (tieBreak != null) {
+            comparator = comparator.thenComparingInt(tieBreak);
+        }
+        this.queue = new PriorityQueue<>(comparator);
+    }
+    
+    @Override
+    public void add(Node node) {
+        queue.add(node);
+    }
+    
+    @Override
+    public Node poll() {
+        return queue.poll();
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+    
+    @Override
+    public int size() {
+        return queue.size();
+    }
+}
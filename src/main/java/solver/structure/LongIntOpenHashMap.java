@@ -0,0 +1,206 @@
+package solver.structure;
+
+import java.util.Arrays;
+
+/**
+ * Map from 64-bit state keys to int values (e.g. the best known g of a
+ * state in the open list), stored in two flat arrays with open addressing
+ * and linear probing. Removal uses backward-shift deletion, so no
+ * tombstones pile up while states move from the open to the closed list.
+ */
+public class LongIntOpenHashMap {
+    private static final int DEFAULT_EXPECTED_SIZE = 1 << 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    private static final int MAX_CAPACITY = 1 << 30;
+    
+    // Zero marks an empty slot, so a zero key is tracked separately
+    private static final long EMPTY = 0L;
+    
+    private final float loadFactor;
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int threshold;
+    private int size;
+    private boolean containsZero;
+    private int zeroValue;
+    
+    /**
+     * Creates a map with the default capacity and load factor.
+     */
+    public LongIntOpenHashMap() {
+        this(DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+    
+    /**
+     * Creates a map sized so that the expected number of keys fits without resizing.
+     * 
+     * @param expectedSize Number of keys expected to be stored at once
+     * @param loadFactor Fraction of slots that may be filled before the table doubles
+     */
+    public LongIntOpenHashMap(int expectedSize, float loadFactor) {
+        if (!(loadFactor > 0f && loadFactor < 1f)) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1: " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        long needed = (long) Math.ceil(Math.max(expectedSize, 1) / (double) loadFactor) + 1;
+        int capacity = needed >= MAX_CAPACITY
+            ? MAX_CAPACITY
+            : Math.max(2, Integer.highestOneBit((int) needed - 1) << 1);
+        allocate(capacity);
+    }
+    
+    /**
+     * Gets the value stored for a key.
+     * 
+     * @param key The state key
+     * @param defaultValue Value returned when the key is absent
+     * @return The stored value, or defaultValue
+     */
+    public int get(long key, int defaultValue) {
+        if (key == EMPTY) {
+            return containsZero ? zeroValue : defaultValue;
+        }
+        
+        int slot = Hashing.mix(key) & mask;
+        long current;
+        while ((current = keys[slot]) != EMPTY) {
+            if (current == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return defaultValue;
+    }
+    
+    /**
+     * Stores a value for a key, replacing any previous value.
+     * 
+     * @param key The state key
+     * @param value The value to store
+     * @throws IllegalStateException If the table is at its maximum capacity and full
+     */
+    public void put(long key, int value) {
+        if (key == EMPTY) {
+            if (!containsZero) {
+                containsZero = true;
+                size++;
+            }
+            zeroValue = value;
+            return;
+        }
+        
+        int slot = Hashing.mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > threshold) {
+            resize();
+        }
+    }
+    
+    /**
+     * Removes a key from the map.
+     * 
+     * @param key The state key
+     * @return true if the key was present
+     */
+    public boolean remove(long key) {
+        if (key == EMPTY) {
+            if (!containsZero) {
+                return false;
+            }
+            containsZero = false;
+            size--;
+            return true;
+        }
+        
+        int slot = Hashing.mix(key) & mask;
+        while (keys[slot] != key) {
+            if (keys[slot] == EMPTY) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        
+        // Shift later entries of the same probe run back into the hole
+        int hole = slot;
+        slot = (slot + 1) & mask;
+        while (keys[slot] != EMPTY) {
+            int home = Hashing.mix(keys[slot]) & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                keys[hole] = keys[slot];
+                values[hole] = values[slot];
+                hole = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        size--;
+        return true;
+    }
+    
+    /**
+     * Removes every key while keeping the current capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        containsZero = false;
+    }
+    
+    /**
+     * Gets the number of keys in the map.
+     * 
+     * @return Number of keys
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Estimates the memory held by the map.
+     * 
+     * @return Approximate size in bytes
+     */
+    public long memoryUsageBytes() {
+        // Two array headers plus 12 bytes per slot
+        return 32L + 12L * keys.length;
+    }
+    
+    private void resize() {
+        if (keys.length >= MAX_CAPACITY) {
+            // Filling past the load factor would end with no empty slot, and
+            // probes for a missing key would never stop
+            throw new IllegalStateException("Hash table is full at " + size + " keys");
+        }
+        
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != EMPTY) {
+                int slot = Hashing.mix(key) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+    
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        threshold = Math.min((int) (capacity * (double) loadFactor), capacity - 1);
+    }
+}
@@ -0,0 +1,140 @@
+package solver.structure;
+
+/**
+ * Visited set that stores keys in a flat long[] with open addressing and
+ * linear probing. There is no boxing and no entry object per key, so a set
+ * holding tens of millions of states costs roughly 8 / loadFactor bytes
+ * per key.
+ */
+public class LongOpenHashSet implements VisitedSet {
+    private static final int DEFAULT_EXPECTED_SIZE = 1 << 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    private static final int MAX_CAPACITY = 1 << 30;
+    
+    // Zero marks an empty slot, so a zero key is tracked separately
+    private static final long EMPTY = 0L;
+    
+    private final float loadFactor;
+    private long[] table;
+    private int mask;
+    private int threshold;
+    private int size;
+    private boolean containsZero;
+    
+    /**
+     * Creates a set with the default capacity and load factor.
+     */
+    public LongOpenHashSet() {
+        this(DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+    
+    /**
+     * Creates a set sized so that the expected number of keys fits without resizing.
+     * 
+     * @param expectedSize Number of keys expected to be added
+     * @param loadFactor Fraction of slots that may be filled before the table doubles
+     */
+    public LongOpenHashSet(int expectedSize, float loadFactor) {
+        if (!(loadFactor > 0f && loadFactor < 1f)) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1: " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        allocate(capacityFor(Math.max(expectedSize, 1), loadFactor));
+    }
+    
+    @Override
+    public boolean add(long key) {
+        if (key == EMPTY) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        
+        int slot = Hashing.mix(key) & mask;
+        while (table[slot] != EMPTY) {
+            if (table[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = key;
+        if (++size > threshold) {
+            resize();
+        }
+        return true;
+    }
+    
+    @Override
+    public boolean contains(long key) {
+        if (key == EMPTY) {
+            return containsZero;
+        }
+        
+        int slot = Hashing.mix(key) & mask;
+        long current;
+        while ((current = table[slot]) != EMPTY) {
+            if (current == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Gets the number of slots in the table.
+     * 
+     * @return Table capacity
+     */
+    public int capacity() {
+        return table.length;
+    }
+    
+    @Override
+    public long memoryUsageBytes() {
+        // Array header plus 8 bytes per slot
+        return 16L + 8L * table.length;
+    }
+    
+    private void resize() {
+        if (table.length >= MAX_CAPACITY) {
+            // Filling past the load factor would end with no empty slot, and
+            // probes for a missing key would never stop
+            throw new IllegalStateException("Hash table is full at " + size + " keys");
+        }
+        
+        long[] oldTable = table;
+        allocate(oldTable.length * 2);
+        for (long key : oldTable) {
+            if (key != EMPTY) {
+                int slot = Hashing.mix(key) & mask;
+                while (table[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = key;
+            }
+        }
+    }
+    
+    private void allocate(int capacity) {
+        table = new long[capacity];
+        mask = capacity - 1;
+        threshold = Math.min((int) (capacity * (double) loadFactor), capacity - 1);
+    }
+    
+    private static int capacityFor(int expectedSize, float loadFactor) {
+        long needed = (long) Math.ceil(expectedSize / (double) loadFactor) + 1;
+        if (needed >= MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+        return Math.max(2, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+}
@@ -0,0 +1,38 @@
+package solver.structure;
+
+/**
+ * Set of 64-bit state keys used by the solvers to remember which states
+ * have already been expanded.
+ */
+public interface VisitedSet {
+    /**
+     * Adds a key to the set.
+     * 
+     * @param key The state key
+     * @return true if the key was not in the set before
+     * @throws IllegalStateException If the set is at its maximum capacity and full
+     */
+    boolean add(long key);
+    
+    /**
+     * Checks whether a key is in the set.
+     * 
+     * @param key The state key
+     * @return true if the key has been added
+     */
+    boolean contains(long key);
+    
+    /**
+     * Gets the number of keys in the set.
+     * 
+     * @return Number of keys
+     */
+    int size();
+    
+    /**
+     * Estimates the memory held by the set.
+     * 
+     * @return Approximate size in bytes
+     */
+    long memoryUsageBytes();
+}
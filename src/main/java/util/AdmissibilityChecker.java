@@ -0,0 +1,325 @@
+package util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import logic.GameLogic;
+import logic.GameState;
+import logic.MoveBuffer;
+import solver.heuristic.BlockingChainHeuristic;
+import solver.heuristic.BlockingPiecesHeuristic;
+import solver.heuristic.CombinedHeuristic;
+import solver.heuristic.DistanceToExitHeuristic;
+import solver.heuristic.Heuristic;
+import solver.heuristic.PatternDatabaseHeuristic;
+import solver.structure.LongIntOpenHashMap;
+
+/**
+ * Kelas AdmissibilityChecker buat ngecek apakah heuristik admissible.
+ * Semua state yang bisa dicapai dari state awal dienumerasi, jarak pastinya
+ * ke goal dihitung pake BFS mundur dari semua state goal, lalu nilai
+ * heuristik tiap state dibandingin sama jarak itu.
+ *
+ * Bisa dijalanin langsung:
+ * java util.AdmissibilityChecker [--random jumlah] [--seed angka] file...
+ */
+public class AdmissibilityChecker {
+  /** Batas default jumlah state per puzzle. */
+  public static final int DEFAULT_MAX_STATES = 2_000_000;
+
+  /**
+   * Hasil pengecekan satu heuristik di satu puzzle.
+   */
+  public static class Report {
+    private final String heuristicName;
+    private int statesChecked;
+    private int solvableStates;
+    private int violations;
+    private int consistencyViolations;
+    private long heuristicSum;
+    private long distanceSum;
+    private GameState worstState;
+    private int worstHeuristic;
+    private int worstDistance;
+    private boolean truncated;
+
+    Report(String heuristicName) {
+      this.heuristicName = heuristicName;
+    }
+
+    /** @return Nama heuristik yang dicek */
+    public String getHeuristicName() {
+      return heuristicName;
+    }
+
+    /** @return Jumlah state yang dicek */
+    public int getStatesChecked() {
+      return statesChecked;
+    }
+
+    /** @return Jumlah state yang masih bisa mencapai goal */
+    public int getSolvableStates() {
+      return solvableStates;
+    }
+
+    /** @return Jumlah state yang nilai heuristiknya lebih dari jarak pastinya */
+    public int getViolations() {
+      return violations;
+    }
+
+    /**
+     * @return Jumlah gerakan s ke s' dengan h(s) > 1 + h(s'). Heuristik yang
+     *         admissible tapi nggak konsisten butuh A* yang bisa buka ulang
+     *         state yang udah ditutup biar solusinya tetap optimal
+     */
+    public int getConsistencyViolations() {
+      return consistencyViolations;
+    }
+
+    /** @return true kalau heuristiknya konsisten di semua gerakan yang dicek */
+    public boolean isConsistent() {
+      return consistencyViolations == 0;
+    }
+
+    /** @return true kalau nggak ada pelanggaran sama sekali */
+    public boolean isAdmissible() {
+      return violations == 0;
+    }
+
+    /** @return true kalau state space kepotong batas, jadi jaraknya nggak dicek */
+    public boolean isTruncated() {
+      return truncated;
+    }
+
+    /**
+     * Rata-rata h dibagi rata-rata jarak pasti di state yang bisa diselesaikan.
+     * Makin dekat ke 1, makin informatif heuristiknya.
+     *
+     * @return Rasio antara 0 dan 1 kalau admissible
+     */
+    public double getAccuracy() {
+      return distanceSum == 0 ? 1.0 : heuristicSum / (double) distanceSum;
+    }
+
+    /** @return State dengan pelanggaran terbesar, null kalau nggak ada */
+    public GameState getWorstState() {
+      return worstState;
+    }
+
+    @Override
+    public String toString() {
+      if (truncated) {
+        return String.format("%-20s dilewati, lebih dari batas state", heuristicName);
+      }
+      String result = String.format(
+          "%-20s %-5s  bisa selesai=%d  pelanggaran=%d  nggak konsisten=%d  akurasi=%.2f",
+          heuristicName, isAdmissible() ? "OK" : "GAGAL", solvableStates, violations,
+          consistencyViolations, getAccuracy());
+      if (worstState != null) {
+        result += "  terburuk: h=" + worstHeuristic + " > jarak=" + worstDistance;
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Ngecek satu heuristik di semua state yang bisa dicapai dari state awal.
+   *
+   * @param initialState State awal puzzle
+   * @param heuristic Heuristik yang dicek
+   * @param maxStates Batas jumlah state, puzzle yang lebih besar dilewati
+   * @return Hasil pengecekan
+   */
+  public static Report check(GameState initialState, Heuristic heuristic, int maxStates) {
+    List<GameState> states = new ArrayList<>();
+    int[] distances = exactDistances(initialState, states, maxStates);
+    if (distances == null) {
+      Report report = new Report(heuristic.getName());
+      report.truncated = true;
+      return report;
+    }
+    return check(states, distances, heuristic);
+  }
+
+  /**
+   * Ngecek satu heuristik pake jarak pasti yang udah dihitung, biar
+   * beberapa heuristik bisa dicek tanpa ngulang enumerasi. Selain
+   * admissibility, tiap gerakan antar state yang bisa selesai juga dicek
+   * konsistensinya.
+   *
+   * @param states Semua state dari {@link #exactDistances}
+   * @param distances Jarak pasti tiap state
+   * @param heuristic Heuristik yang dicek
+   * @return Hasil pengecekan
+   */
+  public static Report check(List<GameState> states, int[] distances, Heuristic heuristic) {
+    Report report = new Report(heuristic.getName());
+    int[] values = new int[states.size()];
+    LongIntOpenHashMap index = new LongIntOpenHashMap();
+    for (int i = 0; i < states.size(); i++) {
+      values[i] = heuristic.calculate(states.get(i));
+      index.put(states.get(i).getStateKey(), i);
+    }
+
+    MoveBuffer moves = new MoveBuffer();
+    for (int i = 0; i < states.size(); i++) {
+      GameState state = states.get(i);
+      int h = values[i];
+      int distance = distances[i];
+      report.statesChecked++;
+      if (distance < 0) {
+        // State buntu, nilai heuristik berapa pun tetap admissible
+        continue;
+      }
+      report.solvableStates++;
+      GameLogic.expandSuccessors(state, moves);
+      for (int m = 0; m < moves.size(); m++) {
+        int neighbor = index.get(state.getStateKeyAfterMove(moves.getPieceIndex(m), moves.getPosition(m)), -1);
+        if ((long) h > 1L + values[neighbor]) {
+          report.consistencyViolations++;
+        }
+      }
+      if (h > distance) {
+        report.violations++;
+        if (report.worstState == null
+            || (long) h - distance > (long) report.worstHeuristic - report.worstDistance) {
+          report.worstState = state;
+          report.worstHeuristic = h;
+          report.worstDistance = distance;
+        }
+      } else {
+        report.heuristicSum += h;
+        report.distanceSum += distance;
+      }
+    }
+    return report;
+  }
+
+  /**
+   * Ngitung jarak pasti ke goal buat semua state yang bisa dicapai. Gerakan
+   * geser selalu bisa dibalik, jadi BFS dari semua goal sekaligus ngasih
+   * jarak terpendek tiap state ke goal terdekat.
+   *
+   * @param initialState State awal puzzle
+   * @param states List yang diisi semua state, urutannya sama kayak hasilnya
+   * @param maxStates Batas jumlah state
+   * @return Jarak tiap state ke goal (-1 kalau buntu), null kalau lebih dari batas
+   */
+  public static int[] exactDistances(GameState initialState, List<GameState> states, int maxStates) {
+    LongIntOpenHashMap index = new LongIntOpenHashMap();
+    MoveBuffer moves = new MoveBuffer();
+    states.clear();
+    states.add(initialState);
+    index.put(initialState.getStateKey(), 0);
+
+    // Enumerasi semua state yang bisa dicapai
+    for (int head = 0; head < states.size(); head++) {
+      GameState state = states.get(head);
+      GameLogic.expandSuccessors(state, moves);
+      for (int i = 0; i < moves.size(); i++) {
+        long key = state.getStateKeyAfterMove(moves.getPieceIndex(i), moves.getPosition(i));
+        if (index.get(key, -1) < 0) {
+          if (states.size() >= maxStates) {
+            return null;
+          }
+          index.put(key, states.size());
+          states.add(state.withPiecePosition(moves.getPieceIndex(i), moves.getPosition(i)));
+        }
+      }
+    }
+
+    // BFS mundur mulai dari semua goal
+    int[] distances = new int[states.size()];
+    int[] queue = new int[states.size()];
+    int tail = 0;
+    for (int i = 0; i < states.size(); i++) {
+      if (states.get(i).isPrimaryPieceAtExit()) {
+        distances[i] = 0;
+        queue[tail++] = i;
+      } else {
+        distances[i] = -1;
+      }
+    }
+    for (int head = 0; head < tail; head++) {
+      GameState state = states.get(queue[head]);
+      GameLogic.expandSuccessors(state, moves);
+      for (int i = 0; i < moves.size(); i++) {
+        int neighbor = index.get(state.getStateKeyAfterMove(moves.getPieceIndex(i), moves.getPosition(i)), -1);
+        if (distances[neighbor] < 0) {
+          distances[neighbor] = distances[queue[head]] + 1;
+          queue[tail++] = neighbor;
+        }
+      }
+    }
+    return distances;
+  }
+
+  public static void main(String[] args) {
+    int randomCount = 0;
+    long seed = 1;
+    List<String> files = new ArrayList<>();
+    for (int i = 0; i < args.length; i++) {
+      if (args[i].equals("--random") && i + 1 < args.length) {
+        randomCount = Integer.parseInt(args[++i]);
+      } else if (args[i].equals("--seed") && i + 1 < args.length) {
+        seed = Long.parseLong(args[++i]);
+      } else {
+        files.add(args[i]);
+      }
+    }
+    if (files.isEmpty() && randomCount == 0) {
+      System.out.println("Pemakaian: java util.AdmissibilityChecker [--random jumlah] [--seed angka] file...");
+      return;
+    }
+
+    boolean allAdmissible = true;
+    for (String file : files) {
+      try {
+        allAdmissible &= checkAll(file, ConfigParser.parseConfig(file));
+      } catch (IOException e) {
+        System.out.println(file + ": " + e.getMessage());
+      }
+    }
+    Random random = new Random(seed);
+    for (int i = 0; i < randomCount; i++) {
+      GameState state = PuzzleGenerator.generate(6, 6, 8 + random.nextInt(8), random);
+      allAdmissible &= checkAll("acak #" + (i + 1), state);
+    }
+
+    System.out.println(allAdmissible
+        ? "Semua heuristik admissible lolos di semua puzzle."
+        : "Ada heuristik admissible yang melanggar, cek hasil di atas.");
+  }
+
+  /**
+   * Ngecek semua heuristik di satu puzzle dan ngeprint hasilnya.
+   *
+   * @return false kalau heuristik yang seharusnya admissible ternyata melanggar
+   */
+  private static boolean checkAll(String name, GameState state) {
+    List<GameState> states = new ArrayList<>();
+    int[] distances = exactDistances(state, states, DEFAULT_MAX_STATES);
+    if (distances == null) {
+      System.out.println("== " + name + ": dilewati, lebih dari " + DEFAULT_MAX_STATES + " state");
+      return true;
+    }
+    System.out.println("== " + name + " (" + states.size() + " state, jarak awal " + distances[0] + ")");
+
+    Heuristic[] admissible = {
+        new BlockingChainHeuristic(), new BlockingPiecesHeuristic(), new PatternDatabaseHeuristic()
+    };
+    boolean ok = true;
+    for (Heuristic heuristic : admissible) {
+      Report report = check(states, distances, heuristic);
+      System.out.println("  " + report);
+      ok &= report.isAdmissible();
+    }
+    // Cuma buat pembanding, dua ini ngitung jarak per sel padahal satu geseran sejauh apa pun
+    // dihitung satu langkah, jadi memang nggak dijamin admissible
+    System.out.println("  " + check(states, distances, new DistanceToExitHeuristic()));
+    System.out.println("  " + check(states, distances, new CombinedHeuristic()));
+    return ok;
+  }
+}
@@ -0,0 +1,380 @@
+package util;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import logic.GameState;
+import logic.Node;
+import logic.Solution;
+import solver.algorithm.AStarSolver;
+import solver.algorithm.AnytimeAStarSolver;
+import solver.algorithm.BestFSolver;
+import solver.algorithm.BidirectionalBFSSolver;
+import solver.algorithm.BranchAndBoundSolver;
+import solver.algorithm.IDAStarSolver;
+import solver.algorithm.ParallelAStarSolver;
+import solver.algorithm.PortfolioSolver;
+import solver.algorithm.SearchBudget;
+import solver.algorithm.SearchStatus;
+import solver.algorithm.Solver;
+import solver.algorithm.UCSolver;
+import solver.heuristic.BlockingChainHeuristic;
+import solver.heuristic.BlockingPiecesHeuristic;
+import solver.heuristic.CombinedHeuristic;
+import solver.heuristic.DistanceToExitHeuristic;
+import solver.heuristic.Heuristic;
+import solver.heuristic.ManhattanDistanceHeuristic;
+import solver.heuristic.PatternDatabaseHeuristic;
+import solver.heuristic.PieceDensityHeuristic;
+
+/**
+ * Kelas BatchSolver buat nyelesaiin banyak file konfigurasi tanpa GUI.
+ * File dikerjain paralel di pool thread dengan ukuran tetap, tiap puzzle
+ * dapet solver sendiri. Hasilnya satu baris per puzzle (JSON Lines atau
+ * CSV) yang langsung ditulis begitu puzzle selesai, ditutup satu baris
+ * total di akhir.
+ */
+public class BatchSolver {
+  /** Format baris hasil. */
+  public enum Format {
+    JSONL, CSV
+  }
+
+  private final String algorithm;
+  private final String heuristicName;
+  private final int threads;
+  private final SearchBudget budget;
+  private final Format format;
+  private Path solutionDirectory;
+
+  /**
+   * Bikin batch solver.
+   *
+   * @param algorithm Nama algoritma, lihat {@link #createSolver}
+   * @param heuristicName Nama heuristik, lihat {@link #createHeuristic}
+   * @param threads Jumlah puzzle yang dikerjain barengan
+   * @param budget Batas tiap puzzle. Batas memorinya dibagi rata ke semua thread
+   * @param format Format baris hasil
+   */
+  public BatchSolver(String algorithm, String heuristicName, int threads, SearchBudget budget, Format format) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Thread count must be positive: " + threads);
+    }
+    // Cek nama di awal biar salah ketik nggak baru ketahuan per file
+    createSolver(algorithm, createHeuristic(heuristicName));
+    this.algorithm = algorithm;
+    this.heuristicName = heuristicName;
+    this.threads = threads;
+    this.budget = budget;
+    this.format = format;
+  }
+
+  /**
+   * Nyimpen solusi tiap puzzle yang berhasil diselesaiin ke direktori ini
+   * dalam format biner SolutionCodec, namanya nama file puzzle dengan
+   * ekstensi .rhs.
+   *
+   * @param solutionDirectory Direktori tujuan, null buat nggak nyimpen
+   */
+  public void setSolutionDirectory(Path solutionDirectory) {
+    this.solutionDirectory = solutionDirectory;
+  }
+
+  /**
+   * Nyelesaiin semua file dan nulis hasilnya.
+   *
+   * @param files File konfigurasi, hasilnya ditulis sesuai urutan selesai
+   * @param out Tujuan baris hasil
+   * @return Jumlah file yang gagal dibaca atau error waktu diselesaiin
+   */
+  public int run(List<Path> files, PrintStream out) throws InterruptedException {
+    if (format == Format.CSV) {
+      out.println("file,status,stop_reason,moves,nodes,max_frontier,time_ms,error");
+    }
+    SearchBudget perPuzzle = budget.getMaxMemoryBytes() == Long.MAX_VALUE
+        ? budget
+        : budget.withMaxMemoryBytes(budget.getMaxMemoryBytes() / threads);
+
+    AtomicInteger solved = new AtomicInteger();
+    AtomicInteger bestSoFar = new AtomicInteger();
+    AtomicInteger noSolution = new AtomicInteger();
+    AtomicInteger stopped = new AtomicInteger();
+    AtomicInteger errors = new AtomicInteger();
+    AtomicLong totalNodes = new AtomicLong();
+    AtomicLong totalSolveMs = new AtomicLong();
+    long start = System.nanoTime();
+
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    for (Path file : files) {
+      pool.execute(() -> {
+        Result result = solve(file, perPuzzle);
+        if (result.error != null) {
+          errors.incrementAndGet();
+        } else if (result.status == SearchStatus.SOLVED) {
+          solved.incrementAndGet();
+        } else if (result.status == SearchStatus.BEST_SO_FAR) {
+          // Ada solusi, tapi pencariannya kepotong jadi belum tentu optimal
+          bestSoFar.incrementAndGet();
+        } else if (result.status == SearchStatus.NO_SOLUTION) {
+          noSolution.incrementAndGet();
+        } else {
+          stopped.incrementAndGet();
+        }
+        totalNodes.addAndGet(result.nodes);
+        totalSolveMs.addAndGet(result.timeMs);
+        String line = format == Format.CSV ? result.toCsv() : result.toJson();
+        synchronized (out) {
+          out.println(line);
+        }
+      });
+    }
+    pool.shutdown();
+    pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    long wallMs = (System.nanoTime() - start) / 1_000_000;
+
+    String summary = String.format(Locale.ROOT,
+        "{\"summary\":true,\"files\":%d,\"solved\":%d,\"best_so_far\":%d,\"no_solution\":%d,"
+            + "\"stopped\":%d,\"errors\":%d,\"nodes\":%d,\"solve_ms\":%d,\"wall_ms\":%d,\"threads\":%d}",
+        files.size(), solved.get(), bestSoFar.get(), noSolution.get(), stopped.get(), errors.get(),
+        totalNodes.get(), totalSolveMs.get(), wallMs, threads);
+    if (format == Format.CSV) {
+      // Baris total nggak cocok sama kolom CSV, jadi ditulis ke stderr
+      System.err.println(summary);
+    } else {
+      out.println(summary);
+    }
+    out.flush();
+    return errors.get();
+  }
+
+  private Result solve(Path file, SearchBudget perPuzzle) {
+    Result result = new Result(file);
+    try {
+      GameState initialState = ConfigParser.parseConfig(file.toString());
+      Solver solver = createSolver(algorithm, createHeuristic(heuristicName));
+      solver.setBudget(perPuzzle);
+      Node goal = solver.solve(initialState);
+      result.status = solver.getStatus();
+      result.stopReason = solver.getStopReason();
+      result.moves = goal != null ? goal.getCost() : -1;
+      result.nodes = solver.getNodesExplored();
+      result.maxFrontier = solver.getMaxQueueSize();
+      result.timeMs = solver.getExecutionTimeMs();
+      if (goal != null && solutionDirectory != null) {
+        String name = file.getFileName().toString().replaceFirst("\\.txt$", "");
+        SolutionCodec.writeFile(Solution.fromPath(goal), solutionDirectory.resolve(name + ".rhs"));
+      }
+    } catch (Exception | OutOfMemoryError e) {
+      result.error = e.getMessage() != null ? e.getMessage() : e.toString();
+    }
+    return result;
+  }
+
+  /**
+   * Hasil satu file.
+   */
+  private static final class Result {
+    final Path file;
+    SearchStatus status;
+    SearchStatus stopReason;
+    int moves = -1;
+    int nodes;
+    int maxFrontier;
+    long timeMs;
+    String error;
+
+    Result(Path file) {
+      this.file = file;
+    }
+
+    String toJson() {
+      StringBuilder sb = new StringBuilder("{\"file\":");
+      appendJsonString(sb, file.toString());
+      if (error != null) {
+        sb.append(",\"status\":\"ERROR\",\"error\":");
+        appendJsonString(sb, error);
+        return sb.append('}').toString();
+      }
+      sb.append(",\"status\":\"").append(status).append('"');
+      if (stopReason != null) {
+        sb.append(",\"stop_reason\":\"").append(stopReason).append('"');
+      }
+      return sb.append(",\"moves\":").append(moves)
+          .append(",\"nodes\":").append(nodes)
+          .append(",\"max_frontier\":").append(maxFrontier)
+          .append(",\"time_ms\":").append(timeMs)
+          .append('}').toString();
+    }
+
+    String toCsv() {
+      if (error != null) {
+        return csvField(file.toString()) + ",ERROR,,,,,," + csvField(error);
+      }
+      return csvField(file.toString()) + "," + status + "," + (stopReason != null ? stopReason : "")
+          + "," + moves + "," + nodes + ","
+          + maxFrontier + "," + timeMs + ",";
+    }
+  }
+
+  private static void appendJsonString(StringBuilder sb, String value) {
+    sb.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        sb.append('\\').append(c);
+      } else if (c < 0x20) {
+        sb.append(String.format("\\u%04x", (int) c));
+      } else {
+        sb.append(c);
+      }
+    }
+    sb.append('"');
+  }
+
+  private static String csvField(String value) {
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+
+  /**
+   * Nyari file konfigurasi dari direktori, pola glob, atau path file.
+   * Direktori diambil semua file .txt-nya (nggak rekursif), glob kayak
+   * test/config/0*.txt atau corpus/**.txt dicocokin dari direktori
+   * sebelum karakter wildcard pertama.
+   *
+   * @param argument Direktori, glob, atau file
+   * @return File yang cocok, urut berdasarkan path
+   * @throws IOException Kalau direktori nggak bisa dibaca
+   */
+  public static List<Path> findFiles(String argument) throws IOException {
+    List<Path> files = new ArrayList<>();
+    int wildcard = firstWildcard(argument);
+    if (wildcard < 0) {
+      Path path = Paths.get(argument);
+      if (Files.isDirectory(path)) {
+        try (Stream<Path> listing = Files.list(path)) {
+          listing.filter(p -> Files.isRegularFile(p) && p.toString().endsWith(".txt"))
+              .forEach(files::add);
+        }
+      } else {
+        files.add(path);
+      }
+    } else {
+      int separator = Math.max(argument.lastIndexOf('/', wildcard), argument.lastIndexOf('\\', wildcard));
+      Path base = Paths.get(separator < 0 ? "." : argument.substring(0, separator + 1));
+      PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + argument.substring(separator + 1));
+      try (Stream<Path> walk = Files.walk(base)) {
+        walk.filter(p -> Files.isRegularFile(p) && matcher.matches(base.relativize(p)))
+            .forEach(files::add);
+      }
+    }
+    files.sort(null);
+    return files;
+  }
+
+  private static int firstWildcard(String pattern) {
+    for (int i = 0; i < pattern.length(); i++) {
+      if ("*?[{".indexOf(pattern.charAt(i)) >= 0) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Bikin heuristik dari namanya. Huruf besar kecil, spasi, dan tanda
+   * hubung diabaikan, jadi "Blocking Chain" dan "blocking-chain" sama.
+   *
+   * @param name manhattan, blocking, combined, distance, density, pdb, chain, atau none
+   * @return Heuristik, null buat none
+   */
+  public static Heuristic createHeuristic(String name) {
+    switch (normalize(name)) {
+      case "none":
+        return null;
+      case "manhattan":
+      case "manhattandistance":
+        return new ManhattanDistanceHeuristic();
+      case "blocking":
+      case "blockingpieces":
+        return new BlockingPiecesHeuristic();
+      case "combined":
+        return new CombinedHeuristic();
+      case "distance":
+      case "distancetoexit":
+        return new DistanceToExitHeuristic();
+      case "density":
+      case "piecedensity":
+        return new PieceDensityHeuristic();
+      case "pdb":
+      case "patterndatabase":
+        return new PatternDatabaseHeuristic();
+      case "chain":
+      case "blockingchain":
+        return new BlockingChainHeuristic();
+      default:
+        throw new IllegalArgumentException("Unknown heuristic: " + name);
+    }
+  }
+
+  /**
+   * Bikin solver dari nama algoritma. Algoritma terinformasi yang nggak
+   * dikasih heuristik pake Blocking Pieces.
+   *
+   * @param name ucs, bidirectional, gbfs, astar, hda, ida, ara, bnb, atau portfolio
+   * @param heuristic Heuristik buat algoritma terinformasi, boleh null
+   * @return Solver baru
+   */
+  public static Solver createSolver(String name, Heuristic heuristic) {
+    Heuristic informed = heuristic != null ? heuristic : new BlockingPiecesHeuristic();
+    switch (normalize(name)) {
+      case "ucs":
+        return new UCSolver();
+      case "bidirectional":
+      case "bidirectionalbfs":
+        return new BidirectionalBFSSolver();
+      case "portfolio":
+        return PortfolioSolver.withDefaultConfigurations();
+      case "gbfs":
+      case "greedy":
+        return new BestFSolver(informed);
+      case "astar":
+      case "a*":
+        return new AStarSolver(informed);
+      case "hda":
+      case "hda*":
+        return new ParallelAStarSolver(informed);
+      case "ida":
+      case "ida*":
+        return new IDAStarSolver(informed);
+      case "ara":
+      case "ara*":
+        return new AnytimeAStarSolver(informed);
+      case "bnb":
+      case "branchandbound":
+        return new BranchAndBoundSolver(informed);
+      default:
+        throw new IllegalArgumentException("Unknown algorithm: " + name);
+    }
+  }
+
+  private static String normalize(String name) {
+    return name.toLowerCase(Locale.ROOT).replace(" ", "").replace("-", "").replace("_", "");
+  }
+}
@@ -12,6 +12,7 @@ import logic.Board;
 import logic.GameState;
 import logic.Piece;
 import logic.PrimaryPiece;
+import logic.PuzzleLayout;
 
 /**
  * Kelas ConfigParser buat baca file konfigurasi.
@@ -48,16 +49,9 @@ public class ConfigParser {
       int rows = Integer.parseInt(dimensions[0]);
       int cols = Integer.parseInt(dimensions[1]);
       
-      if (rows <= 1 || cols <= 1){
-        throw new IOException("Board dimension must be greater than 2!");
-      }
-      
       // Baca jumlah Block biasa
       int nonPrimaryPieceCount = Integer.parseInt(allLines.get(1).trim());
-
-      if (nonPrimaryPieceCount < 0){
-        throw new IOException("The nonPrimary block cannot be negative!");
-      }
+      validateHeader(rows, cols, nonPrimaryPieceCount);
       
       // Collect all content lines (skip header lines)
       List<String> contentLines = new ArrayList<>();
@@ -65,291 +59,293 @@ public class ConfigParser {
         contentLines.add(allLines.get(i).toUpperCase());
       }
       
-      // Initialize grid with empty spaces
-      char[][] grid = new char[rows][cols];
-      for (int i = 0; i < rows; i++) {
-        for (int j = 0; j < cols; j++) {
-          grid[i][j] = '.';
-        }
-      }
-      
-      // First scan to find the exit position and side
-      int exitX = -1;
-      int exitY = -1;
-      int exitSide = -1; // 0=top, 1=right, 2=bottom, 3=left
-      boolean hasLeftExit = false;
-      boolean hasTopExit = false;
-      boolean hasBottomExit = false;
-      boolean hasRightExit = false;
-      
-      // STEP 1: Find exits outside the grid
-      
-      // Check for TOP exit (separate line before the board)
-      if (!contentLines.isEmpty() && isExitLine(contentLines.get(0))) {
-        hasTopExit = true;
-        String topLine = contentLines.get(0);
-        exitX = topLine.indexOf('K');
-        exitY = -1;
-        exitSide = 0; // Top
-        contentLines.remove(0); // Remove this line so we don't process it as part of the board
-      }
-      
-      // Check for BOTTOM exit (separate line after the board)
-      if (contentLines.size() > rows && isExitLine(contentLines.get(rows))) {
-        hasBottomExit = true;
-        String bottomLine = contentLines.get(rows);
-        exitX = bottomLine.indexOf('K');
-        exitY = rows;
-        exitSide = 2; // Bottom
-      }
-      
-      // STEP 2: Process the actual board content
-      List<String> boardLines = new ArrayList<>();
-      
-      // Take only the rows we need for the board
-      for (int i = 0; i < Math.min(rows, contentLines.size()); i++) {
-        boardLines.add(contentLines.get(i));
-      }
+      return parseBoard(rows, cols, contentLines);
+    } catch (Exception e) {
+      throw new IOException("Error parsing configuration: " + e.getMessage(), e);
+    }
+  }
 
-      // Validation: K must not be in Board (harus di luar grid)
-      boolean leftExitHasSpace = false;
+  /**
+   * Ngecek dimensi papan dan jumlah Block dari header.
+   */
+  static void validateHeader(int rows, int cols, int nonPrimaryPieceCount) throws IOException {
+    if (rows <= 1 || cols <= 1){
+      throw new IOException("Board dimension must be greater than 2!");
+    }
+    if (rows > PuzzleLayout.MAX_DIMENSION || cols > PuzzleLayout.MAX_DIMENSION) {
+      throw new IOException("Board dimension cannot exceed " + PuzzleLayout.MAX_DIMENSION + "!");
+    }
+    if (nonPrimaryPieceCount < 0){
+      throw new IOException("The nonPrimary block cannot be negative!");
+    }
+  }
 
-      // Pertama cek apakah baris lain memiliki spasi awalan (untuk left exit)
-      for (int i = 0; i < boardLines.size(); i++) {
-        String rowLine = boardLines.get(i);
-        
-        // Jika baris dimulai dengan spasi, catat
-        if (!rowLine.startsWith(" ")) {
-          leftExitHasSpace = false;
-          break;
-        } else leftExitHasSpace = true;
+  /**
+   * Bikin GameState dari baris-baris setelah header: baris pintu keluar
+   * atas kalau ada, baris papan, lalu baris pintu keluar bawah kalau ada.
+   * Barisnya harus udah huruf besar. Dipake juga sama PuzzleCorpusReader,
+   * jadi aturan pintu keluarnya sama persis, dan barisnya cuma dibaca,
+   * nggak pernah diubah.
+   *
+   * @param rows Jumlah baris papan
+   * @param cols Jumlah kolom papan
+   * @param contentLines Baris setelah header
+   * @return GameState awal puzzle
+   * @throws IOException Kalau konfigurasinya nggak valid
+   */
+  static GameState parseBoard(int rows, int cols, List<? extends CharSequence> contentLines) throws IOException {
+    // Initialize grid with empty spaces
+    char[][] grid = new char[rows][cols];
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < cols; j++) {
+        grid[i][j] = '.';
       }
+    }
+    
+    // First scan to find the exit position and side
+    int exitX = -1;
+    int exitY = -1;
+    int exitSide = -1; // 0=top, 1=right, 2=bottom, 3=left
+    boolean hasLeftExit = false;
+    
+    // STEP 1: Find exits outside the grid
+    
+    // Check for TOP exit (separate line before the board)
+    int firstBoardLine = 0;
+    if (!contentLines.isEmpty() && isExitLine(contentLines.get(0))) {
+      exitX = indexOf(contentLines.get(0), 'K');
+      exitY = -1;
+      exitSide = 0; // Top
+      firstBoardLine = 1; // Skip this line so we don't process it as part of the board
+    }
+    
+    // Check for BOTTOM exit (separate line after the board)
+    if (contentLines.size() - firstBoardLine > rows && isExitLine(contentLines.get(firstBoardLine + rows))) {
+      exitX = indexOf(contentLines.get(firstBoardLine + rows), 'K');
+      exitY = rows;
+      exitSide = 2; // Bottom
+    }
+    
+    // STEP 2: Process the actual board content
+    // Take only the rows we need for the board
+    List<? extends CharSequence> boardLines = contentLines.subList(firstBoardLine,
+        firstBoardLine + Math.min(rows, contentLines.size() - firstBoardLine));
 
-      int kCount = 0;
-      for (int i = 0; i < boardLines.size(); i++) {
-        String rowLine = boardLines.get(i);
-        int kIndex = rowLine.indexOf('K');
+    // Validation: K must not be in Board (harus di luar grid)
+    boolean leftExitHasSpace = false;
+
+    // Pertama cek apakah baris lain memiliki spasi awalan (untuk left exit)
+    for (int i = 0; i < boardLines.size(); i++) {
+      CharSequence rowLine = boardLines.get(i);
+      
+      // Jika baris dimulai dengan spasi, catat
+      if (rowLine.length() == 0 || rowLine.charAt(0) != ' ') {
+        leftExitHasSpace = false;
+        break;
+      } else leftExitHasSpace = true;
+    }
+
+    int kCount = 0;
+    for (int i = 0; i < boardLines.size(); i++) {
+      CharSequence rowLine = boardLines.get(i);
+      int kIndex = indexOf(rowLine, 'K');
+      
+      if (kIndex != -1) {
+        kCount++;
         
-        if (kIndex != -1) {
-          kCount++;
-          
-          // K hanya valid di posisi:
-          // - Kolom pertama (indeks 0) HANYA jika akan diproses sebagai left exit DAN baris lain memiliki spasi awalan
-          // - Kolom terakhir (>= cols atau == rowLine.length()-1) HANYA jika akan diproses sebagai right exit
-          boolean isValidLeftExitPosition = (kIndex == 0 && leftExitHasSpace);
-          boolean isValidRightExitPosition = (kIndex >= cols || kIndex == rowLine.length()-1);
-          
-          // K hanya valid di tepi, tidak boleh di dalam papan
-          if (!isValidLeftExitPosition && !isValidRightExitPosition) {
-            throw new IOException("Invalid exit position: Exit marker 'K' must be outside the board. " + 
-                                "Found at row " + (i+1) + ", column " + (kIndex+1) + ".");
-          }
-          
-          // Jika K di posisi left exit, pastikan ini adalah awal baris (tidak ada karakter lain di kiri)
-          if (kIndex == 0 && !leftExitHasSpace) {
-            throw new IOException("Invalid left exit configuration: For left exit, other rows must have " +  "leading spaces to position the exit outside the board.");
-          }
+        // K hanya valid di posisi:
+        // - Kolom pertama (indeks 0) HANYA jika akan diproses sebagai left exit DAN baris lain memiliki spasi awalan
+        // - Kolom terakhir (>= cols atau == rowLine.length()-1) HANYA jika akan diproses sebagai right exit
+        boolean isValidLeftExitPosition = (kIndex == 0 && leftExitHasSpace);
+        boolean isValidRightExitPosition = (kIndex >= cols || kIndex == rowLine.length()-1);
+        
+        // K hanya valid di tepi, tidak boleh di dalam papan
+        if (!isValidLeftExitPosition && !isValidRightExitPosition) {
+          throw new IOException("Invalid exit position: Exit marker 'K' must be outside the board. " + 
+                              "Found at row " + (i+1) + ", column " + (kIndex+1) + ".");
+        }
+        
+        // Jika K di posisi left exit, pastikan ini adalah awal baris (tidak ada karakter lain di kiri)
+        if (kIndex == 0 && !leftExitHasSpace) {
+          throw new IOException("Invalid left exit configuration: For left exit, other rows must have " +  "leading spaces to position the exit outside the board.");
         }
       }
-      
-      if (kCount > 1) {
-        throw new IOException("Invalid configuration: Multiple exit markers ('K') found. Only one exit is allowed.");
+    }
+    
+    if (kCount > 1) {
+      throw new IOException("Invalid configuration: Multiple exit markers ('K') found. Only one exit is allowed.");
+    }
+    
+    // STEP 3: Find exits in the board content
+    // K di baris papan nggak perlu dihapus, waktu ngisi grid K dianggap sel kosong
+    
+    // Check for LEFT EXIT in any row
+    for (int i = 0; i < boardLines.size(); i++) {
+      if (firstNonSpaceIs(boardLines.get(i), 'K')) {
+        hasLeftExit = true;
+        exitX = -1;
+        exitY = i;
+        exitSide = 3; // Left
+        break;
       }
-      
-      // STEP 3: Find exits in the board content
-      
-      // Check for LEFT EXIT in any row
+    }
+    
+    // Check for RIGHT EXIT in any row
+    if (exitSide == -1) {
       for (int i = 0; i < boardLines.size(); i++) {
-        String rowLine = boardLines.get(i);
-        if (rowLine.trim().startsWith("K")) {
-          hasLeftExit = true;
-          exitX = -1;
+        CharSequence rowLine = boardLines.get(i);
+        int kIndex = indexOf(rowLine, 'K');
+        
+        if (kIndex != -1 && (kIndex == rowLine.length() - 1 || kIndex >= cols)) {
+          exitX = cols;
           exitY = i;
-          exitSide = 3; // Left
-          
-          // Update boardLine to remove K
-          boardLines.set(i, rowLine.replaceFirst("K", " "));
+          exitSide = 1; // Right
           break;
         }
       }
+    }
+    
+    // Check if we found an exit
+    if (exitSide == -1) {
+      throw new IOException("Exit ('K') not found in configuration");
+    }
+    
+    // STEP 4: Fill the grid from board lines, handling left exit for all rows
+    for (int i = 0; i < Math.min(rows, boardLines.size()); i++) {
+      CharSequence rowContent = boardLines.get(i);
       
-      // Check for RIGHT EXIT in any row
-      if (exitSide == -1) {
-        for (int i = 0; i < boardLines.size(); i++) {
-          String rowLine = boardLines.get(i);
-          int kIndex = rowLine.indexOf('K');
-          
-          if (kIndex != -1 && (kIndex == rowLine.length() - 1 || kIndex >= cols)) {
-            hasRightExit = true;
-            exitX = cols;
-            exitY = i;
-            exitSide = 1; // Right
-            
-            // Update boardLine to remove K
-            boardLines.set(i, rowLine.substring(0, kIndex));
-            break;
-          }
-        }
-      }
-      
-      // Check if we found an exit
-      if (exitSide == -1) {
-        throw new IOException("Exit ('K') not found in configuration");
-      }
+      // If has left exit, skip first character of EVERY row
+      int skip = hasLeftExit ? Math.min(1, rowContent.length()) : 0;
       
-      // STEP 4: Fill the grid from board lines, handling left exit for all rows
-      for (int i = 0; i < Math.min(rows, boardLines.size()); i++) {
-        String rowContent = boardLines.get(i);
-        
-        // If has left exit, skip first character of EVERY row
-        if (hasLeftExit) {
-          if (rowContent.length() > 0) {
-            rowContent = rowContent.substring(Math.min(1, rowContent.length()));
-          }
+      // Fill grid from the processed content, skiping spaces and K
+      for (int j = 0; j < Math.min(rowContent.length() - skip, cols); j++) {
+        char c = rowContent.charAt(skip + j);
+        if (c != 'K' && c != ' ') {
+          grid[i][j] = c;
+        } else if (c == ' ') {
+          grid[i][j] = '.'; // Replace spaces with dots
         }
-        
-        // Fill grid from the processed content, skiping spaces and K
-        for (int j = 0; j < Math.min(rowContent.length(), cols); j++) {
-          if (j < rowContent.length()) {
-            char c = rowContent.charAt(j);
-            if (c != 'K' && c != ' ') {
-              grid[i][j] = c;
-            } else if (c == ' ') {
-              grid[i][j] = '.'; // Replace spaces with dots
-            }
-          }
+      }
+    }
+    
+    // Create board with exit information
+    Board board = new Board(rows, cols, exitX, exitY, exitSide);
+    board.setGrid(grid);
+    
+    // Identifikasi dan buat semua Block
+    Map<Character, List<int[]>> pieceCoordinates = new HashMap<>();
+    
+    // Kumpulkan koordinat untuk setiap label Block
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < cols; j++) {
+        char cell = grid[i][j];
+        if (cell != '.' && cell != ' ' && cell != 'K') {
+          pieceCoordinates.computeIfAbsent(cell, k -> new ArrayList<>())
+                      .add(new int[]{j, i});
         }
       }
+    }
+    
+    // Debug output
+    // System.out.println("\nDetected pieces:");
+    // for (Map.Entry<Character, List<int[]>> entry : pieceCoordinates.entrySet()) {
+    //   System.out.println("Piece " + entry.getKey() + ": " + entry.getValue().size() + " cells");
+    // }
+    
+    // Prepare for creating GameState with new structure
+    List<Piece> pieces = new ArrayList<>();
+    List<Integer> positionsX = new ArrayList<>();
+    List<Integer> positionsY = new ArrayList<>();
+    PrimaryPiece primaryPiece = null;
+    int primaryX = -1;
+    int primaryY = -1;
+
+    // Process each piece
+    for (Map.Entry<Character, List<int[]>> entry : pieceCoordinates.entrySet()) {
+      char label = entry.getKey();
+      List<int[]> coords = entry.getValue();
+
+      // Semua koordinat piece harus terhubung
+      boolean isConnected = validateConnectedPiece(coords);
+      if (!isConnected) {
+        throw new IOException("Found disconnected piece parts with same label '" + label + "'. Each piece must be contiguous.");
+      }
       
-      // Print final grid for verification
-      // System.out.println("\nFinal grid (without K):");
-      // for (int i = 0; i < rows; i++) {
-      //   for (int j = 0; j < cols; j++) {
-      //     System.out.print(grid[i][j]);
-      //   }
-      //   System.out.println();
-      // }
-      
-      // Create board with exit information
-      Board board = new Board(rows, cols, exitX, exitY, exitSide);
-      board.setGrid(grid);
+      // Determine orientation and size
+      boolean isHorizontal;
+      int size = coords.size(); // Size is the number of cells
+      if (size < 2) {
+        throw new IOException("Piece length has to be more than 1 block length!");
+      }
+      int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
       
-      // Debug exit information
-      // System.out.println("Exit position: (" + exitX + "," + exitY + "), exit side: " + exitSide);
+      // Find top-left corner
+      for (int[] coord : coords) {
+        minX = Math.min(minX, coord[0]);
+        minY = Math.min(minY, coord[1]);
+      }
       
-      // Identifikasi dan buat semua Block
-      Map<Character, List<int[]>> pieceCoordinates = new HashMap<>();
+      // Check if horizontal (all Y values are the same)
+      boolean sameY = true;
+      int baseY = coords.get(0)[1];
       
-      // Kumpulkan koordinat untuk setiap label Block
-      for (int i = 0; i < rows; i++) {
-        for (int j = 0; j < cols; j++) {
-          char cell = grid[i][j];
-          if (cell != '.' && cell != ' ' && cell != 'K') {
-            pieceCoordinates.computeIfAbsent(cell, k -> new ArrayList<>())
-                        .add(new int[]{j, i});
-          }
+      for (int[] coord : coords) {
+        if (coord[1] != baseY) {
+          sameY = false;
+          break;
         }
       }
       
-      // Debug output
-      // System.out.println("\nDetected pieces:");
-      // for (Map.Entry<Character, List<int[]>> entry : pieceCoordinates.entrySet()) {
-      //   System.out.println("Piece " + entry.getKey() + ": " + entry.getValue().size() + " cells");
-      // }
+      isHorizontal = sameY;
       
-      // Prepare for creating GameState with new structure
-      List<Piece> pieces = new ArrayList<>();
-      List<Integer> positionsX = new ArrayList<>();
-      List<Integer> positionsY = new ArrayList<>();
-      PrimaryPiece primaryPiece = null;
-      int primaryX = -1;
-      int primaryY = -1;
-  
-      // Process each piece
-      for (Map.Entry<Character, List<int[]>> entry : pieceCoordinates.entrySet()) {
-        char label = entry.getKey();
-        List<int[]> coords = entry.getValue();
-
-        // Semua koordinat piece harus terhubung
-        boolean isConnected = validateConnectedPiece(coords);
-        if (!isConnected) {
-          throw new IOException("Found disconnected piece parts with same label '" + label + "'. Each piece must be contiguous.");
-        }
-        
-        // Determine orientation and size
-        boolean isHorizontal;
-        int size = coords.size(); // Size is the number of cells
-        if (size < 2) {
-          throw new IOException("Piece length has to be more than 1 block length!");
-        }
-        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
-        
-        // Find top-left corner
-        for (int[] coord : coords) {
-          minX = Math.min(minX, coord[0]);
-          minY = Math.min(minY, coord[1]);
-        }
-        
-        // Check if horizontal (all Y values are the same)
-        boolean sameY = true;
-        int baseY = coords.get(0)[1];
+      // Create piece
+      if (label == 'P') {
+        primaryPiece = new PrimaryPiece(label, size, isHorizontal);
+        primaryX = minX;
+        primaryY = minY;
         
-        for (int[] coord : coords) {
-          if (coord[1] != baseY) {
-            sameY = false;
-            break;
-          }
-        }
-        
-        isHorizontal = sameY;
+        // Check if primary piece orientation is compatible with exit side
+        boolean validOrientation = 
+            (isHorizontal && (exitSide == 1 || exitSide == 3)) || // Horizontal piece with left/right exit
+            (!isHorizontal && (exitSide == 0 || exitSide == 2));  // Vertical piece with top/bottom exit
         
-        // Create piece
-        if (label == 'P') {
-          primaryPiece = new PrimaryPiece(label, size, isHorizontal);
-          primaryX = minX;
-          primaryY = minY;
-          
-          // Check if primary piece orientation is compatible with exit side
-          boolean validOrientation = 
-              (isHorizontal && (exitSide == 1 || exitSide == 3)) || // Horizontal piece with left/right exit
-              (!isHorizontal && (exitSide == 0 || exitSide == 2));  // Vertical piece with top/bottom exit
-          
-          if (!validOrientation) {
-            throw new IOException("Primary piece orientation (" + 
-                              (isHorizontal ? "horizontal" : "vertical") + 
-                              ") is not compatible with exit side (" + exitSide + ")");
-          }
-        } else {
-          Piece piece = new Piece(label, size, isHorizontal);
-          pieces.add(piece);
-          positionsX.add(minX);
-          positionsY.add(minY);
+        if (!validOrientation) {
+          throw new IOException("Primary piece orientation (" + 
+                            (isHorizontal ? "horizontal" : "vertical") + 
+                            ") is not compatible with exit side (" + exitSide + ")");
         }
+      } else {
+        Piece piece = new Piece(label, size, isHorizontal);
+        pieces.add(piece);
+        positionsX.add(minX);
+        positionsY.add(minY);
       }
-      
-      // Check if primary piece was found
-      if (primaryPiece == null) {
-        throw new IOException("Primary piece (P) not found in the configuration");
-      }
-      
-      // Create and return the GameState with the original structure
-      return new GameState(board, pieces, positionsX, positionsY, primaryPiece, primaryX, primaryY);
-    } catch (Exception e) {
-      throw new IOException("Error parsing configuration: " + e.getMessage(), e);
     }
+    
+    // Check if primary piece was found
+    if (primaryPiece == null) {
+      throw new IOException("Primary piece (P) not found in the configuration");
+    }
+    
+    // Create and return the GameState with the original structure
+    return new GameState(board, pieces, positionsX, positionsY, primaryPiece, primaryX, primaryY);
   }
   
   /**
    * Checks if a line contains only 'K' and spaces (exit line)
    */
-  private static boolean isExitLine(String line) {
-    if (line == null || line.isEmpty()) return false;
+  private static boolean isExitLine(CharSequence line) {
+    if (line == null || line.length() == 0) return false;
     
-    line = line.trim().toUpperCase();
-    if (line.equals("K")) return true; // Simple case - just "K"
+    // Same as trim(): skip control characters and spaces on both ends
+    int start = 0;
+    int end = line.length();
+    while (start < end && line.charAt(start) <= ' ') start++;
+    while (end > start && line.charAt(end - 1) <= ' ') end--;
     
     boolean hasK = false;
-    for (char c : line.toCharArray()) {
+    for (int i = start; i < end; i++) {
+      char c = Character.toUpperCase(line.charAt(i));
       if (c == 'K') hasK = true;
       else if (c != ' ') return false; // Contains character other than K or space
     }
@@ -357,6 +353,27 @@ public class ConfigParser {
     return hasK; // True if it has K and only spaces otherwise
   }
 
+  private static int indexOf(CharSequence line, char c) {
+    for (int i = 0; i < line.length(); i++) {
+      if (line.charAt(i) == c) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Same as line.trim().startsWith(c).
+   */
+  private static boolean firstNonSpaceIs(CharSequence line, char c) {
+    for (int i = 0; i < line.length(); i++) {
+      if (line.charAt(i) > ' ') {
+        return line.charAt(i) == c;
+      }
+    }
+    return false;
+  }
+
     /**
    * Validates that all coordinates for a piece are connected
    */
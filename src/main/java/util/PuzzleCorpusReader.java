@@ -0,0 +1,321 @@
+package util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import logic.GameState;
+
+/**
+ * Kelas PuzzleCorpusReader buat baca file berisi banyak puzzle.
+ * Formatnya sama kayak file konfigurasi biasa, tiap puzzle dipisah satu
+ * atau lebih baris kosong, jadi file konfigurasi satu puzzle juga corpus
+ * yang valid. Filenya di-memory-map per window dan puzzle dibaca satu-satu
+ * waktu diminta. Baris nggak pernah dicopy ke String, ConfigParser ngebaca
+ * langsung dari buffer lewat view CharSequence, jadi aturan pintu keluarnya
+ * sama persis kayak ConfigParser.parseConfig.
+ *
+ * Puzzle yang formatnya salah bikin next() ngelempar UncheckedIOException,
+ * tapi pembacaan bisa dilanjut ke puzzle berikutnya.
+ */
+public class PuzzleCorpusReader implements Iterator<GameState>, Closeable {
+  // Ukuran satu window mapping, satu puzzle harus muat di sini
+  private static final long WINDOW_SIZE = 1L << 28;
+
+  private final Path file;
+  private final FileChannel channel;
+  private final long fileSize;
+  private ByteBuffer window;
+  private long windowStart;
+  private int cursor;
+  private long lineNumber = 1;
+
+  // Baris puzzle berikutnya, objek view-nya dipake ulang antar puzzle
+  private final List<ByteLine> lines = new ArrayList<>();
+  private int lineCount;
+  private long blockLineNumber;
+  private boolean blockReady;
+  private int puzzlesRead;
+
+  /**
+   * Buka file corpus.
+   *
+   * @param file File corpus
+   * @throws IOException Kalau file nggak bisa dibuka
+   */
+  public PuzzleCorpusReader(Path file) throws IOException {
+    this.file = file;
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    this.fileSize = channel.size();
+    map(0);
+  }
+
+  /**
+   * Baca semua puzzle di file sebagai Stream. Stream-nya harus ditutup
+   * (misalnya pake try-with-resources) biar filenya ikut ditutup.
+   *
+   * @param file File corpus
+   * @return Stream GameState sesuai urutan di file
+   * @throws IOException Kalau file nggak bisa dibuka
+   */
+  public static Stream<GameState> stream(Path file) throws IOException {
+    PuzzleCorpusReader reader = new PuzzleCorpusReader(file);
+    return StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(reader, Spliterator.ORDERED | Spliterator.NONNULL), false)
+        .onClose(reader::close);
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (!blockReady) {
+      try {
+        blockReady = readBlock();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    return blockReady;
+  }
+
+  /**
+   * Parse puzzle berikutnya.
+   *
+   * @return GameState awal puzzle
+   * @throws UncheckedIOException Kalau puzzle ini formatnya salah
+   */
+  @Override
+  public GameState next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    blockReady = false;
+    puzzlesRead++;
+    try {
+      return parseBlock();
+    } catch (Exception e) {
+      throw new UncheckedIOException(new IOException("Error parsing puzzle #" + puzzlesRead
+          + " at line " + blockLineNumber + " of " + file + ": " + e.getMessage(), e));
+    }
+  }
+
+  /**
+   * @return Jumlah puzzle yang udah diambil lewat next(), termasuk yang gagal
+   */
+  public int getPuzzlesRead() {
+    return puzzlesRead;
+  }
+
+  @Override
+  public void close() {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void map(long start) throws IOException {
+    windowStart = start;
+    window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, fileSize - start));
+    cursor = 0;
+  }
+
+  /**
+   * Ngumpulin baris puzzle berikutnya, yaitu baris-baris nggak kosong
+   * sampai baris kosong atau akhir file.
+   *
+   * @return false kalau udah nggak ada puzzle lagi
+   */
+  private boolean readBlock() throws IOException {
+    // Lewati baris kosong sebelum puzzle
+    while (true) {
+      if (atEndOfFile()) {
+        return false;
+      }
+      int end = lineEnd(cursor);
+      if (end < 0) {
+        map(windowStart + cursor);
+        continue;
+      }
+      if (!isBlank(cursor, end)) {
+        break;
+      }
+      cursor = nextLine(end);
+      lineNumber++;
+    }
+
+    int blockStart = cursor;
+    long blockStartLine = lineNumber;
+    lineCount = 0;
+    while (!atEndOfFile()) {
+      int end = lineEnd(cursor);
+      if (end < 0) {
+        // Puzzle kepotong window, map ulang mulai dari awal puzzle
+        if (blockStart == 0) {
+          throw new IOException("Puzzle at line " + blockStartLine + " is larger than " + WINDOW_SIZE + " bytes");
+        }
+        map(windowStart + blockStart);
+        blockStart = 0;
+        lineNumber = blockStartLine;
+        lineCount = 0;
+        continue;
+      }
+      if (isBlank(cursor, end)) {
+        break;
+      }
+      addLine(cursor, end);
+      cursor = nextLine(end);
+      lineNumber++;
+    }
+    blockLineNumber = blockStartLine;
+    return true;
+  }
+
+  /**
+   * Nyari akhir baris yang mulai di start, tanpa '\r' di ujungnya.
+   *
+   * @return Index setelah karakter terakhir baris, -1 kalau barisnya
+   *         kepotong window dan file masih lanjut
+   */
+  private int lineEnd(int start) {
+    int limit = window.limit();
+    int end = start;
+    while (end < limit && window.get(end) != '\n') {
+      end++;
+    }
+    if (end == limit && windowStart + limit < fileSize) {
+      return -1;
+    }
+    return end > start && window.get(end - 1) == '\r' ? end - 1 : end;
+  }
+
+  private boolean atEndOfFile() {
+    return cursor >= window.limit() && windowStart + window.limit() >= fileSize;
+  }
+
+  private int nextLine(int end) {
+    int limit = window.limit();
+    if (end < limit && window.get(end) == '\r') {
+      end++;
+    }
+    return end < limit ? end + 1 : limit;
+  }
+
+  private boolean isBlank(int start, int end) {
+    for (int i = start; i < end; i++) {
+      if ((window.get(i) & 0xFF) > ' ') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void addLine(int start, int end) {
+    if (lineCount == lines.size()) {
+      lines.add(new ByteLine());
+    }
+    lines.get(lineCount++).reset(window, start, end - start);
+  }
+
+  private GameState parseBlock() throws IOException {
+    if (lineCount < 3) {
+      throw new IOException("Incomplete config file");
+    }
+    int[] dimensions = new int[2];
+    if (parseInts(lines.get(0), dimensions) < 2) {
+      throw new IOException("Board dimension line must have rows and columns: " + lines.get(0));
+    }
+    int[] count = new int[1];
+    if (parseInts(lines.get(1), count) < 1) {
+      throw new IOException("Missing block count: " + lines.get(1));
+    }
+    ConfigParser.validateHeader(dimensions[0], dimensions[1], count[0]);
+    return ConfigParser.parseBoard(dimensions[0], dimensions[1], lines.subList(2, lineCount));
+  }
+
+  /**
+   * Parse angka-angka di satu baris yang dipisah spasi, sebanyak panjang
+   * array tujuan, tanpa bikin String.
+   *
+   * @return Jumlah angka yang kebaca
+   */
+  private static int parseInts(CharSequence line, int[] values) {
+    int found = 0;
+    int i = 0;
+    while (found < values.length) {
+      while (i < line.length() && line.charAt(i) <= ' ') {
+        i++;
+      }
+      if (i == line.length()) {
+        break;
+      }
+      int start = i;
+      while (i < line.length() && line.charAt(i) > ' ') {
+        i++;
+      }
+      values[found++] = Integer.parseInt(line, start, i, 10);
+    }
+    return found;
+  }
+
+  /**
+   * View satu baris di buffer sebagai CharSequence huruf besar (ASCII),
+   * kayak baris yang udah di-toUpperCase() di ConfigParser.
+   */
+  private static final class ByteLine implements CharSequence {
+    private ByteBuffer buffer;
+    private int offset;
+    private int length;
+
+    void reset(ByteBuffer buffer, int offset, int length) {
+      this.buffer = buffer;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+      if (index < 0 || index >= length) {
+        throw new IndexOutOfBoundsException(index);
+      }
+      char c = (char) (buffer.get(offset + index) & 0xFF);
+      return c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      if (start < 0 || end > length || start > end) {
+        throw new IndexOutOfBoundsException("[" + start + ", " + end + ") of " + length);
+      }
+      ByteLine line = new ByteLine();
+      line.reset(buffer, offset + start, end - start);
+      return line;
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder(length);
+      for (int i = 0; i < length; i++) {
+        sb.append(charAt(i));
+      }
+      return sb.toString();
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import logic.Board;
+import logic.GameState;
+import logic.Piece;
+import logic.PrimaryPiece;
+
+/**
+ * Kelas PuzzleGenerator buat bikin puzzle acak.
+ * Block utama horizontal dengan pintu keluar di kanan, Block lain ditaruh
+ * acak tanpa tumpang tindih. Puzzlenya belum tentu bisa diselesaikan.
+ */
+public class PuzzleGenerator {
+  /**
+   * Label yang dipake buat Block biasa, P dan K udah kepake. Huruf kecil dan
+   * angka cuma buat papan besar yang dibikin di memori, ConfigParser
+   * ngebaca semua label jadi huruf besar.
+   */
+  public static final String LABELS = "ABCDEFGHIJLMNOQRSTUVWXYZabcdefghijlmnoqrstuvwxyz0123456789";
+
+  // Berapa kali nyoba naruh satu Block sebelum nyerah
+  private static final int PLACEMENT_ATTEMPTS = 100;
+
+  /**
+   * Bikin puzzle acak.
+   *
+   * @param rows Jumlah baris papan
+   * @param cols Jumlah kolom papan
+   * @param pieceCount Jumlah Block selain Block utama yang dicoba ditaruh
+   * @param random Sumber angka acak, biar hasilnya bisa diulang
+   * @return GameState awal puzzle
+   */
+  public static GameState generate(int rows, int cols, int pieceCount, Random random) {
+    if (rows < 3 || cols < 3) {
+      throw new IllegalArgumentException("Board must be at least 3x3: " + rows + "x" + cols);
+    }
+    if (pieceCount < 0 || pieceCount > LABELS.length()) {
+      throw new IllegalArgumentException("Piece count must be between 0 and " + LABELS.length() + ": " + pieceCount);
+    }
+
+    char[][] grid = new char[rows][cols];
+    for (char[] row : grid) {
+      Arrays.fill(row, '.');
+    }
+
+    // Block utama jangan langsung di pintu keluar
+    int exitRow = (rows - 1) / 2;
+    int primaryX = random.nextInt(cols - 2);
+    PrimaryPiece primaryPiece = new PrimaryPiece('P', 2, true);
+    grid[exitRow][primaryX] = 'P';
+    grid[exitRow][primaryX + 1] = 'P';
+
+    List<Piece> pieces = new ArrayList<>();
+    List<Integer> positionsX = new ArrayList<>();
+    List<Integer> positionsY = new ArrayList<>();
+    for (int i = 0; i < pieceCount; i++) {
+      char label = LABELS.charAt(i);
+      for (int attempt = 0; attempt < PLACEMENT_ATTEMPTS; attempt++) {
+        int size = random.nextInt(4) == 0 ? 3 : 2;
+        boolean horizontal = random.nextBoolean();
+        int x = random.nextInt(horizontal ? cols - size + 1 : cols);
+        int y = random.nextInt(horizontal ? rows : rows - size + 1);
+        // Block horizontal di baris pintu keluar bikin puzzle pasti buntu
+        if (horizontal && y == exitRow) {
+          continue;
+        }
+        if (!isFree(grid, x, y, size, horizontal)) {
+          continue;
+        }
+        for (int c = 0; c < size; c++) {
+          grid[horizontal ? y : y + c][horizontal ? x + c : x] = label;
+        }
+        pieces.add(new Piece(label, size, horizontal));
+        positionsX.add(x);
+        positionsY.add(y);
+        break;
+      }
+    }
+
+    Board board = new Board(rows, cols, cols, exitRow, 1);
+    board.setGrid(grid);
+    return new GameState(board, pieces, positionsX, positionsY, primaryPiece, primaryX, exitRow);
+  }
+
+  private static boolean isFree(char[][] grid, int x, int y, int size, boolean horizontal) {
+    for (int c = 0; c < size; c++) {
+      if (grid[horizontal ? y : y + c][horizontal ? x + c : x] != '.') {
+        return false;
+      }
+    }
+    return true;
+  }
+}
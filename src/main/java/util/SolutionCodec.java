@@ -0,0 +1,262 @@
+package util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import logic.Board;
+import logic.GameState;
+import logic.Piece;
+import logic.PrimaryPiece;
+import logic.PuzzleLayout;
+import logic.Solution;
+
+/**
+ * Kelas SolutionCodec buat nulis dan baca puzzle plus solusinya dalam
+ * format biner yang ringkas. Puzzle 6x6 dengan solusi 19 langkah cuma
+ * sekitar 110 byte, dibanding laporan teks yang nyimpen papan lengkap tiap
+ * langkah. Puzzle tanpa solusi ditulis dengan 0 gerakan.
+ *
+ * Formatnya (big-endian):
+ * <pre>
+ * magic      4 byte  "RHS1"
+ * rows, cols 1 byte masing-masing
+ * exitSide   1 byte  0=atas, 1=kanan, 2=bawah, 3=kiri
+ * exitX      1 byte  signed
+ * exitY      1 byte  signed
+ * pieceCount 1 byte  termasuk Block utama, yang selalu pertama
+ * tiap Block: label, ukuran, flag (bit 0 = horizontal), koordinat tetap,
+ *             posisi awal (signed), masing-masing 1 byte
+ * moveCount  varint
+ * tiap gerakan: index Block 1 byte, delta posisi 1 byte signed
+ * </pre>
+ */
+public class SolutionCodec {
+  private static final byte[] MAGIC = {'R', 'H', 'S', '1'};
+  private static final int INITIAL_MOVE_CAPACITY = 1024;
+
+  /**
+   * Nulis solusi ke stream.
+   *
+   * @param solution Solusi yang ditulis
+   * @param out Stream tujuan, nggak ditutup
+   * @throws IOException Kalau gagal nulis
+   */
+  public static void write(Solution solution, OutputStream out) throws IOException {
+    GameState initialState = solution.getInitialState();
+    PuzzleLayout layout = initialState.getLayout();
+    // Posisi disimpen sebagai byte signed
+    if (layout.getRows() > 127 || layout.getCols() > 127 || layout.getPieceCount() > 255) {
+      throw new IOException("Board too large for the binary format: " + layout.getRows() + "x"
+          + layout.getCols() + " with " + layout.getPieceCount() + " pieces");
+    }
+
+    DataOutputStream data = new DataOutputStream(out);
+    data.write(MAGIC);
+    data.writeByte(layout.getRows());
+    data.writeByte(layout.getCols());
+    data.writeByte(layout.getExitSide());
+    data.writeByte(layout.getExitX());
+    data.writeByte(layout.getExitY());
+    data.writeByte(layout.getPieceCount());
+    int[] positions = new int[layout.getPieceCount()];
+    for (int i = 0; i < layout.getPieceCount(); i++) {
+      Piece piece = layout.getPiece(i);
+      positions[i] = initialState.getPosition(i);
+      data.writeByte(piece.getLabel());
+      data.writeByte(piece.getSize());
+      data.writeByte(piece.isHorizontal() ? 1 : 0);
+      data.writeByte(layout.getFixedCoord(i));
+      data.writeByte(positions[i]);
+    }
+
+    writeVarint(data, solution.getMoveCount());
+    for (int move = 0; move < solution.getMoveCount(); move++) {
+      int piece = solution.getMovedPiece(move);
+      data.writeByte(piece);
+      data.writeByte(solution.getNewPosition(move) - positions[piece]);
+      positions[piece] = solution.getNewPosition(move);
+    }
+    data.flush();
+  }
+
+  /**
+   * Baca solusi dari stream. Semua gerakan dicek harus geseran yang sah.
+   *
+   * @param in Stream sumber, nggak ditutup
+   * @return Solusi yang dibaca
+   * @throws IOException Kalau formatnya salah atau ada gerakan yang nggak sah
+   */
+  public static Solution read(InputStream in) throws IOException {
+    DataInputStream data = new DataInputStream(in);
+    byte[] magic = new byte[MAGIC.length];
+    data.readFully(magic);
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (magic[i] != MAGIC[i]) {
+        throw new IOException("Not a binary solution file");
+      }
+    }
+
+    int rows = data.readUnsignedByte();
+    int cols = data.readUnsignedByte();
+    int exitSide = data.readUnsignedByte();
+    int exitX = data.readByte();
+    int exitY = data.readByte();
+    int pieceCount = data.readUnsignedByte();
+    if (rows < 2 || cols < 2 || exitSide > 3 || pieceCount < 1) {
+      throw new IOException("Invalid header: " + rows + "x" + cols + ", exit side " + exitSide
+          + ", " + pieceCount + " pieces");
+    }
+
+    char[][] grid = new char[rows][cols];
+    for (char[] row : grid) {
+      Arrays.fill(row, '.');
+    }
+    char[] labels = new char[pieceCount];
+    PrimaryPiece primaryPiece = null;
+    int primaryX = 0;
+    int primaryY = 0;
+    List<Piece> pieces = new ArrayList<>();
+    List<Integer> positionsX = new ArrayList<>();
+    List<Integer> positionsY = new ArrayList<>();
+    for (int i = 0; i < pieceCount; i++) {
+      char label = (char) data.readUnsignedByte();
+      int size = data.readUnsignedByte();
+      boolean horizontal = (data.readUnsignedByte() & 1) != 0;
+      int fixed = data.readUnsignedByte();
+      int position = data.readByte();
+      int x = horizontal ? position : fixed;
+      int y = horizontal ? fixed : position;
+      int lineLength = horizontal ? cols : rows;
+      if (label <= ' ' || label == '.' || size < 1 || fixed >= (horizontal ? rows : cols)
+          || position < 0 || position + size > lineLength) {
+        throw new IOException("Invalid piece " + (i + 1) + " in piece table");
+      }
+      labels[i] = label;
+      for (int c = 0; c < size; c++) {
+        int cellX = horizontal ? x + c : x;
+        int cellY = horizontal ? y : y + c;
+        if (grid[cellY][cellX] != '.') {
+          throw new IOException("Pieces '" + grid[cellY][cellX] + "' and '" + label + "' overlap");
+        }
+        grid[cellY][cellX] = label;
+      }
+      if (i == PuzzleLayout.PRIMARY_INDEX) {
+        primaryPiece = new PrimaryPiece(label, size, horizontal);
+        primaryX = x;
+        primaryY = y;
+      } else {
+        pieces.add(new Piece(label, size, horizontal));
+        positionsX.add(x);
+        positionsY.add(y);
+      }
+    }
+    Board board = new Board(rows, cols, exitX, exitY, exitSide);
+    board.setGrid(grid);
+    GameState initialState = new GameState(board, pieces, positionsX, positionsY,
+        primaryPiece, primaryX, primaryY);
+
+    // GameState ngurutin Block sendiri, jadi index di file dipetain lewat labelnya
+    PuzzleLayout layout = initialState.getLayout();
+    if (layout.getPieceCount() != pieceCount) {
+      throw new IOException("Duplicate piece labels in piece table");
+    }
+    int[] indexInLayout = new int[pieceCount];
+    for (int i = 0; i < pieceCount; i++) {
+      indexInLayout[i] = layout.indexOf(labels[i]);
+      if (indexInLayout[i] < 0) {
+        throw new IOException("Unsupported piece label '" + labels[i] + "'");
+      }
+    }
+
+    int moveCount = readVarint(data);
+    int[] positions = new int[pieceCount];
+    for (int i = 0; i < pieceCount; i++) {
+      positions[i] = initialState.getPosition(i);
+    }
+    // Jumlah gerakan dari file belum tentu bener, jadi array-nya digedein
+    // sambil baca; file rusak berhenti di EOFException, bukan OutOfMemoryError
+    int[] movedPieces = new int[Math.min(moveCount, INITIAL_MOVE_CAPACITY)];
+    int[] newPositions = new int[movedPieces.length];
+    for (int move = 0; move < moveCount; move++) {
+      if (move == movedPieces.length) {
+        int capacity = (int) Math.min(moveCount, 2L * movedPieces.length);
+        movedPieces = Arrays.copyOf(movedPieces, capacity);
+        newPositions = Arrays.copyOf(newPositions, capacity);
+      }
+      int piece = data.readUnsignedByte();
+      if (piece >= pieceCount) {
+        throw new IOException("Move " + (move + 1) + ": no piece with index " + piece);
+      }
+      piece = indexInLayout[piece];
+      positions[piece] += data.readByte();
+      movedPieces[move] = piece;
+      newPositions[move] = positions[piece];
+    }
+
+    try {
+      return new Solution(initialState, movedPieces, newPositions);
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Invalid move in binary solution: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Nulis solusi ke file.
+   *
+   * @param solution Solusi yang ditulis
+   * @param file File tujuan
+   * @throws IOException Kalau gagal nulis
+   */
+  public static void writeFile(Solution solution, Path file) throws IOException {
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+      write(solution, out);
+    }
+  }
+
+  /**
+   * Baca solusi dari file.
+   *
+   * @param file File sumber
+   * @return Solusi yang dibaca
+   * @throws IOException Kalau file nggak bisa dibaca atau formatnya salah
+   */
+  public static Solution readFile(Path file) throws IOException {
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+      return read(in);
+    }
+  }
+
+  private static void writeVarint(DataOutputStream data, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      data.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    data.writeByte(value);
+  }
+
+  private static int readVarint(DataInputStream data) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      int b = data.readUnsignedByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        if (value < 0) {
+          throw new IOException("Move count out of range");
+        }
+        return value;
+      }
+    }
+    throw new EOFException("Malformed move count");
+  }
+}